@@ -0,0 +1,351 @@
+package com.example.incidentreports;
+
+import android.content.Context;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.json.JSONObject;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Drives PocketBaseApiHelper against {@link FakePocketBaseServer} with many simulated
+ * responders at once. Each responder logs in, loads its first page, opens one incident
+ * and changes its status, every round. Throughput, per-call latency percentiles and the
+ * number of retried requests are written to logcat under this class name. Against the
+ * healthy server the p95 and p99 of every call must also stay under fixed limits, so a
+ * client-side regression (queueing, serialisation, extra round trips) fails the run.
+ */
+@RunWith(AndroidJUnit4.class)
+public class ApiClientLoadTest {
+    private static final String TAG = "ApiClientLoadTest";
+    private static final int RESPONDERS = 50;
+    private static final int INCIDENTS_PER_RESPONDER = 40;
+    private static final int ROUNDS = 5;
+    private static final int PAGE_SIZE = 20;
+    private static final String PASSWORD = "password123";
+    /** The healthy server answers in 20-30 ms; the rest is client and emulator overhead. */
+    private static final long HEALTHY_P95_LIMIT_MS = 400;
+    private static final long HEALTHY_P99_LIMIT_MS = 1000;
+
+    private final Map<String, List<Long>> latenciesByCall = new ConcurrentHashMap<>();
+    private final AtomicInteger failures = new AtomicInteger();
+    private final AtomicInteger clientCalls = new AtomicInteger();
+
+    @Rule
+    public FakeServerRule fakeServer = new FakeServerRule();
+
+    private Context context;
+    private FakePocketBaseServer server;
+
+    @Before
+    public void setUp() {
+        context = fakeServer.getContext();
+        server = fakeServer.getServer();
+    }
+
+    @Test
+    public void healthyServerServesEveryCall() throws Exception {
+        server.setLatency(20, 30);
+        server.setDescriptionPadding(200);
+
+        runLoad("healthy");
+
+        assertEquals(0, failures.get());
+        assertEquals("No call should need a retry", clientCalls.get(), server.getRequestCount());
+        for (Map.Entry<String, List<Long>> entry : latenciesByCall.entrySet()) {
+            List<Long> latencies = sorted(entry.getValue());
+            long p95 = percentile(latencies, 95);
+            long p99 = percentile(latencies, 99);
+            assertTrue(entry.getKey() + " p95 " + p95 + "ms over " + HEALTHY_P95_LIMIT_MS + "ms",
+                    p95 <= HEALTHY_P95_LIMIT_MS);
+            assertTrue(entry.getKey() + " p99 " + p99 + "ms over " + HEALTHY_P99_LIMIT_MS + "ms",
+                    p99 <= HEALTHY_P99_LIMIT_MS);
+        }
+    }
+
+    @Test
+    public void flakyServerIsRetriedOrReported() throws Exception {
+        server.setLatency(50, 150);
+        server.setErrorRate(0.05);
+
+        runLoad("flaky");
+
+        // Latency here depends on the retry backoff, so it is only reported. Every injected
+        // 500 either surfaced as a failed call or was absorbed by a retry.
+        int retries = server.getRequestCount() - clientCalls.get();
+        Log.i(TAG, "flaky: " + server.getInjectedErrorCount() + " injected errors, "
+                + retries + " retried requests, " + failures.get() + " failed calls");
+        assertTrue(failures.get() + retries >= server.getInjectedErrorCount());
+    }
+
+    @Test
+    public void signUpCreatesResponderThenAdmin() throws Exception {
+        PocketBaseApiHelper apiHelper = new PocketBaseApiHelper(context);
+        CountDownLatch done = new CountDownLatch(1);
+        AtomicInteger outcome = new AtomicInteger();
+        apiHelper.registerAdmin("Ana", "", "Cruz", "ana@example.com", PASSWORD, "09170000000", "12",
+                new PocketBaseApiHelper.SimpleCallback() {
+                    @Override
+                    public void onSuccess() {
+                        outcome.set(1);
+                        done.countDown();
+                    }
+
+                    @Override
+                    public void onError(String message) {
+                        done.countDown();
+                    }
+                });
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertEquals(1, outcome.get());
+        assertEquals(2, server.getRequestCount());
+    }
+
+    @Test
+    public void refusedAdminRemovesItsResponder() throws Exception {
+        PocketBaseApiHelper apiHelper = new PocketBaseApiHelper(context);
+        assertTrue(signUp(apiHelper, "dup@example.com"));
+        assertEquals(1, server.getResponderCount());
+
+        // The email is taken, so the second admin record is refused after its responder exists.
+        assertFalse(signUp(apiHelper, "dup@example.com"));
+        long deadline = SystemClock.elapsedRealtime() + 10000;
+        while (server.getResponderCount() > 1 && SystemClock.elapsedRealtime() < deadline) {
+            Thread.sleep(50);
+        }
+        assertEquals(1, server.getResponderCount());
+    }
+
+    @Test
+    public void closingScreenDoesNotInterruptSignUp() throws Exception {
+        server.setLatency(300, 0);
+        PocketBaseApiHelper apiHelper = new PocketBaseApiHelper(context);
+        apiHelper.registerAdmin("Ana", "", "Cruz", "gone@example.com", PASSWORD, "09170000000", "12",
+                new PocketBaseApiHelper.SimpleCallback() {
+                    @Override
+                    public void onSuccess() {
+                    }
+
+                    @Override
+                    public void onError(String message) {
+                    }
+                });
+        // What RegisterActivity.onDestroy does while the responder POST is on the wire.
+        Thread.sleep(100);
+        apiHelper.cancelPendingRequests();
+
+        long deadline = SystemClock.elapsedRealtime() + 10000;
+        while (server.getRequestCount() < 2 && SystemClock.elapsedRealtime() < deadline) {
+            Thread.sleep(50);
+        }
+        assertEquals("The admin record must still be created", 2, server.getRequestCount());
+    }
+
+    @Test
+    public void realtimeStreamDeliversCreatedIncident() throws Exception {
+        String responderId = server.addAdmin("rt@example.com", PASSWORD);
+        JSONObject created = server.newIncident(responderId, 0);
+        server.queueRealtimeEvent("create", created);
+
+        CountDownLatch received = new CountDownLatch(1);
+        PocketBaseApiHelper apiHelper = new PocketBaseApiHelper(context);
+        PocketBaseRealtimeClient[] client = new PocketBaseRealtimeClient[1];
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() ->
+                client[0] = apiHelper.subscribeToAssignedIncidents("token", responderId,
+                        new PocketBaseApiHelper.RealtimeCallback() {
+                            @Override
+                            public void onConnected() {
+                            }
+
+                            @Override
+                            public void onIncidentChanged(IncidentSummary incident, boolean isNew) {
+                                if (incident.getId().equals(created.optString("id"))) {
+                                    received.countDown();
+                                }
+                            }
+
+                            @Override
+                            public void onIncidentRemoved(String incidentId) {
+                            }
+
+                            @Override
+                            public void onDisconnected() {
+                            }
+                        }));
+        try {
+            assertTrue(received.await(10, TimeUnit.SECONDS));
+        } finally {
+            client[0].stop();
+        }
+    }
+
+    /**
+     * Registers an admin and returns whether sign-up succeeded.
+     */
+    private boolean signUp(PocketBaseApiHelper apiHelper, String email) throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(1);
+        AtomicInteger outcome = new AtomicInteger();
+        apiHelper.registerAdmin("Ana", "", "Cruz", email, PASSWORD, "09170000000", "12",
+                new PocketBaseApiHelper.SimpleCallback() {
+                    @Override
+                    public void onSuccess() {
+                        outcome.set(1);
+                        done.countDown();
+                    }
+
+                    @Override
+                    public void onError(String message) {
+                        done.countDown();
+                    }
+                });
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        return outcome.get() == 1;
+    }
+
+    private void runLoad(String label) throws Exception {
+        List<String> emails = new ArrayList<>();
+        for (int i = 0; i < RESPONDERS; i++) {
+            String email = "responder" + i + "@example.com";
+            String responderId = server.addAdmin(email, PASSWORD);
+            server.addIncidents(responderId, INCIDENTS_PER_RESPONDER);
+            emails.add(email);
+        }
+
+        PocketBaseApiHelper apiHelper = new PocketBaseApiHelper(context);
+        long start = SystemClock.elapsedRealtime();
+        for (int round = 0; round < ROUNDS; round++) {
+            CountDownLatch roundDone = new CountDownLatch(RESPONDERS);
+            for (String email : emails) {
+                runResponder(apiHelper, email, roundDone);
+            }
+            assertTrue("Round " + round + " timed out", roundDone.await(60, TimeUnit.SECONDS));
+        }
+        long elapsedMs = SystemClock.elapsedRealtime() - start;
+
+        Log.i(TAG, label + ": " + clientCalls.get() + " calls in " + elapsedMs + " ms ("
+                + (clientCalls.get() * 1000L / Math.max(elapsedMs, 1)) + " calls/s), "
+                + server.getRequestCount() + " server requests, " + failures.get() + " failures");
+        for (Map.Entry<String, List<Long>> entry : latenciesByCall.entrySet()) {
+            List<Long> latencies = sorted(entry.getValue());
+            Log.i(TAG, label + " " + entry.getKey() + ": n=" + latencies.size()
+                    + " p50=" + percentile(latencies, 50) + "ms"
+                    + " p95=" + percentile(latencies, 95) + "ms"
+                    + " p99=" + percentile(latencies, 99) + "ms"
+                    + " max=" + latencies.get(latencies.size() - 1) + "ms");
+        }
+    }
+
+    /**
+     * One responder's round: login, first page, open the newest incident, move it forward.
+     * Each step starts from the previous step's callback, as the screens do.
+     */
+    private void runResponder(PocketBaseApiHelper apiHelper, String email, CountDownLatch done) {
+        long loginStart = call();
+        apiHelper.loginAdmin(email, PASSWORD, new PocketBaseApiHelper.AuthCallback() {
+            @Override
+            public void onSuccess(String token, String responderId, String fullName, String position) {
+                record("login", loginStart);
+                long pageStart = call();
+                apiHelper.fetchAssignedIncidentsPage(token, responderId, 1, PAGE_SIZE,
+                        new PocketBaseApiHelper.IncidentPageCallback() {
+                            @Override
+                            public void onSuccess(List<IncidentSummary> incidents, boolean hasMore) {
+                                record("page", pageStart);
+                                if (incidents.isEmpty()) {
+                                    done.countDown();
+                                    return;
+                                }
+                                openAndUpdate(apiHelper, token, incidents.get(0).getId(), done);
+                            }
+
+                            @Override
+                            public void onError(String message) {
+                                fail(done);
+                            }
+                        });
+            }
+
+            @Override
+            public void onError(String message) {
+                fail(done);
+            }
+        });
+    }
+
+    private void openAndUpdate(PocketBaseApiHelper apiHelper, String token, String incidentId, CountDownLatch done) {
+        long detailStart = call();
+        apiHelper.fetchIncidentById(token, incidentId, new PocketBaseApiHelper.IncidentCallback() {
+            @Override
+            public void onSuccess(IncidentReport incident) {
+                record("detail", detailStart);
+                String next = "pending".equals(incident.getStatus()) ? "ongoing" : "resolved";
+                long patchStart = call();
+                apiHelper.updateIncidentStatus(token, incidentId, next, new PocketBaseApiHelper.SimpleCallback() {
+                    @Override
+                    public void onSuccess() {
+                        record("patch", patchStart);
+                        done.countDown();
+                    }
+
+                    @Override
+                    public void onError(String message) {
+                        fail(done);
+                    }
+                });
+            }
+
+            @Override
+            public void onError(String message) {
+                fail(done);
+            }
+        });
+    }
+
+    private long call() {
+        clientCalls.incrementAndGet();
+        return SystemClock.elapsedRealtime();
+    }
+
+    private void record(String name, long startMs) {
+        latenciesByCall.computeIfAbsent(name, key -> Collections.synchronizedList(new ArrayList<>()))
+                .add(SystemClock.elapsedRealtime() - startMs);
+    }
+
+    private void fail(CountDownLatch done) {
+        failures.incrementAndGet();
+        done.countDown();
+    }
+
+    private static List<Long> sorted(List<Long> latencies) {
+        List<Long> copy;
+        synchronized (latencies) {
+            copy = new ArrayList<>(latencies);
+        }
+        Collections.sort(copy);
+        return copy;
+    }
+
+    private static long percentile(List<Long> sorted, int percentile) {
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.size()) - 1;
+        return sorted.get(Math.max(index, 0));
+    }
+}
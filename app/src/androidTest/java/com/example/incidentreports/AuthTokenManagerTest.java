@@ -0,0 +1,126 @@
+package com.example.incidentreports;
+
+import android.content.Context;
+import android.util.Base64;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks that a rejected token is refreshed and the call replayed once, that listeners
+ * learn the new token, and that a refresh the server refuses ends the session, against
+ * {@link FakePocketBaseServer}.
+ */
+@RunWith(AndroidJUnit4.class)
+public class AuthTokenManagerTest {
+    private static final String TOKEN = "token-under-test";
+
+    @Rule
+    public FakeServerRule fakeServer = new FakeServerRule();
+
+    private SessionManager sessionManager;
+    private String[] previousSession;
+    private FakePocketBaseServer server;
+    private AuthTokenManager tokenManager;
+    private PocketBaseApiHelper apiHelper;
+    private String incidentId;
+
+    @Before
+    public void setUp() throws Exception {
+        Context context = fakeServer.getContext();
+        server = fakeServer.getServer();
+
+        sessionManager = new SessionManager(context);
+        previousSession = new String[]{sessionManager.getToken(), sessionManager.getUserId(), sessionManager.getFullName(),
+                sessionManager.getPosition()};
+        String responderId = server.addAdmin("auth@example.com", "password123");
+        sessionManager.saveSession(TOKEN, responderId, "Auth Test", "admin");
+        incidentId = server.addIncidents(responderId, 1).get(0);
+
+        tokenManager = AuthTokenManager.getInstance(context);
+        apiHelper = new PocketBaseApiHelper(context);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        tokenManager.clear();
+        sessionManager.saveSession(previousSession[0], previousSession[1], previousSession[2], previousSession[3]);
+    }
+
+    @Test
+    public void rejectedTokenIsRefreshedAndCallReplayed() throws Exception {
+        server.rejectDataCallsWith(TOKEN);
+
+        assertNull(fetchIncident(TOKEN));
+        // The 401, the refresh and the replay.
+        assertEquals(3, server.getRequestCount());
+        assertNotEquals(TOKEN, sessionManager.getToken());
+        // Screens still holding the old token are given the new one.
+        assertEquals(sessionManager.getToken(), tokenManager.resolve(TOKEN));
+    }
+
+    @Test
+    public void refreshTellsTokenListeners() throws Exception {
+        server.rejectDataCallsWith(TOKEN);
+        CountDownLatch refreshed = new CountDownLatch(1);
+        AtomicReference<String> newToken = new AtomicReference<>();
+        AuthTokenManager.TokenListener listener = token -> {
+            newToken.set(token);
+            refreshed.countDown();
+        };
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> tokenManager.addTokenListener(listener));
+        try {
+            assertNull(fetchIncident(TOKEN));
+            assertTrue(refreshed.await(10, TimeUnit.SECONDS));
+            assertEquals(sessionManager.getToken(), newToken.get());
+        } finally {
+            InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> tokenManager.removeTokenListener(listener));
+        }
+    }
+
+    @Test
+    public void expiredTokenResolvesToCurrent() {
+        String payload = Base64.encodeToString("{\"exp\":1}".getBytes(StandardCharsets.UTF_8),
+                Base64.URL_SAFE | Base64.NO_PADDING | Base64.NO_WRAP);
+        String expired = "header." + payload + ".signature";
+
+        assertEquals(TOKEN, tokenManager.resolve(expired));
+        assertEquals("other-live-token", tokenManager.resolve("other-live-token"));
+    }
+
+    @Test
+    public void revokedTokenEndsSession() throws Exception {
+        server.revokeToken(TOKEN);
+        CountDownLatch expired = new CountDownLatch(1);
+        AuthTokenManager.SessionListener listener = expired::countDown;
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> tokenManager.addListener(listener));
+        try {
+            assertNotNull(fetchIncident(TOKEN));
+            assertTrue(expired.await(10, TimeUnit.SECONDS));
+            assertEquals(TOKEN, sessionManager.getToken());
+        } finally {
+            InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> tokenManager.removeListener(listener));
+        }
+    }
+
+    private String fetchIncident(String token) throws InterruptedException {
+        return fakeServer.fetchIncident(apiHelper, token, incidentId);
+    }
+}
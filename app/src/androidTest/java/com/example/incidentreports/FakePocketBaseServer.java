@@ -0,0 +1,449 @@
+package com.example.incidentreports;
+
+import android.net.Uri;
+
+import androidx.annotation.NonNull;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+/**
+ * In-process stand-in for the PocketBase endpoints the app calls: admin auth and
+ * auth-refresh, responder and admin sign-up, incident list/get/patch, batch and realtime. Latency, payload size
+ * and the rate of injected 500s are configurable so client behaviour can be measured
+ * without a network or a real server.
+ */
+public class FakePocketBaseServer {
+    private static final String COLLECTION_ID = "pbc_incident_reports";
+    private static final String RECORDS_PATH = "/api/collections/incident_reports/records";
+    private static final Pattern RESPONDER_FILTER = Pattern.compile("responders \\?= \"([^\"]+)\"");
+    private static final Pattern UPDATED_FILTER = Pattern.compile("updated > \"([^\"]+)\"");
+    private static final Pattern ID_FILTER = Pattern.compile("id = \"([^\"]+)\"");
+
+    private final MockWebServer server = new MockWebServer();
+    private final Map<String, JSONObject> incidentsById = Collections.synchronizedMap(new LinkedHashMap<>());
+    private final Map<String, JSONObject> adminsByEmail = new ConcurrentHashMap<>();
+    private final Set<String> responderIds = ConcurrentHashMap.newKeySet();
+    private final List<String> realtimeEvents = Collections.synchronizedList(new ArrayList<>());
+    private final Set<String> staleTokens = ConcurrentHashMap.newKeySet();
+    private final Set<String> revokedTokens = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger idCounter = new AtomicInteger();
+    private final AtomicInteger requestCount = new AtomicInteger();
+    private final AtomicInteger injectedErrors = new AtomicInteger();
+    private final AtomicInteger failuresToInject = new AtomicInteger();
+    private final AtomicInteger stallsToInject = new AtomicInteger();
+    private final AtomicLong lastTimestampMs = new AtomicLong();
+    private final Random random = new Random(42);
+
+    private volatile long latencyMs = 0;
+    private volatile long latencyJitterMs = 0;
+    private volatile double errorRate = 0;
+    private volatile int descriptionPaddingBytes = 0;
+    private volatile boolean batchEnabled = true;
+    private volatile long stallMs = 0;
+
+    public FakePocketBaseServer() {
+        server.setDispatcher(new Dispatcher() {
+            @NonNull
+            @Override
+            public MockResponse dispatch(@NonNull RecordedRequest request) {
+                return handle(request);
+            }
+        });
+    }
+
+    public void start() throws IOException {
+        server.start();
+    }
+
+    public void shutdown() throws IOException {
+        server.shutdown();
+    }
+
+    /**
+     * Base URL to store in {@link ApiConfigManager}, without a trailing slash.
+     */
+    public String getBaseUrl() {
+        String url = server.url("/").toString();
+        return url.substring(0, url.length() - 1);
+    }
+
+    public void setLatency(long latencyMs, long jitterMs) {
+        this.latencyMs = latencyMs;
+        this.latencyJitterMs = jitterMs;
+    }
+
+    /**
+     * Fraction of requests, from 0 to 1, answered with a 500 instead of being handled.
+     */
+    public void setErrorRate(double errorRate) {
+        this.errorRate = errorRate;
+    }
+
+    /**
+     * Extra characters appended to every incident description, to grow payloads.
+     */
+    public void setDescriptionPadding(int bytes) {
+        this.descriptionPaddingBytes = bytes;
+    }
+
+    /**
+     * Answers the next count requests with a 503, as during a backend restart.
+     */
+    public void failNextRequests(int count) {
+        failuresToInject.set(count);
+    }
+
+    /**
+     * Holds the headers of the next count requests for the given time on top of the
+     * normal latency, to simulate a slow replica or a stalled connection.
+     */
+    public void stallNextRequests(int count, long ms) {
+        stallMs = ms;
+        stallsToInject.set(count);
+    }
+
+    /**
+     * Answers data calls made with the token with a 401 while still accepting it for
+     * auth-refresh, like a token the server no longer trusts for data but can renew.
+     */
+    public void rejectDataCallsWith(String token) {
+        staleTokens.add(token);
+    }
+
+    /**
+     * Rejects the token everywhere, auth-refresh included.
+     */
+    public void revokeToken(String token) {
+        revokedTokens.add(token);
+    }
+
+    public void setBatchEnabled(boolean batchEnabled) {
+        this.batchEnabled = batchEnabled;
+    }
+
+    public int getRequestCount() {
+        return requestCount.get();
+    }
+
+    /**
+     * Responder records created through sign-up and not deleted since.
+     */
+    public int getResponderCount() {
+        return responderIds.size();
+    }
+
+    public int getInjectedErrorCount() {
+        return injectedErrors.get();
+    }
+
+    public String addAdmin(String email, String password) throws JSONException {
+        String responderId = nextId("resp");
+        adminsByEmail.put(email, new JSONObject()
+                .put("id", nextId("admin"))
+                .put("email", email)
+                .put("password", password)
+                .put("first_name", "Test")
+                .put("last_name", email)
+                .put("responder", responderId));
+        return responderId;
+    }
+
+    public List<String> addIncidents(String responderId, int count) throws JSONException {
+        List<String> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            JSONObject record = newIncident(responderId, i);
+            incidentsById.put(record.getString("id"), record);
+            ids.add(record.getString("id"));
+        }
+        return ids;
+    }
+
+    /**
+     * Queues a record event that is written to the next realtime stream after PB_CONNECT.
+     */
+    public void queueRealtimeEvent(String action, JSONObject record) throws JSONException {
+        realtimeEvents.add(new JSONObject().put("action", action).put("record", record).toString());
+    }
+
+    public JSONObject newIncident(String responderId, int index) throws JSONException {
+        String now = timestamp();
+        return new JSONObject()
+                .put("id", nextId("inc"))
+                .put("collectionId", COLLECTION_ID)
+                .put("type", index % 2 == 0 ? "Fire" : "Rescue")
+                .put("description", "Incident " + index + " reported near the market.")
+                .put("status", "pending")
+                .put("created", now)
+                .put("updated", now)
+                .put("latitude", "14.5995")
+                .put("longitude", "120.9842")
+                .put("address", index + " Rizal Avenue")
+                .put("incident_image", "")
+                .put("responders", new JSONArray().put(responderId));
+    }
+
+    private MockResponse handle(RecordedRequest request) {
+        requestCount.incrementAndGet();
+        Uri uri = Uri.parse(request.getPath());
+        String path = uri.getPath();
+        String method = request.getMethod();
+        try {
+            if ("/api/realtime".equals(path)) {
+                return "GET".equals(method) ? realtimeStream() : new MockResponse().setResponseCode(204);
+            }
+            if (failuresToInject.getAndUpdate(n -> Math.max(n - 1, 0)) > 0) {
+                injectedErrors.incrementAndGet();
+                return delayed(json(503, new JSONObject().put("message", "Service unavailable.")));
+            }
+            if (random.nextDouble() < errorRate) {
+                injectedErrors.incrementAndGet();
+                return delayed(json(500, new JSONObject().put("message", "Injected failure.")));
+            }
+            String authorization = request.getHeader("Authorization");
+            String token = authorization != null && authorization.startsWith("Bearer ")
+                    ? authorization.substring("Bearer ".length()) : null;
+            if (token != null && revokedTokens.contains(token)) {
+                return delayed(json(401, new JSONObject().put("message", "The request requires valid record authorization token.")));
+            }
+            MockResponse response;
+            if ("/api/collections/admins/auth-refresh".equals(path) && "POST".equals(method)) {
+                response = json(200, new JSONObject().put("token", nextId("token")).put("record", new JSONObject()));
+            } else if (token != null && staleTokens.contains(token)) {
+                response = json(401, new JSONObject().put("message", "The request requires valid record authorization token."));
+            } else if ("/api/collections/admins/auth-with-password".equals(path)) {
+                response = authWithPassword(new JSONObject(request.getBody().readUtf8()));
+            } else if ("/api/collections/responders/records".equals(path) && "POST".equals(method)) {
+                String id = nextId("resp");
+                responderIds.add(id);
+                response = json(200, new JSONObject().put("id", id));
+            } else if (path != null && path.startsWith("/api/collections/responders/records/") && "DELETE".equals(method)) {
+                response = responderIds.remove(uri.getLastPathSegment())
+                        ? new MockResponse().setResponseCode(204)
+                        : json(404, new JSONObject().put("message", "The requested resource wasn't found."));
+            } else if ("/api/collections/admins/records".equals(path) && "POST".equals(method)) {
+                response = createAdmin(new JSONObject(request.getBody().readUtf8()));
+            } else if (RECORDS_PATH.equals(path) && "GET".equals(method)) {
+                response = listIncidents(uri);
+            } else if (path != null && path.startsWith(RECORDS_PATH + "/")) {
+                String id = path.substring(RECORDS_PATH.length() + 1);
+                response = "PATCH".equals(method)
+                        ? patchIncident(id, new JSONObject(request.getBody().readUtf8()))
+                        : getIncident(id);
+            } else if ("/api/batch".equals(path) && "POST".equals(method)) {
+                response = batch(new JSONObject(request.getBody().readUtf8()));
+            } else {
+                response = json(404, new JSONObject().put("message", "Not found."));
+            }
+            return delayed(response);
+        } catch (JSONException e) {
+            return new MockResponse().setResponseCode(400).setBody("{\"message\":\"Bad request.\"}");
+        }
+    }
+
+    private MockResponse authWithPassword(JSONObject body) throws JSONException {
+        JSONObject admin = adminsByEmail.get(body.optString("identity"));
+        if (admin == null || !admin.optString("password").equals(body.optString("password"))) {
+            return json(400, new JSONObject().put("message", "Failed to authenticate."));
+        }
+        JSONObject record = new JSONObject(admin.toString());
+        record.remove("password");
+        return json(200, new JSONObject().put("token", "token-" + admin.getString("id")).put("record", record));
+    }
+
+    private MockResponse createAdmin(JSONObject body) throws JSONException {
+        if (adminsByEmail.containsKey(body.optString("email"))) {
+            return json(400, new JSONObject().put("message", "Failed to create record.")
+                    .put("data", new JSONObject().put("email", new JSONObject()
+                            .put("code", "validation_not_unique").put("message", "Value must be unique."))));
+        }
+        JSONObject admin = new JSONObject(body.toString()).put("id", nextId("admin"));
+        adminsByEmail.put(body.optString("email"), admin);
+        return json(200, admin);
+    }
+
+    private MockResponse listIncidents(Uri uri) throws JSONException {
+        String filter = uri.getQueryParameter("filter") != null ? uri.getQueryParameter("filter") : "";
+        int page = parseInt(uri.getQueryParameter("page"), 1);
+        int perPage = parseInt(uri.getQueryParameter("perPage"), 30);
+        boolean newestUpdatedFirst = "-updated".equals(uri.getQueryParameter("sort"));
+
+        List<JSONObject> matches = new ArrayList<>();
+        synchronized (incidentsById) {
+            for (JSONObject record : incidentsById.values()) {
+                if (matchesFilter(record, filter)) {
+                    matches.add(record);
+                }
+            }
+        }
+        String sortField = newestUpdatedFirst ? "updated" : "created";
+        Collections.sort(matches, (a, b) -> b.optString(sortField).compareTo(a.optString(sortField)));
+
+        JSONArray items = new JSONArray();
+        int from = Math.min((page - 1) * perPage, matches.size());
+        int to = Math.min(from + perPage, matches.size());
+        for (JSONObject record : matches.subList(from, to)) {
+            items.put(padded(record));
+        }
+        boolean skipTotal = "1".equals(uri.getQueryParameter("skipTotal"));
+        return json(200, new JSONObject()
+                .put("page", page)
+                .put("perPage", perPage)
+                .put("totalItems", skipTotal ? -1 : matches.size())
+                .put("totalPages", skipTotal ? -1 : (matches.size() + perPage - 1) / perPage)
+                .put("items", items));
+    }
+
+    private MockResponse getIncident(String id) throws JSONException {
+        JSONObject record = incidentsById.get(id);
+        if (record == null) {
+            return json(404, new JSONObject().put("message", "The requested resource wasn't found."));
+        }
+        return json(200, padded(record));
+    }
+
+    private MockResponse patchIncident(String id, JSONObject body) throws JSONException {
+        JSONObject record = incidentsById.get(id);
+        if (record == null) {
+            return json(404, new JSONObject().put("message", "The requested resource wasn't found."));
+        }
+        synchronized (record) {
+            if (body.has("status")) {
+                record.put("status", body.getString("status"));
+            }
+            record.put("updated", timestamp());
+        }
+        return json(200, record);
+    }
+
+    private MockResponse batch(JSONObject body) throws JSONException {
+        if (!batchEnabled) {
+            return json(403, new JSONObject().put("message", "Batch requests are not allowed."));
+        }
+        JSONArray requests = body.getJSONArray("requests");
+        JSONArray results = new JSONArray();
+        for (int i = 0; i < requests.length(); i++) {
+            JSONObject entry = requests.getJSONObject(i);
+            String id = Uri.parse(entry.getString("url")).getLastPathSegment();
+            MockResponse result = patchIncident(id, entry.getJSONObject("body"));
+            results.put(new JSONObject().put("status", result.getStatus().contains("200") ? 200 : 404));
+        }
+        return new MockResponse().setResponseCode(200)
+                .setHeader("Content-Type", "application/json")
+                .setBody(results.toString());
+    }
+
+    private MockResponse realtimeStream() {
+        StringBuilder stream = new StringBuilder()
+                .append("id:").append(nextId("client")).append('\n')
+                .append("event:PB_CONNECT\n")
+                .append("data:{\"clientId\":\"").append(nextId("client")).append("\"}\n\n");
+        synchronized (realtimeEvents) {
+            for (String event : realtimeEvents) {
+                stream.append("event:incident_reports/*\n").append("data:").append(event).append("\n\n");
+            }
+            realtimeEvents.clear();
+        }
+        // The stream closes after the queued events; the client's reconnect loop opens the next one.
+        return new MockResponse()
+                .setHeader("Content-Type", "text/event-stream")
+                .setBody(stream.toString())
+                .setBodyDelay(latencyMs, TimeUnit.MILLISECONDS);
+    }
+
+    private boolean matchesFilter(JSONObject record, String filter) {
+        Matcher responder = RESPONDER_FILTER.matcher(filter);
+        if (responder.find()) {
+            JSONArray responders = record.optJSONArray("responders");
+            boolean assigned = false;
+            for (int i = 0; responders != null && i < responders.length(); i++) {
+                assigned |= responder.group(1).equals(responders.optString(i));
+            }
+            if (!assigned) return false;
+        }
+        Matcher updated = UPDATED_FILTER.matcher(filter);
+        if (updated.find() && record.optString("updated").compareTo(updated.group(1)) <= 0) {
+            return false;
+        }
+        Matcher id = ID_FILTER.matcher(filter);
+        boolean anyId = false;
+        while (id.find()) {
+            if (id.group(1).equals(record.optString("id"))) return true;
+            anyId = true;
+        }
+        return !anyId;
+    }
+
+    private JSONObject padded(JSONObject record) throws JSONException {
+        JSONObject copy = new JSONObject(record.toString());
+        if (descriptionPaddingBytes > 0) {
+            StringBuilder padding = new StringBuilder(descriptionPaddingBytes);
+            for (int i = 0; i < descriptionPaddingBytes; i++) {
+                padding.append('x');
+            }
+            copy.put("description", copy.optString("description") + " " + padding);
+        }
+        return copy;
+    }
+
+    private MockResponse delayed(MockResponse response) {
+        long jitter = latencyJitterMs > 0 ? (long) (random.nextDouble() * latencyJitterMs) : 0;
+        long stall = stallsToInject.getAndUpdate(n -> Math.max(n - 1, 0)) > 0 ? stallMs : 0;
+        return response.setHeadersDelay(latencyMs + jitter + stall, TimeUnit.MILLISECONDS);
+    }
+
+    private static MockResponse json(int code, JSONObject body) {
+        return new MockResponse().setResponseCode(code)
+                .setHeader("Content-Type", "application/json")
+                .setBody(body.toString());
+    }
+
+    private String nextId(String prefix) {
+        return String.format("%s%010d", prefix, idCounter.incrementAndGet());
+    }
+
+    /**
+     * PocketBase-formatted UTC time, strictly increasing so records written within the
+     * same millisecond still sort and filter by update order.
+     */
+    private String timestamp() {
+        long now = System.currentTimeMillis();
+        long millis = lastTimestampMs.updateAndGet(previous -> Math.max(previous + 1, now));
+        SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS'Z'", Locale.US);
+        format.setTimeZone(TimeZone.getTimeZone("UTC"));
+        return format.format(new Date(millis));
+    }
+
+    private static int parseInt(String value, int fallback) {
+        try {
+            return value != null ? Integer.parseInt(value) : fallback;
+        } catch (NumberFormatException e) {
+            return fallback;
+        }
+    }
+}
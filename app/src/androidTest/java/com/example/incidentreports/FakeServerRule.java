@@ -0,0 +1,90 @@
+package com.example.incidentreports;
+
+import android.content.Context;
+
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.rules.ExternalResource;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Starts a {@link FakePocketBaseServer} for each test and points the app at it, with the
+ * app-wide circuit breaker closed. The previous base URL is restored afterwards.
+ */
+public class FakeServerRule extends ExternalResource {
+    private Context context;
+    private ApiConfigManager apiConfigManager;
+    private String previousBaseUrl;
+    private FakePocketBaseServer server;
+
+    @Override
+    protected void before() throws Throwable {
+        context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        server = new FakePocketBaseServer();
+        server.start();
+        apiConfigManager = new ApiConfigManager(context);
+        previousBaseUrl = apiConfigManager.getBaseUrl();
+        apiConfigManager.setBaseUrl(server.getBaseUrl());
+        // The breaker is app-wide; start every test from a closed one.
+        getCircuitBreaker().onSuccess();
+    }
+
+    @Override
+    protected void after() {
+        getCircuitBreaker().onSuccess();
+        apiConfigManager.setBaseUrl(previousBaseUrl);
+        try {
+            server.shutdown();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public Context getContext() {
+        return context;
+    }
+
+    public FakePocketBaseServer getServer() {
+        return server;
+    }
+
+    public CircuitBreaker getCircuitBreaker() {
+        return PocketBaseClient.getInstance(context).getCircuitBreaker();
+    }
+
+    /**
+     * Points helpers created from now on at another server, e.g. an unreachable one.
+     */
+    public void setBaseUrl(String baseUrl) {
+        apiConfigManager.setBaseUrl(baseUrl);
+    }
+
+    /**
+     * Fetches one incident and returns the error message, or null on success.
+     */
+    public String fetchIncident(PocketBaseApiHelper apiHelper, String token, String incidentId)
+            throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(1);
+        AtomicReference<String> error = new AtomicReference<>();
+        apiHelper.fetchIncidentById(token, incidentId, new PocketBaseApiHelper.IncidentCallback() {
+            @Override
+            public void onSuccess(IncidentReport incidentReport) {
+                done.countDown();
+            }
+
+            @Override
+            public void onError(String message) {
+                error.set(message);
+                done.countDown();
+            }
+        });
+        assertTrue(done.await(60, TimeUnit.SECONDS));
+        return error.get();
+    }
+}
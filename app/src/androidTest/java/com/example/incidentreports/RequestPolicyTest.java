@@ -0,0 +1,209 @@
+package com.example.incidentreports;
+
+import android.content.Context;
+import android.os.Looper;
+import android.os.SystemClock;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks the client's retry, hedging, circuit-breaker and coalescing behaviour against
+ * {@link FakePocketBaseServer} with injected outages and stalls.
+ */
+@RunWith(AndroidJUnit4.class)
+public class RequestPolicyTest {
+    private static final String PASSWORD = "password123";
+
+    @Rule
+    public FakeServerRule fakeServer = new FakeServerRule();
+
+    private Context context;
+    private FakePocketBaseServer server;
+    private CircuitBreaker circuitBreaker;
+    private PocketBaseApiHelper apiHelper;
+    private String incidentId;
+
+    @Before
+    public void setUp() throws Exception {
+        context = fakeServer.getContext();
+        server = fakeServer.getServer();
+        circuitBreaker = fakeServer.getCircuitBreaker();
+
+        String responderId = server.addAdmin("policy@example.com", PASSWORD);
+        List<String> ids = server.addIncidents(responderId, 1);
+        incidentId = ids.get(0);
+        apiHelper = new PocketBaseApiHelper(context);
+    }
+
+    @Test
+    public void transientFailuresAreRetried() throws Exception {
+        server.failNextRequests(2);
+
+        assertNull(fetchIncident());
+        assertEquals(3, server.getRequestCount());
+    }
+
+    @Test
+    public void failureAfterLastRetryIsReported() throws Exception {
+        server.failNextRequests(RequestPolicy.GET.getMaxRetries() + 1);
+
+        assertEquals("Service unavailable.", fetchIncident());
+        assertEquals(RequestPolicy.GET.getMaxRetries() + 1, server.getRequestCount());
+    }
+
+    @Test
+    public void outageOpensBreakerAndStopsTraffic() throws Exception {
+        server.failNextRequests(Integer.MAX_VALUE);
+
+        String lastError = null;
+        for (int i = 0; i < 5; i++) {
+            lastError = fetchIncident();
+        }
+        int requestsDuringOutage = server.getRequestCount();
+
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertNotNull(lastError);
+        assertTrue(lastError, lastError.startsWith("Server is not responding"));
+        // Five calls of three attempts would be 15 requests; the breaker cut it short.
+        assertTrue("Sent " + requestsDuringOutage, requestsDuringOutage < 15);
+
+        fetchIncident();
+        assertEquals("An open breaker must not send", requestsDuringOutage, server.getRequestCount());
+    }
+
+    @Test
+    public void unreachableServerDoesNotOpenBreaker() throws Exception {
+        goOffline();
+        for (int i = 0; i < 5; i++) {
+            assertNotNull(fetchIncident());
+        }
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+
+        // Nor does being offline clear failures counted against the real server: three here
+        // and two more later reach the threshold of five.
+        goOnline();
+        server.failNextRequests(RequestPolicy.GET.getMaxRetries() + 1);
+        assertNotNull(fetchIncident());
+        goOffline();
+        assertNotNull(fetchIncident());
+        goOnline();
+        server.failNextRequests(2);
+        assertNotNull(fetchIncident());
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+
+        // An offline probe after the cool-down leaves the breaker half-open, not closed.
+        SystemClock.sleep(circuitBreaker.getRemainingCooldownMs());
+        goOffline();
+        assertNotNull(fetchIncident());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+    }
+
+    @Test
+    public void backgroundCallerIsAnsweredOnMainThread() throws Exception {
+        // This test runs on the instrumentation thread, like a Worker would.
+        assertFalse(Looper.myLooper() == Looper.getMainLooper());
+        CountDownLatch done = new CountDownLatch(1);
+        AtomicBoolean onMainThread = new AtomicBoolean();
+        apiHelper.fetchIncidentById("token", incidentId, new PocketBaseApiHelper.IncidentCallback() {
+            @Override
+            public void onSuccess(IncidentReport incidentReport) {
+                onMainThread.set(Looper.myLooper() == Looper.getMainLooper());
+                done.countDown();
+            }
+
+            @Override
+            public void onError(String message) {
+                done.countDown();
+            }
+        });
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertTrue(onMainThread.get());
+    }
+
+    @Test
+    public void slowGetIsHedged() throws Exception {
+        long stallMs = 6000;
+        server.stallNextRequests(1, stallMs);
+
+        long start = SystemClock.elapsedRealtime();
+        assertNull(fetchIncident());
+        long elapsedMs = SystemClock.elapsedRealtime() - start;
+
+        assertTrue("Took " + elapsedMs + " ms", elapsedMs < stallMs);
+        assertEquals(2, server.getRequestCount());
+    }
+
+    @Test
+    public void identicalConcurrentGetsShareOneRequest() throws Exception {
+        server.setLatency(300, 0);
+        PocketBaseApiHelper otherScreen = new PocketBaseApiHelper(context);
+        CountDownLatch done = new CountDownLatch(3);
+        PocketBaseApiHelper.IncidentCallback callback = countingCallback(done);
+
+        apiHelper.fetchIncidentById("token", incidentId, callback);
+        apiHelper.fetchIncidentById("token", incidentId, callback);
+        otherScreen.fetchIncidentById("token", incidentId, callback);
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    public void cancelledScreenIsNotCalledBack() throws Exception {
+        server.setLatency(300, 0);
+        CountDownLatch done = new CountDownLatch(1);
+        apiHelper.fetchIncidentById("token", incidentId, countingCallback(done));
+        apiHelper.cancelPendingRequests();
+
+        assertFalse(done.await(2, TimeUnit.SECONDS));
+    }
+
+    private static PocketBaseApiHelper.IncidentCallback countingCallback(CountDownLatch done) {
+        return new PocketBaseApiHelper.IncidentCallback() {
+            @Override
+            public void onSuccess(IncidentReport incidentReport) {
+                done.countDown();
+            }
+
+            @Override
+            public void onError(String message) {
+                done.countDown();
+            }
+        };
+    }
+
+    /**
+     * Points a new helper at port 1, where nothing listens: every attempt fails to connect,
+     * as when the device is offline. The base URL is read when a helper is created.
+     */
+    private void goOffline() {
+        fakeServer.setBaseUrl("http://127.0.0.1:1");
+        apiHelper = new PocketBaseApiHelper(context);
+    }
+
+    private void goOnline() {
+        fakeServer.setBaseUrl(server.getBaseUrl());
+        apiHelper = new PocketBaseApiHelper(context);
+    }
+
+    private String fetchIncident() throws InterruptedException {
+        return fakeServer.fetchIncident(apiHelper, "token", incidentId);
+    }
+}
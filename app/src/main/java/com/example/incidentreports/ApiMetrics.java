@@ -0,0 +1,334 @@
+package com.example.incidentreports;
+
+import android.content.Context;
+import android.net.Uri;
+import android.os.SystemClock;
+import android.util.Log;
+
+import com.android.volley.Request;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Per-endpoint request metrics: latency histograms, bytes, parse time, retries and error
+ * categories. Figures are kept in memory for the debug screen and every request is also
+ * appended as one line to a local log file that can be exported. Only debug builds create
+ * an instance; all file access runs on one background thread.
+ */
+public class ApiMetrics {
+    private static final String TAG = "ApiMetrics";
+    private static final String LOG_FILE = "api_metrics.log";
+    private static final long MAX_LOG_BYTES = 1024 * 1024;
+    private static final String LOG_HEADER = "timestamp,endpoint,status,ttfb_ms,total_ms,bytes,retry,error\n";
+    // Upper bounds in ms; the last bucket catches everything slower.
+    private static final long[] BUCKETS_MS = {50, 100, 250, 500, 1000, 2500, 5000, 10000};
+
+    public static final String ENDPOINT_LOGIN = "login";
+    public static final String ENDPOINT_SIGNUP = "signup";
+    public static final String ENDPOINT_LIST = "list";
+    public static final String ENDPOINT_GET = "get";
+    public static final String ENDPOINT_PATCH = "patch";
+    public static final String ENDPOINT_FILE = "file";
+    public static final String ENDPOINT_OTHER = "other";
+
+    public static final String ERROR_TIMEOUT = "timeout";
+    public static final String ERROR_NO_CONNECTION = "no_connection";
+    public static final String ERROR_AUTH = "auth";
+    public static final String ERROR_CLIENT = "client_4xx";
+    public static final String ERROR_SERVER = "server_5xx";
+    public static final String ERROR_PARSE = "parse";
+    public static final String ERROR_IO = "io";
+
+    private static ApiMetrics instance;
+
+    private final File logFile;
+    private final File previousLogFile;
+    private final ExecutorService logExecutor = Executors.newSingleThreadExecutor();
+    private final AtomicInteger queuedLines = new AtomicInteger();
+    // Opened lazily and only touched on logExecutor.
+    private Writer logWriter;
+    private final Map<String, EndpointStats> statsByEndpoint = new TreeMap<>();
+
+    private ApiMetrics(Context context) {
+        logFile = new File(context.getFilesDir(), LOG_FILE);
+        previousLogFile = new File(context.getFilesDir(), LOG_FILE + ".1");
+    }
+
+    /**
+     * Receives the result of {@link #export}, on the metrics thread.
+     */
+    public interface ExportCallback {
+        void onExported(File export);
+
+        void onError(String message);
+    }
+
+    public static synchronized ApiMetrics getInstance(Context context) {
+        if (instance == null) {
+            instance = new ApiMetrics(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    /**
+     * Records the parse time of a response. Called from Volley's parseNetworkResponse,
+     * which has no Context; the instance exists by then because PocketBaseClient made it.
+     */
+    static void recordParse(Request<?> request, long parseStartMs, boolean failed) {
+        ApiMetrics metrics;
+        synchronized (ApiMetrics.class) {
+            metrics = instance;
+        }
+        if (metrics != null) {
+            String method = request.getMethod() == Request.Method.PATCH ? "PATCH" : "GET";
+            metrics.recordParse(endpointFor(method, request.getUrl()),
+                    SystemClock.elapsedRealtime() - parseStartMs, failed);
+        }
+    }
+
+    /**
+     * Maps a request to the endpoint it is reported under.
+     */
+    public static String endpointFor(String method, String url) {
+        String path = Uri.parse(url).getPath();
+        if (path == null) return ENDPOINT_OTHER;
+        if (path.endsWith("/auth-with-password") || path.endsWith("/auth-refresh")) return ENDPOINT_LOGIN;
+        if (path.startsWith("/api/files/")) return ENDPOINT_FILE;
+        if (path.equals("/api/batch")) return ENDPOINT_PATCH;
+        if (path.startsWith("/api/collections/incident_reports/records")) {
+            if ("PATCH".equals(method)) return ENDPOINT_PATCH;
+            return path.endsWith("/records") ? ENDPOINT_LIST : ENDPOINT_GET;
+        }
+        if (path.startsWith("/api/collections/responders/records")
+                || path.startsWith("/api/collections/admins/records")) {
+            return ENDPOINT_SIGNUP;
+        }
+        return ENDPOINT_OTHER;
+    }
+
+    /**
+     * Records one network attempt. Pass -1 for any phase that was not reached.
+     */
+    public void recordTransfer(String endpoint, int statusCode, long ttfbMs, long totalMs,
+                               long bytes, boolean retry, String error) {
+        synchronized (this) {
+            EndpointStats stats = stats(endpoint);
+            stats.requests++;
+            if (retry) stats.retries++;
+            if (ttfbMs >= 0) stats.ttfb.add(ttfbMs);
+            if (totalMs >= 0) stats.total.add(totalMs);
+            if (bytes > 0) stats.bytes += bytes;
+            if (error != null) stats.errors.merge(error, 1, Integer::sum);
+        }
+        appendLine(endpoint + "," + statusCode + "," + ttfbMs + "," + totalMs + ","
+                + bytes + "," + retry + "," + (error != null ? error : ""));
+    }
+
+    public void recordParse(String endpoint, long parseMs, boolean failed) {
+        synchronized (this) {
+            EndpointStats stats = stats(endpoint);
+            stats.parse.add(parseMs);
+            if (failed) stats.errors.merge(ERROR_PARSE, 1, Integer::sum);
+        }
+    }
+
+    public static String errorForStatus(int statusCode) {
+        if (statusCode == 401 || statusCode == 403) return ERROR_AUTH;
+        if (statusCode >= 500) return ERROR_SERVER;
+        if (statusCode >= 400) return ERROR_CLIENT;
+        return null;
+    }
+
+    public synchronized void reset() {
+        statsByEndpoint.clear();
+        logExecutor.execute(() -> {
+            closeLog();
+            for (File file : new File[]{logFile, previousLogFile}) {
+                if (file.exists() && !file.delete()) {
+                    Log.w(TAG, "Could not delete " + file);
+                }
+            }
+        });
+    }
+
+    /**
+     * Writes the summary and both log files, oldest lines first, to a new file in
+     * {@code dir}. Runs behind any lines still queued, so the export is complete.
+     */
+    public void export(File dir, ExportCallback callback) {
+        String summary = formatSummary();
+        logExecutor.execute(() -> {
+            File export = new File(dir, "api_metrics_" + System.currentTimeMillis() + ".txt");
+            try (OutputStream out = new FileOutputStream(export)) {
+                flushLog();
+                out.write(summary.getBytes(StandardCharsets.UTF_8));
+                out.write(("\n" + LOG_HEADER).getBytes(StandardCharsets.UTF_8));
+                copy(previousLogFile, out);
+                copy(logFile, out);
+            } catch (IOException e) {
+                callback.onError(e.getMessage());
+                return;
+            }
+            callback.onExported(export);
+        });
+    }
+
+    /**
+     * Human-readable report of everything recorded since start-up or the last reset.
+     */
+    public synchronized String formatSummary() {
+        if (statsByEndpoint.isEmpty()) {
+            return "No requests recorded yet.";
+        }
+        StringBuilder out = new StringBuilder();
+        for (Map.Entry<String, EndpointStats> entry : statsByEndpoint.entrySet()) {
+            EndpointStats stats = entry.getValue();
+            out.append(entry.getKey().toUpperCase(Locale.US)).append('\n')
+                    .append("  requests ").append(stats.requests)
+                    .append(", retries ").append(stats.retries)
+                    .append(", bytes ").append(stats.bytes).append('\n')
+                    .append("  ttfb  ").append(stats.ttfb).append('\n')
+                    .append("  total ").append(stats.total).append('\n')
+                    .append("  parse ").append(stats.parse).append('\n');
+            if (!stats.errors.isEmpty()) {
+                out.append("  errors ").append(stats.errors).append('\n');
+            }
+            out.append('\n');
+        }
+        return out.toString();
+    }
+
+    private EndpointStats stats(String endpoint) {
+        EndpointStats stats = statsByEndpoint.get(endpoint);
+        if (stats == null) {
+            stats = new EndpointStats();
+            statsByEndpoint.put(endpoint, stats);
+        }
+        return stats;
+    }
+
+    private void appendLine(String line) {
+        String timestamp = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS", Locale.US).format(new Date());
+        queuedLines.incrementAndGet();
+        logExecutor.execute(() -> {
+            boolean lastQueued = queuedLines.decrementAndGet() == 0;
+            try {
+                if (logFile.length() > MAX_LOG_BYTES) {
+                    // Keep one previous file so an export still covers the recent past.
+                    closeLog();
+                    if (!logFile.renameTo(previousLogFile)) {
+                        Log.w(TAG, "Could not rotate " + logFile);
+                    }
+                }
+                if (logWriter == null) {
+                    logWriter = new BufferedWriter(new FileWriter(logFile, true));
+                }
+                logWriter.write(timestamp + "," + line + "\n");
+                // Flush once the burst is written rather than after every line.
+                if (lastQueued) {
+                    logWriter.flush();
+                }
+            } catch (IOException e) {
+                closeLog();
+                Log.w(TAG, "Could not write metrics log: " + e.getMessage());
+            }
+        });
+    }
+
+    private void flushLog() throws IOException {
+        if (logWriter != null) {
+            logWriter.flush();
+        }
+    }
+
+    private void closeLog() {
+        if (logWriter == null) return;
+        try {
+            logWriter.close();
+        } catch (IOException e) {
+            Log.w(TAG, "Could not close metrics log: " + e.getMessage());
+        }
+        logWriter = null;
+    }
+
+    private static void copy(File file, OutputStream out) throws IOException {
+        if (!file.exists()) return;
+        try (InputStream in = new FileInputStream(file)) {
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+        }
+    }
+
+    private static class EndpointStats {
+        int requests;
+        int retries;
+        long bytes;
+        final Histogram ttfb = new Histogram();
+        final Histogram total = new Histogram();
+        final Histogram parse = new Histogram();
+        final Map<String, Integer> errors = new LinkedHashMap<>();
+    }
+
+    private static class Histogram {
+        final int[] counts = new int[BUCKETS_MS.length + 1];
+        int samples;
+        long sumMs;
+        long maxMs;
+
+        void add(long ms) {
+            int bucket = 0;
+            while (bucket < BUCKETS_MS.length && ms > BUCKETS_MS[bucket]) {
+                bucket++;
+            }
+            counts[bucket]++;
+            samples++;
+            sumMs += ms;
+            maxMs = Math.max(maxMs, ms);
+        }
+
+        /**
+         * Upper bound of the bucket holding the given percentile, or the max for the last bucket.
+         */
+        long percentile(int percentile) {
+            int target = (int) Math.ceil(samples * percentile / 100.0);
+            int seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= target) {
+                    return i < BUCKETS_MS.length ? Math.min(BUCKETS_MS[i], maxMs) : maxMs;
+                }
+            }
+            return maxMs;
+        }
+
+        @Override
+        public String toString() {
+            if (samples == 0) {
+                return "-";
+            }
+            return "avg " + (sumMs / samples) + " ms, p50 <=" + percentile(50) + ", p95 <=" + percentile(95)
+                    + ", max " + maxMs + " (n=" + samples + ")";
+        }
+    }
+}
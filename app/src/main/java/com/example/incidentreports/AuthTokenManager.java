@@ -0,0 +1,239 @@
+package com.example.incidentreports;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Keeps the session token alive. The token is renewed through PocketBase's auth-refresh
+ * endpoint ahead of its expiry and again whenever the server rejects it; calls already
+ * in flight keep the old token, which stays valid until it expires. Only a refresh the
+ * server rejects ends the session.
+ */
+public class AuthTokenManager implements PocketBaseClient.AuthRefresher {
+    private static final String TAG = "AuthTokenManager";
+    // Renew this long before expiry so a slow network still lands the refresh in time.
+    private static final long REFRESH_BEFORE_EXPIRY_MS = 10 * 60 * 1000;
+    private static final long MIN_REFRESH_DELAY_MS = 30 * 1000;
+    // After a refresh that failed for network reasons.
+    private static final long RETRY_DELAY_MS = 60 * 1000;
+    // Retired tokens without a readable expiry are kept up to this many, oldest dropped first.
+    private static final int MAX_RETIRED_TOKENS = 8;
+
+    private static AuthTokenManager instance;
+
+    /**
+     * Told when the session could not be renewed and the user must sign in again.
+     */
+    public interface SessionListener {
+        void onSessionExpired();
+    }
+
+    /**
+     * Told on the main thread after the token was renewed, so long-lived connections that
+     * carry it, like the realtime stream, can reconnect with the new one.
+     */
+    public interface TokenListener {
+        void onTokenRefreshed(String token);
+    }
+
+    private final Context appContext;
+    private final SessionManager sessionManager;
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final Runnable scheduledRefresh = () -> refresh(null, null);
+    private final List<Waiter> waiting = new ArrayList<>();
+    private final List<SessionListener> listeners = new ArrayList<>();
+    private final List<TokenListener> tokenListeners = new ArrayList<>();
+    // Tokens replaced by a refresh; screens may still hold them and get the current one
+    // instead. Each is dropped once it has expired, see retire().
+    private final Set<String> retiredTokens = new LinkedHashSet<>();
+    private PocketBaseApiHelper apiHelper;
+    private boolean refreshing = false;
+
+    private AuthTokenManager(Context context) {
+        appContext = context;
+        sessionManager = new SessionManager(context);
+        PocketBaseClient.getInstance(context).setAuthRefresher(this);
+    }
+
+    public static synchronized AuthTokenManager getInstance(Context context) {
+        if (instance == null) {
+            instance = new AuthTokenManager(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    /**
+     * The token to send for a call built with the given one: the current token if the
+     * given one has since been refreshed or has expired, otherwise the given one unchanged.
+     */
+    public synchronized String resolve(String token) {
+        String current = sessionManager.getToken();
+        if (token.equals(current)) {
+            return token;
+        }
+        if (retiredTokens.contains(token)) {
+            return current;
+        }
+        long expiresAtMs = SessionManager.readExpiryMs(token);
+        return expiresAtMs != 0 && expiresAtMs <= System.currentTimeMillis() ? current : token;
+    }
+
+    public void addListener(SessionListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(SessionListener listener) {
+        listeners.remove(listener);
+    }
+
+    public void addTokenListener(TokenListener listener) {
+        tokenListeners.add(listener);
+    }
+
+    public void removeTokenListener(TokenListener listener) {
+        tokenListeners.remove(listener);
+    }
+
+    /**
+     * Refreshes now if the token is close to expiry, otherwise arms the refresh timer.
+     * Screens call it on resume, since the timer does not run while the app is frozen.
+     */
+    public void ensureFresh() {
+        if (!sessionManager.isLoggedIn()) {
+            return;
+        }
+        long expiresAtMs = sessionManager.getTokenExpiryMs();
+        if (expiresAtMs == 0) {
+            // No readable expiry; rely on 401 handling alone.
+            return;
+        }
+        long delay = expiresAtMs - REFRESH_BEFORE_EXPIRY_MS - System.currentTimeMillis();
+        if (delay <= 0) {
+            refresh(null, null);
+        } else {
+            schedule(Math.max(delay, MIN_REFRESH_DELAY_MS));
+        }
+    }
+
+    /**
+     * Renews the token. Concurrent callers share one auth-refresh request.
+     */
+    @Override
+    public void refresh(Runnable onRefreshed, Runnable onFailed) {
+        if (Looper.myLooper() != Looper.getMainLooper()) {
+            handler.post(() -> refresh(onRefreshed, onFailed));
+            return;
+        }
+        waiting.add(new Waiter(onRefreshed, onFailed));
+        if (refreshing) {
+            return;
+        }
+        String token = sessionManager.getToken();
+        if (token.isEmpty()) {
+            finishRefresh(false);
+            return;
+        }
+        refreshing = true;
+        handler.removeCallbacks(scheduledRefresh);
+        if (apiHelper == null) {
+            apiHelper = new PocketBaseApiHelper(appContext);
+        }
+        apiHelper.refreshAuth(token, new PocketBaseApiHelper.AuthRefreshCallback() {
+            @Override
+            public void onSuccess(String newToken) {
+                synchronized (AuthTokenManager.this) {
+                    retire(token);
+                    sessionManager.updateToken(newToken);
+                }
+                Log.d(TAG, "Token refreshed, expires at " + sessionManager.getTokenExpiryMs());
+                refreshing = false;
+                finishRefresh(true);
+                for (TokenListener listener : new ArrayList<>(tokenListeners)) {
+                    listener.onTokenRefreshed(newToken);
+                }
+                ensureFresh();
+            }
+
+            @Override
+            public void onRejected() {
+                Log.w(TAG, "Refresh rejected, session is over");
+                refreshing = false;
+                finishRefresh(false);
+                for (SessionListener listener : new ArrayList<>(listeners)) {
+                    listener.onSessionExpired();
+                }
+            }
+
+            @Override
+            public void onError(String message) {
+                // Offline or server trouble: the session may still be valid, try again later.
+                Log.w(TAG, "Refresh failed: " + message);
+                refreshing = false;
+                finishRefresh(false);
+                schedule(RETRY_DELAY_MS);
+            }
+        });
+    }
+
+    /**
+     * Forgets refresh state on logout.
+     */
+    public synchronized void clear() {
+        handler.removeCallbacks(scheduledRefresh);
+        retiredTokens.clear();
+    }
+
+    /**
+     * Remembers a replaced token and forgets those that have expired since, which
+     * {@link #resolve} maps to the current token without the set.
+     */
+    private void retire(String token) {
+        long now = System.currentTimeMillis();
+        for (Iterator<String> it = retiredTokens.iterator(); it.hasNext(); ) {
+            long expiresAtMs = SessionManager.readExpiryMs(it.next());
+            if (expiresAtMs != 0 && expiresAtMs <= now) {
+                it.remove();
+            }
+        }
+        retiredTokens.add(token);
+        Iterator<String> oldest = retiredTokens.iterator();
+        while (retiredTokens.size() > MAX_RETIRED_TOKENS) {
+            oldest.next();
+            oldest.remove();
+        }
+    }
+
+    private void schedule(long delayMs) {
+        handler.removeCallbacks(scheduledRefresh);
+        handler.postDelayed(scheduledRefresh, delayMs);
+    }
+
+    private void finishRefresh(boolean refreshed) {
+        List<Waiter> waiters = new ArrayList<>(waiting);
+        waiting.clear();
+        for (Waiter waiter : waiters) {
+            Runnable next = refreshed ? waiter.onRefreshed : waiter.onFailed;
+            if (next != null) {
+                next.run();
+            }
+        }
+    }
+
+    private static class Waiter {
+        final Runnable onRefreshed;
+        final Runnable onFailed;
+
+        Waiter(Runnable onRefreshed, Runnable onFailed) {
+            this.onRefreshed = onRefreshed;
+            this.onFailed = onFailed;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.incidentreports;
+
+import android.os.SystemClock;
+import android.util.Log;
+
+/**
+ * Stops sending requests to a server that keeps failing. After a run of consecutive
+ * server failures the breaker opens and every call fails immediately for a cool-down
+ * period; then a single probe request is let through, and its outcome either closes the
+ * breaker or opens it again with a longer cool-down.
+ */
+public class CircuitBreaker {
+    private static final String TAG = "CircuitBreaker";
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int failureThreshold;
+    private final long baseCooldownMs;
+    private final long maxCooldownMs;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures = 0;
+    private long cooldownMs;
+    private long openedAtMs;
+    private long probeStartedAtMs;
+
+    public CircuitBreaker(int failureThreshold, long baseCooldownMs, long maxCooldownMs) {
+        this.failureThreshold = failureThreshold;
+        this.baseCooldownMs = baseCooldownMs;
+        this.maxCooldownMs = maxCooldownMs;
+        this.cooldownMs = baseCooldownMs;
+    }
+
+    /**
+     * Whether a request may be sent now. In the half-open state only the first caller
+     * gets through; a probe that never reports back is replaced after one cool-down.
+     */
+    public synchronized boolean allowRequest() {
+        long now = SystemClock.elapsedRealtime();
+        switch (state) {
+            case OPEN:
+                if (now - openedAtMs < cooldownMs) {
+                    return false;
+                }
+                state = State.HALF_OPEN;
+                probeStartedAtMs = now;
+                Log.d(TAG, "Cool-down over, sending probe");
+                return true;
+            case HALF_OPEN:
+                if (now - probeStartedAtMs < cooldownMs) {
+                    return false;
+                }
+                probeStartedAtMs = now;
+                return true;
+            default:
+                return true;
+        }
+    }
+
+    /**
+     * The server answered; any answer, including a 4xx, shows it is up.
+     */
+    public synchronized void onSuccess() {
+        if (state != State.CLOSED) {
+            Log.d(TAG, "Server answered, closing");
+        }
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+        cooldownMs = baseCooldownMs;
+    }
+
+    public synchronized void onFailure() {
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN) {
+            cooldownMs = Math.min(cooldownMs * 2, maxCooldownMs);
+            open();
+        } else if (state == State.CLOSED && consecutiveFailures >= failureThreshold) {
+            open();
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * Time until a probe may be sent, or 0 when requests are allowed.
+     */
+    public synchronized long getRemainingCooldownMs() {
+        if (state == State.CLOSED) {
+            return 0;
+        }
+        long anchor = state == State.OPEN ? openedAtMs : probeStartedAtMs;
+        return Math.max(0, anchor + cooldownMs - SystemClock.elapsedRealtime());
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAtMs = SystemClock.elapsedRealtime();
+        Log.w(TAG, "Opened after " + consecutiveFailures + " failures, pausing for " + cooldownMs + " ms");
+    }
+}
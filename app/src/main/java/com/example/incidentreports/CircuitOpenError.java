@@ -0,0 +1,19 @@
+package com.example.incidentreports;
+
+import com.android.volley.VolleyError;
+
+/**
+ * Delivered instead of sending a request while the {@link CircuitBreaker} is open.
+ */
+public class CircuitOpenError extends VolleyError {
+    private final long retryAfterMs;
+
+    public CircuitOpenError(long retryAfterMs) {
+        super("Server unavailable, requests paused for " + retryAfterMs + " ms");
+        this.retryAfterMs = retryAfterMs;
+    }
+
+    public long getRetryAfterMs() {
+        return retryAfterMs;
+    }
+}
@@ -0,0 +1,259 @@
+package com.example.incidentreports;
+
+import android.content.Intent;
+import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
+import android.text.Editable;
+import android.text.TextWatcher;
+import android.util.Log;
+import android.view.View;
+import android.widget.EditText;
+import android.widget.ProgressBar;
+import android.widget.TextView;
+import android.widget.Toast;
+
+import androidx.annotation.NonNull;
+import androidx.appcompat.app.AppCompatActivity;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.bumptech.glide.Glide;
+import com.bumptech.glide.RequestManager;
+import com.bumptech.glide.integration.recyclerview.RecyclerViewPreloader;
+import com.bumptech.glide.util.FixedPreloadSizeProvider;
+import com.google.android.material.chip.ChipGroup;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Every incident, not just the ones assigned to this responder, narrowed by status,
+ * creation period and a text search. Filtering, sorting and paging happen on the
+ * server; results per filter combination are kept in {@link IncidentQueryCache}. Only
+ * dispatchers and supervisors get here, see {@link SessionManager#canDispatch()}.
+ */
+public class DispatchActivity extends AppCompatActivity {
+    private static final String TAG = "DispatchActivity";
+    private static final int PAGE_SIZE = 30;
+    private static final int PREFETCH_DISTANCE = 5;
+    private static final int THUMBNAIL_PRELOAD_ROWS = 6;
+    // Wait for typing to pause before sending a search.
+    private static final long SEARCH_DEBOUNCE_MS = 400;
+    private static final long DAY_MS = 24 * 60 * 60 * 1000L;
+
+    private SessionManager sessionManager;
+    private PocketBaseApiHelper apiHelper;
+    private final IncidentQueryCache queryCache = IncidentQueryCache.getInstance();
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final Runnable applyFilters = this::applyFilters;
+    private IncidentAdapter adapter;
+    private RecyclerView recyclerView;
+    private LinearLayoutManager layoutManager;
+    private IncidentPager pager;
+    private final List<IncidentSummary> incidents = new ArrayList<>();
+
+    private EditText edtSearch;
+    private ChipGroup chipsStatus;
+    private ChipGroup chipsPeriod;
+    private ProgressBar progressBar;
+    private TextView txtEmpty;
+
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        setContentView(R.layout.activity_dispatch);
+
+        sessionManager = new SessionManager(this);
+        if (!sessionManager.canDispatch()) {
+            finish();
+            return;
+        }
+        apiHelper = new PocketBaseApiHelper(this);
+
+        edtSearch = findViewById(R.id.edtSearch);
+        chipsStatus = findViewById(R.id.chipsStatus);
+        chipsPeriod = findViewById(R.id.chipsPeriod);
+        progressBar = findViewById(R.id.progressDispatch);
+        txtEmpty = findViewById(R.id.txtDispatchEmpty);
+        recyclerView = findViewById(R.id.recyclerDispatch);
+
+        RequestManager glide = Glide.with(this);
+        int thumbnailSizePx = getResources().getDimensionPixelSize(R.dimen.dp_80);
+        adapter = new IncidentAdapter(this, glide, apiHelper, thumbnailSizePx, incident -> {
+            Intent intent = new Intent(this, IncidentDetailActivity.class);
+            intent.putExtra("incident_id", incident.getId());
+            startActivity(intent);
+        });
+
+        layoutManager = new LinearLayoutManager(this);
+        recyclerView.setLayoutManager(layoutManager);
+        recyclerView.setAdapter(adapter);
+        recyclerView.addOnScrollListener(new RecyclerViewPreloader<>(glide, adapter,
+                new FixedPreloadSizeProvider<>(thumbnailSizePx, thumbnailSizePx), THUMBNAIL_PRELOAD_ROWS));
+        recyclerView.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView rv, int dx, int dy) {
+                // dy is 0 when a layout changed the visible rows, e.g. after a page landed.
+                if (dy >= 0) {
+                    loadMoreIfNearEnd();
+                }
+            }
+        });
+
+        chipsStatus.setOnCheckedStateChangeListener((group, checkedIds) -> applyFilters());
+        chipsPeriod.setOnCheckedStateChangeListener((group, checkedIds) -> applyFilters());
+        edtSearch.addTextChangedListener(new TextWatcher() {
+            @Override
+            public void beforeTextChanged(CharSequence s, int start, int count, int after) {
+            }
+
+            @Override
+            public void onTextChanged(CharSequence s, int start, int before, int count) {
+            }
+
+            @Override
+            public void afterTextChanged(Editable s) {
+                handler.removeCallbacks(applyFilters);
+                handler.postDelayed(applyFilters, SEARCH_DEBOUNCE_MS);
+            }
+        });
+    }
+
+    @Override
+    protected void onResume() {
+        super.onResume();
+        adapter.startTimeRefresh();
+        // Also picks up writes made on the detail screen, which mark cached results stale.
+        applyFilters();
+    }
+
+    @Override
+    protected void onPause() {
+        super.onPause();
+        adapter.stopTimeRefresh();
+    }
+
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        handler.removeCallbacks(applyFilters);
+        if (apiHelper != null) {
+            apiHelper.cancelPendingRequests();
+        }
+    }
+
+    private IncidentQuery buildQuery() {
+        List<String> statuses = new ArrayList<>();
+        List<Integer> checked = chipsStatus.getCheckedChipIds();
+        if (checked.contains(R.id.chipPending)) statuses.add("pending");
+        if (checked.contains(R.id.chipOngoing)) statuses.add("ongoing");
+        if (checked.contains(R.id.chipResolved)) statuses.add("resolved");
+
+        long periodMs = 0;
+        int period = chipsPeriod.getCheckedChipId();
+        if (period == R.id.chipLastDay) {
+            periodMs = DAY_MS;
+        } else if (period == R.id.chipLastWeek) {
+            periodMs = 7 * DAY_MS;
+        } else if (period == R.id.chipLastMonth) {
+            periodMs = 30 * DAY_MS;
+        }
+
+        IncidentQuery.Builder builder = new IncidentQuery.Builder()
+                .statuses(statuses)
+                .search(edtSearch.getText().toString());
+        // A relative window keeps one cache key per chip instead of one per minute.
+        if (periodMs > 0) {
+            builder.createdWithinLast(periodMs);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Shows the current filter combination: straight from the cache when it has the
+     * result, revalidating in the background if that result is stale.
+     */
+    private void applyFilters() {
+        handler.removeCallbacks(applyFilters);
+        IncidentQuery query = buildQuery();
+        if (pager != null && pager.getQuery().equals(query) && pager.isLoading()) {
+            return;
+        }
+        Log.d(TAG, "Showing " + query.getCacheKey());
+        pager = new IncidentPager(apiHelper, sessionManager.getToken(), query, PAGE_SIZE, pagerListener(query));
+
+        IncidentQueryCache.Entry cached = queryCache.get(query);
+        if (cached != null) {
+            pager.restore(cached.getLoadedPages(), cached.hasMore());
+            showIncidents(cached.getIncidents());
+            setLoading(false);
+            if (cached.isFresh()) {
+                return;
+            }
+        } else {
+            incidents.clear();
+            adapter.submitList(new ArrayList<>());
+            txtEmpty.setVisibility(View.GONE);
+            setLoading(true);
+        }
+        pager.refresh();
+    }
+
+    private IncidentPager.Listener pagerListener(IncidentQuery query) {
+        return new IncidentPager.Listener() {
+            @Override
+            public void onRefreshed(List<IncidentSummary> page) {
+                if (!isCurrent(query)) return;
+                setLoading(false);
+                showIncidents(page);
+                queryCache.put(query, incidents, pager.getLoadedPages(), pager.hasMore());
+                recyclerView.post(DispatchActivity.this::loadMoreIfNearEnd);
+            }
+
+            @Override
+            public void onPageAppended(List<IncidentSummary> page) {
+                if (!isCurrent(query)) return;
+                List<IncidentSummary> combined = new ArrayList<>(incidents);
+                combined.addAll(page);
+                showIncidents(combined);
+                queryCache.put(query, incidents, pager.getLoadedPages(), pager.hasMore());
+                recyclerView.post(DispatchActivity.this::loadMoreIfNearEnd);
+            }
+
+            @Override
+            public void onError(String message, boolean refreshing) {
+                if (!isCurrent(query)) return;
+                setLoading(false);
+                if (refreshing && incidents.isEmpty()) {
+                    Toast.makeText(DispatchActivity.this, "Failed to load incidents: " + message, Toast.LENGTH_LONG).show();
+                }
+            }
+        };
+    }
+
+    /**
+     * Loads the next page once the rows below the viewport run low, and after every page
+     * lands, since a result shorter than the screen cannot be scrolled.
+     */
+    private void loadMoreIfNearEnd() {
+        if (pager != null && layoutManager.findLastVisibleItemPosition() >= adapter.getItemCount() - PREFETCH_DISTANCE) {
+            pager.loadNextPage();
+        }
+    }
+
+    private boolean isCurrent(IncidentQuery query) {
+        return pager != null && pager.getQuery() == query;
+    }
+
+    private void showIncidents(List<IncidentSummary> list) {
+        incidents.clear();
+        incidents.addAll(list);
+        adapter.submitList(new ArrayList<>(incidents));
+        txtEmpty.setVisibility(incidents.isEmpty() ? View.VISIBLE : View.GONE);
+    }
+
+    private void setLoading(boolean loading) {
+        progressBar.setVisibility(loading ? View.VISIBLE : View.GONE);
+    }
+}
@@ -1,70 +1,380 @@
 package com.example.incidentreports;
 
+import android.content.Context;
+import android.graphics.drawable.Drawable;
+import android.text.TextUtils;
+import android.text.format.DateUtils;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
+import android.widget.ImageView;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import androidx.core.content.ContextCompat;
+import androidx.recyclerview.widget.AsyncListDiffer;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
 
+import com.bumptech.glide.ListPreloader;
+import com.bumptech.glide.RequestBuilder;
+import com.bumptech.glide.RequestManager;
+
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
-public class IncidentAdapter extends RecyclerView.Adapter<IncidentAdapter.IncidentViewHolder> {
+/**
+ * Incident rows for the task list and the dispatcher view.
+ *
+ * <p>What a row displays is worked out once, when a list is submitted, and kept in an
+ * {@link IncidentRow}; binding only copies those values into views. The relative time is
+ * the exception: it is formatted when the row is bound and again once the minute has
+ * moved on. A change that only moves an incident to another status rebinds just the
+ * status text.
+ */
+public class IncidentAdapter extends RecyclerView.Adapter<IncidentAdapter.IncidentViewHolder>
+        implements ListPreloader.PreloadModelProvider<IncidentSummary> {
     public interface OnIncidentClickListener {
-        void onIncidentClick(IncidentReport incidentReport);
+        void onIncidentClick(IncidentSummary incident);
     }
 
-    private final List<IncidentReport> incidents = new ArrayList<>();
+    static final Object PAYLOAD_STATUS = new Object();
+    static final Object PAYLOAD_TIME = new Object();
+    private static final long TIME_REFRESH_MS = DateUtils.MINUTE_IN_MILLIS;
+
+    static final DiffUtil.ItemCallback<IncidentSummary> DIFF_CALLBACK = new DiffUtil.ItemCallback<IncidentSummary>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull IncidentSummary oldItem, @NonNull IncidentSummary newItem) {
+            return oldItem.getId().equals(newItem.getId());
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull IncidentSummary oldItem, @NonNull IncidentSummary newItem) {
+            return oldItem.equals(newItem);
+        }
+
+        @Nullable
+        @Override
+        public Object getChangePayload(@NonNull IncidentSummary oldItem, @NonNull IncidentSummary newItem) {
+            return oldItem.differsOnlyInStatus(newItem) ? PAYLOAD_STATUS : null;
+        }
+    };
+
+    private static final DiffUtil.ItemCallback<IncidentRow> ROW_DIFF_CALLBACK = new DiffUtil.ItemCallback<IncidentRow>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull IncidentRow oldRow, @NonNull IncidentRow newRow) {
+            return DIFF_CALLBACK.areItemsTheSame(oldRow.incident, newRow.incident);
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull IncidentRow oldRow, @NonNull IncidentRow newRow) {
+            return oldRow == newRow || DIFF_CALLBACK.areContentsTheSame(oldRow.incident, newRow.incident);
+        }
+
+        @Nullable
+        @Override
+        public Object getChangePayload(@NonNull IncidentRow oldRow, @NonNull IncidentRow newRow) {
+            return DIFF_CALLBACK.getChangePayload(oldRow.incident, newRow.incident);
+        }
+    };
+
+    // Diffs run on a background thread; only the resulting granular notifications reach the UI.
+    private final AsyncListDiffer<IncidentRow> differ = new AsyncListDiffer<>(this, ROW_DIFF_CALLBACK);
+    // Ids of incidents no longer listed are dropped, so numbers come from a counter, not the map size.
+    private final Map<String, Long> stableIds = new HashMap<>();
+    private long nextStableId = 0;
     private final OnIncidentClickListener listener;
+    private final RequestManager requestManager;
+    private final PocketBaseApiHelper apiHelper;
+    private final int thumbnailSizePx;
+    // Indexed by IncidentStatus ordinal.
+    private final int[] statusColors;
+    private final Runnable refreshTimes = this::onTimeRefresh;
+    // A read-only view of the shown incidents, so getCurrentList() does not copy.
+    private final List<IncidentSummary> currentList = new AbstractList<IncidentSummary>() {
+        @Override
+        public IncidentSummary get(int index) {
+            return differ.getCurrentList().get(index).incident;
+        }
 
-    public IncidentAdapter(OnIncidentClickListener listener) {
+        @Override
+        public int size() {
+            return differ.getCurrentList().size();
+        }
+    };
+    // The last list passed to submitList, and its rows by incident id.
+    private List<IncidentSummary> submitted = Collections.emptyList();
+    private Map<String, IncidentRow> rowsById = Collections.emptyMap();
+    private RecyclerView recyclerView;
+    private boolean refreshingTimes = false;
+
+    public IncidentAdapter(Context context,
+                           RequestManager requestManager,
+                           PocketBaseApiHelper apiHelper,
+                           int thumbnailSizePx,
+                           OnIncidentClickListener listener) {
+        this.requestManager = requestManager;
+        this.apiHelper = apiHelper;
+        this.thumbnailSizePx = thumbnailSizePx;
         this.listener = listener;
+        IncidentStatus[] statuses = IncidentStatus.values();
+        statusColors = new int[statuses.length];
+        for (IncidentStatus status : statuses) {
+            statusColors[status.ordinal()] = ContextCompat.getColor(context, status.getColorRes());
+        }
+        setHasStableIds(true);
+    }
+
+    public void submitList(List<IncidentSummary> newList) {
+        // Polls usually return exactly what is already shown; skip the diff entirely then.
+        if (newList.equals(submitted)) {
+            return;
+        }
+        submitted = new ArrayList<>(newList);
+
+        // Rows of unchanged incidents are carried over, so a poll only builds rows for what changed.
+        List<IncidentRow> rows = new ArrayList<>(newList.size());
+        Map<String, IncidentRow> byId = new HashMap<>();
+        for (IncidentSummary incident : newList) {
+            IncidentRow row = rowsById.get(incident.getId());
+            if (row == null || !row.incident.equals(incident)) {
+                row = new IncidentRow(incident, statusColors[incident.getIncidentStatus().ordinal()]);
+            }
+            rows.add(row);
+            byId.put(incident.getId(), row);
+        }
+        rowsById = byId;
+        differ.submitList(rows, this::pruneStableIds);
+    }
+
+    /**
+     * The incidents currently shown. A live, read-only view: it follows later submits.
+     */
+    public List<IncidentSummary> getCurrentList() {
+        return currentList;
     }
 
-    public void submitList(List<IncidentReport> newList) {
-        incidents.clear();
-        incidents.addAll(newList);
-        notifyDataSetChanged();
+    /**
+     * Starts re-formatting "5 min ago" style times once a minute, beginning with an
+     * immediate pass. Call from onResume; rows bound while stopped are formatted then.
+     */
+    public void startTimeRefresh() {
+        refreshingTimes = true;
+        if (recyclerView != null) {
+            recyclerView.removeCallbacks(refreshTimes);
+            onTimeRefresh();
+        }
+    }
+
+    /**
+     * Stops the once-a-minute refresh. Call from onPause.
+     */
+    public void stopTimeRefresh() {
+        refreshingTimes = false;
+        if (recyclerView != null) {
+            recyclerView.removeCallbacks(refreshTimes);
+        }
+    }
+
+    /**
+     * Re-formats the times of the rows on screen and rebinds only those whose text
+     * changed. Off-screen rows catch up when they are next bound.
+     */
+    public void refreshRelativeTimes() {
+        if (recyclerView == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        List<IncidentRow> rows = differ.getCurrentList();
+        for (int i = 0; i < recyclerView.getChildCount(); i++) {
+            int position = recyclerView.getChildViewHolder(recyclerView.getChildAt(i)).getBindingAdapterPosition();
+            if (position == RecyclerView.NO_POSITION || position >= rows.size()) {
+                continue;
+            }
+            IncidentRow row = rows.get(position);
+            CharSequence shown = row.relativeTime;
+            if (!TextUtils.equals(shown, row.relativeTime(now))) {
+                notifyItemChanged(position, PAYLOAD_TIME);
+            }
+        }
+    }
+
+    @Override
+    public void onAttachedToRecyclerView(@NonNull RecyclerView recyclerView) {
+        this.recyclerView = recyclerView;
+        if (refreshingTimes) {
+            recyclerView.postDelayed(refreshTimes, TIME_REFRESH_MS);
+        }
+    }
+
+    @Override
+    public void onDetachedFromRecyclerView(@NonNull RecyclerView recyclerView) {
+        recyclerView.removeCallbacks(refreshTimes);
+        this.recyclerView = null;
+    }
+
+    private void onTimeRefresh() {
+        if (recyclerView == null || !refreshingTimes) {
+            return;
+        }
+        refreshRelativeTimes();
+        recyclerView.postDelayed(refreshTimes, TIME_REFRESH_MS);
+    }
+
+    @Override
+    public long getItemId(int position) {
+        String id = differ.getCurrentList().get(position).incident.getId();
+        Long stableId = stableIds.get(id);
+        if (stableId == null) {
+            stableId = nextStableId++;
+            stableIds.put(id, stableId);
+        }
+        return stableId;
+    }
+
+    /**
+     * Forgets the ids of incidents that left the list once a diff has been applied.
+     */
+    private void pruneStableIds() {
+        List<IncidentRow> rows = differ.getCurrentList();
+        if (stableIds.size() <= rows.size()) {
+            return;
+        }
+        Set<String> shown = new HashSet<>();
+        for (int i = 0; i < rows.size(); i++) {
+            shown.add(rows.get(i).incident.getId());
+        }
+        stableIds.keySet().retainAll(shown);
     }
 
     @NonNull
     @Override
     public IncidentViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
         View view = LayoutInflater.from(parent.getContext()).inflate(R.layout.item_incident_report, parent, false);
-        return new IncidentViewHolder(view);
+        IncidentViewHolder holder = new IncidentViewHolder(view);
+        // One listener per holder; it looks up whatever row the holder shows when clicked.
+        view.setOnClickListener(v -> {
+            int position = holder.getBindingAdapterPosition();
+            if (position != RecyclerView.NO_POSITION) {
+                listener.onIncidentClick(differ.getCurrentList().get(position).incident);
+            }
+        });
+        return holder;
     }
 
     @Override
     public void onBindViewHolder(@NonNull IncidentViewHolder holder, int position) {
-        IncidentReport report = incidents.get(position);
-        holder.txtType.setText(report.getType());
-        holder.txtDescription.setText(report.getDescription());
-        holder.txtDateTime.setText(report.getCreated());
-        
-        String status = report.getStatus();
-        holder.txtStatus.setText(status != null ? status.toUpperCase() : "UNKNOWN");
+        IncidentRow row = differ.getCurrentList().get(position);
+        IncidentSummary incident = row.incident;
+        holder.txtType.setText(incident.getType());
+        holder.txtDescription.setText(incident.getDescription());
+        holder.txtDateTime.setText(row.relativeTime(System.currentTimeMillis()));
+        holder.txtStatus.setText(row.statusLabel);
+        holder.txtStatus.setTextColor(row.statusColor);
 
-        // Apply highlighting based on status
-        int colorResId = R.color.text_label; // default
-        if ("pending".equalsIgnoreCase(status)) {
-            colorResId = R.color.status_pending;
-        } else if ("ongoing".equalsIgnoreCase(status)) {
-            colorResId = R.color.status_ongoing;
-        } else if ("resolved".equalsIgnoreCase(status)) {
-            colorResId = R.color.status_resolved;
+        if (incident.hasImage()) {
+            holder.imgThumbnail.setVisibility(View.VISIBLE);
+            IncidentImages.listThumbnail(requestManager, apiHelper, incident, thumbnailSizePx).into(holder.imgThumbnail);
+        } else {
+            requestManager.clear(holder.imgThumbnail);
+            holder.imgThumbnail.setVisibility(View.GONE);
         }
-        
-        holder.txtStatus.setTextColor(ContextCompat.getColor(holder.itemView.getContext(), colorResId));
+    }
 
-        holder.itemView.setOnClickListener(v -> listener.onIncidentClick(report));
+    @Override
+    public void onBindViewHolder(@NonNull IncidentViewHolder holder, int position, @NonNull List<Object> payloads) {
+        if (payloads.isEmpty()) {
+            onBindViewHolder(holder, position);
+            return;
+        }
+        IncidentRow row = differ.getCurrentList().get(position);
+        // Indexed loop: iterating the payload list would allocate on every partial bind.
+        for (int i = 0; i < payloads.size(); i++) {
+            Object payload = payloads.get(i);
+            if (payload == PAYLOAD_STATUS) {
+                holder.txtStatus.setText(row.statusLabel);
+                holder.txtStatus.setTextColor(row.statusColor);
+            } else if (payload == PAYLOAD_TIME) {
+                holder.txtDateTime.setText(row.relativeTime(System.currentTimeMillis()));
+            } else {
+                onBindViewHolder(holder, position);
+                return;
+            }
+        }
+    }
+
+    @Override
+    public void onViewRecycled(@NonNull IncidentViewHolder holder) {
+        // Cancels an in-flight load and hands the bitmap back to Glide's pool for reuse.
+        requestManager.clear(holder.imgThumbnail);
+    }
+
+    @NonNull
+    @Override
+    public List<IncidentSummary> getPreloadItems(int position) {
+        List<IncidentRow> current = differ.getCurrentList();
+        if (position >= current.size() || !current.get(position).incident.hasImage()) {
+            return Collections.emptyList();
+        }
+        return Collections.singletonList(current.get(position).incident);
+    }
+
+    @Nullable
+    @Override
+    public RequestBuilder<Drawable> getPreloadRequestBuilder(@NonNull IncidentSummary incident) {
+        return IncidentImages.listThumbnail(requestManager, apiHelper, incident, thumbnailSizePx);
     }
 
     @Override
     public int getItemCount() {
-        return incidents.size();
+        return differ.getCurrentList().size();
+    }
+
+    private static CharSequence relativeTime(IncidentSummary incident, long now) {
+        long created = incident.getCreatedAtMs();
+        if (created == 0) {
+            return "";
+        }
+        // A device clock slightly behind the server would otherwise read "in 1 min".
+        return DateUtils.getRelativeTimeSpanString(Math.min(created, now), now,
+                DateUtils.MINUTE_IN_MILLIS, DateUtils.FORMAT_ABBREV_RELATIVE);
+    }
+
+    /**
+     * An incident together with the text and colour its row shows.
+     */
+    static final class IncidentRow {
+        final IncidentSummary incident;
+        final String statusLabel;
+        final int statusColor;
+        // Main thread only; null until the row is first bound.
+        CharSequence relativeTime;
+        private long formattedMinute = -1;
+
+        IncidentRow(IncidentSummary incident, int statusColor) {
+            this.incident = incident;
+            this.statusLabel = incident.getStatusLabel();
+            this.statusColor = statusColor;
+        }
+
+        /**
+         * The relative time as of now, formatted at most once per minute.
+         */
+        CharSequence relativeTime(long now) {
+            long minute = now / DateUtils.MINUTE_IN_MILLIS;
+            if (minute != formattedMinute) {
+                relativeTime = IncidentAdapter.relativeTime(incident, now);
+                formattedMinute = minute;
+            }
+            return relativeTime;
+        }
     }
 
     static class IncidentViewHolder extends RecyclerView.ViewHolder {
@@ -72,9 +382,11 @@ public class IncidentAdapter extends RecyclerView.Adapter<IncidentAdapter.Incide
         TextView txtDescription;
         TextView txtDateTime;
         TextView txtStatus;
+        ImageView imgThumbnail;
 
         public IncidentViewHolder(@NonNull View itemView) {
             super(itemView);
+            imgThumbnail = itemView.findViewById(R.id.imgThumbnail);
             txtType = itemView.findViewById(R.id.txtIncidentType);
             txtDescription = itemView.findViewById(R.id.txtDescription);
             txtDateTime = itemView.findViewById(R.id.txtDateTime);
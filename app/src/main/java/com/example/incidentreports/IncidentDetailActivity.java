@@ -12,11 +12,12 @@ import android.widget.Toast;
 
 import androidx.appcompat.app.AppCompatActivity;
 
-import com.bumptech.glide.Glide;
-
 public class IncidentDetailActivity extends AppCompatActivity {
     private PocketBaseApiHelper apiHelper;
     private SessionManager sessionManager;
+    private IncidentLocalStore localStore;
+    private StatusUpdateQueue statusQueue;
+    private IncidentMemoryCache memoryCache;
 
     private TextView txtType;
     private TextView txtDescription;
@@ -31,6 +32,17 @@ public class IncidentDetailActivity extends AppCompatActivity {
 
     private String incidentId;
     private IncidentReport currentIncident;
+    private boolean awaitingSync = false;
+    // A change sent while online; confirmed once the server's copy shows it. A refused
+    // change is reported by the queue instead.
+    private String sendingStatus;
+
+    private final StatusUpdateQueue.Listener queueListener = () -> {
+        if (awaitingSync && !statusQueue.isPending(incidentId)) {
+            awaitingSync = false;
+            revalidateIncident();
+        }
+    };
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -39,6 +51,9 @@ public class IncidentDetailActivity extends AppCompatActivity {
 
         sessionManager = new SessionManager(this);
         apiHelper = new PocketBaseApiHelper(this);
+        localStore = IncidentLocalStore.getInstance(this);
+        statusQueue = StatusUpdateQueue.getInstance(this);
+        memoryCache = IncidentMemoryCache.getInstance();
 
         incidentId = getIntent().getStringExtra("incident_id");
         if (incidentId == null || incidentId.isEmpty()) {
@@ -61,6 +76,11 @@ public class IncidentDetailActivity extends AppCompatActivity {
         btnRespond.setOnClickListener(v -> updateStatus("ongoing"));
         btnResolve.setOnClickListener(v -> updateStatus("resolved"));
         
+        imgIncident.setOnClickListener(v -> {
+            if (currentIncident != null && currentIncident.hasImage()) {
+                IncidentImages.showFullResolution(this, apiHelper, currentIncident);
+            }
+        });
         btnOpenMap.setOnClickListener(v -> {
             if (currentIncident != null) {
                 openMap(currentIncident.getLatitude(), currentIncident.getLongitude());
@@ -71,40 +91,100 @@ public class IncidentDetailActivity extends AppCompatActivity {
     @Override
     protected void onResume() {
         super.onResume();
+        statusQueue.addListener(queueListener);
+        awaitingSync = statusQueue.isPending(incidentId);
         loadIncident();
     }
 
+    @Override
+    protected void onPause() {
+        super.onPause();
+        statusQueue.removeListener(queueListener);
+    }
+
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        apiHelper.cancelPendingRequests();
+    }
+
     private void loadIncident() {
+        if (currentIncident != null) {
+            revalidateIncident();
+            return;
+        }
+        IncidentSummary remembered = memoryCache.get(incidentId);
+        if (remembered instanceof IncidentReport) {
+            currentIncident = statusQueue.applyPending((IncidentReport) remembered);
+            bindIncident(currentIncident);
+            revalidateIncident();
+            return;
+        }
         setLoading(true);
+        if (remembered != null) {
+            // Only the list fields are known yet; show them while the full record loads.
+            bindSummary(statusQueue.applyPending(remembered));
+        }
+        localStore.load(incidentId, cached -> {
+            if (cached != null && currentIncident == null) {
+                setLoading(false);
+                currentIncident = statusQueue.applyPending(cached);
+                bindIncident(currentIncident);
+            }
+            revalidateIncident();
+        });
+    }
+
+    private void revalidateIncident() {
+        boolean showErrors = currentIncident == null;
         apiHelper.fetchIncidentById(sessionManager.getToken(), incidentId, new PocketBaseApiHelper.IncidentCallback() {
             @Override
             public void onSuccess(IncidentReport incidentReport) {
                 setLoading(false);
-                currentIncident = incidentReport;
-                bindIncident(incidentReport);
+                localStore.upsert(incidentReport);
+                memoryCache.put(incidentReport);
+                currentIncident = statusQueue.applyPending(incidentReport);
+                bindIncident(currentIncident);
+                if (sendingStatus != null && !awaitingSync) {
+                    if (sendingStatus.equalsIgnoreCase(incidentReport.getStatus())) {
+                        Toast.makeText(IncidentDetailActivity.this, "Status changed to " + sendingStatus + ".",
+                                Toast.LENGTH_SHORT).show();
+                    }
+                    sendingStatus = null;
+                }
             }
 
             @Override
             public void onError(String message) {
                 setLoading(false);
-                Toast.makeText(IncidentDetailActivity.this, "Failed to load incident: " + message, Toast.LENGTH_LONG).show();
+                if (showErrors) {
+                    Toast.makeText(IncidentDetailActivity.this, "Failed to load incident: " + message, Toast.LENGTH_LONG).show();
+                }
             }
         });
     }
 
+    private void bindSummary(IncidentSummary summary) {
+        txtType.setText(summary.getType());
+        txtDescription.setText(summary.getDescription());
+        txtDate.setText(summary.getCreated());
+        txtStatus.setText(summary.getStatus());
+    }
+
     private void bindIncident(IncidentReport report) {
         txtType.setText(report.getType());
         txtDescription.setText(report.getDescription());
         txtDate.setText(report.getCreated());
-        txtLocation.setText("Lat: " + report.getLatitude() + "\nLng: " + report.getLongitude());
-        txtStatus.setText(report.getStatus());
+        txtLocation.setText(report.hasLocation()
+                ? "Lat: " + report.getLatitude() + "\nLng: " + report.getLongitude()
+                : "Location not provided");
+        txtStatus.setText(statusQueue.isPending(report.getId())
+                ? report.getStatus() + " (waiting to sync)"
+                : report.getStatus());
 
         if (report.hasImage()) {
             imgIncident.setVisibility(View.VISIBLE);
-            Glide.with(this)
-                    .load(apiHelper.getFileUrl(report))
-                    .centerCrop()
-                    .into(imgIncident);
+            IncidentImages.loadDetail(imgIncident, apiHelper, report);
         } else {
             imgIncident.setVisibility(View.GONE);
         }
@@ -113,19 +193,18 @@ public class IncidentDetailActivity extends AppCompatActivity {
         // pending -> ongoing (RESPOND)
         // ongoing -> resolved (RESOLVE)
         // resolved -> no actions
-        btnRespond.setVisibility("pending".equalsIgnoreCase(report.getStatus()) ? View.VISIBLE : View.GONE);
-        btnResolve.setVisibility("ongoing".equalsIgnoreCase(report.getStatus()) ? View.VISIBLE : View.GONE);
+        btnRespond.setVisibility(report.getIncidentStatus() == IncidentStatus.PENDING ? View.VISIBLE : View.GONE);
+        btnResolve.setVisibility(report.getIncidentStatus() == IncidentStatus.ONGOING ? View.VISIBLE : View.GONE);
         
         // Show map button if coordinates are available
-        if (report.getLatitude() != null && !report.getLatitude().isEmpty() &&
-            report.getLongitude() != null && !report.getLongitude().isEmpty()) {
+        if (report.hasLocation()) {
             btnOpenMap.setVisibility(View.VISIBLE);
         } else {
             btnOpenMap.setVisibility(View.GONE);
         }
     }
 
-    private void openMap(String lat, String lng) {
+    private void openMap(double lat, double lng) {
         Uri gmmIntentUri = Uri.parse("geo:" + lat + "," + lng + "?q=" + lat + "," + lng + "(Emergency)");
         Intent mapIntent = new Intent(Intent.ACTION_VIEW, gmmIntentUri);
         mapIntent.setPackage("com.google.android.apps.maps");
@@ -143,22 +222,18 @@ public class IncidentDetailActivity extends AppCompatActivity {
         if (currentIncident == null) {
             return;
         }
-        setLoading(true);
-        apiHelper.updateIncidentStatus(sessionManager.getToken(), currentIncident.getId(), newStatus,
-                new PocketBaseApiHelper.SimpleCallback() {
-                    @Override
-                    public void onSuccess() {
-                        setLoading(false);
-                        Toast.makeText(IncidentDetailActivity.this, "Status updated to " + newStatus, Toast.LENGTH_SHORT).show();
-                        loadIncident();
-                    }
-
-                    @Override
-                    public void onError(String message) {
-                        setLoading(false);
-                        Toast.makeText(IncidentDetailActivity.this, "Update failed: " + message, Toast.LENGTH_LONG).show();
-                    }
-                });
+        // Queued on disk and applied optimistically; it is sent as soon as there is signal.
+        statusQueue.enqueue(currentIncident.getId(), newStatus);
+        awaitingSync = statusQueue.isPending(incidentId);
+        currentIncident = currentIncident.withStatus(newStatus);
+        bindIncident(currentIncident);
+        if (statusQueue.isOnline()) {
+            // Being sent now; the queue listener confirms it.
+            sendingStatus = newStatus;
+        } else {
+            sendingStatus = null;
+            Toast.makeText(this, "Status change to " + newStatus + " queued; it is sent when online.", Toast.LENGTH_SHORT).show();
+        }
     }
 
     private void setLoading(boolean loading) {
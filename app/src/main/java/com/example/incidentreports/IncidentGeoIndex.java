@@ -0,0 +1,359 @@
+package com.example.incidentreports;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Spatial index over incident coordinates. Points are bucketed into a fixed latitude /
+ * longitude grid for "within N km" lookups, and {@link #rankFrom} orders every point by
+ * distance from the responder.
+ *
+ * <p>Coordinates, distances and the ranking live in primitive arrays. Re-ranking after
+ * a location update writes into those arrays and allocates nothing, and it re-sorts the
+ * previous order by insertion, which is close to linear when the responder has moved
+ * only a little since the last update.
+ */
+public class IncidentGeoIndex {
+    private static final double KM_PER_DEGREE = 6371.0 * Math.PI / 180;
+    // About 5.5 km north-south; a city spans a few dozen cells.
+    private static final double CELL_DEGREES = 0.05;
+    private static final int ROWS = (int) Math.ceil(180 / CELL_DEGREES);
+    private static final int COLUMNS = (int) Math.ceil(360 / CELL_DEGREES);
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final Map<String, Integer> slotById = new HashMap<>();
+    private final Map<Long, Cell> cells = new HashMap<>();
+    private String[] ids = new String[INITIAL_CAPACITY];
+    private double[] latitudes = new double[INITIAL_CAPACITY];
+    private double[] longitudes = new double[INITIAL_CAPACITY];
+    private long[] cellKeys = new long[INITIAL_CAPACITY];
+    // Kilometres from the ranking origin, by slot.
+    private float[] distancesKm = new float[INITIAL_CAPACITY];
+    // Slots in ascending distance from the ranking origin.
+    private int[] order = new int[INITIAL_CAPACITY];
+    // Scratch space for the slots a radius lookup finds.
+    private int[] found = new int[INITIAL_CAPACITY];
+    private int size = 0;
+
+    private boolean hasOrigin = false;
+    private double originLatitude;
+    private double originLongitude;
+    private double originCosLatitude;
+
+    /**
+     * Adds a point or moves an existing one. With a ranking origin set, the point is
+     * slotted into the order at its distance straight away.
+     */
+    public void put(String id, double latitude, double longitude) {
+        Integer existing = slotById.get(id);
+        int slot;
+        if (existing != null) {
+            slot = existing;
+            if (latitudes[slot] == latitude && longitudes[slot] == longitude) {
+                return;
+            }
+            removeFromCell(slot);
+            removeFromOrder(slot);
+        } else {
+            ensureCapacity(size + 1);
+            slot = size++;
+            ids[slot] = id;
+            slotById.put(id, slot);
+        }
+        latitudes[slot] = latitude;
+        longitudes[slot] = longitude;
+        cellKeys[slot] = cellKey(latitude, longitude);
+        cellFor(cellKeys[slot]).add(slot);
+        distancesKm[slot] = hasOrigin ? distanceFromOrigin(slot) : 0f;
+        insertIntoOrder(slot);
+    }
+
+    public boolean remove(String id) {
+        Integer removed = slotById.remove(id);
+        if (removed == null) {
+            return false;
+        }
+        int slot = removed;
+        removeFromOrder(slot);
+        removeFromCell(slot);
+
+        // Move the last slot into the gap so the arrays stay dense.
+        int last = --size;
+        if (slot != last) {
+            ids[slot] = ids[last];
+            latitudes[slot] = latitudes[last];
+            longitudes[slot] = longitudes[last];
+            cellKeys[slot] = cellKeys[last];
+            distancesKm[slot] = distancesKm[last];
+            slotById.put(ids[slot], slot);
+            cells.get(cellKeys[slot]).replace(last, slot);
+            for (int i = 0; i < size; i++) {
+                if (order[i] == last) {
+                    order[i] = slot;
+                    break;
+                }
+            }
+        }
+        ids[last] = null;
+        return true;
+    }
+
+    public void clear() {
+        slotById.clear();
+        cells.clear();
+        for (int i = 0; i < size; i++) {
+            ids[i] = null;
+        }
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Re-ranks every point by distance from the given position. Returns true if the
+     * order changed, so callers can skip re-rendering when it did not.
+     */
+    public boolean rankFrom(double latitude, double longitude) {
+        hasOrigin = true;
+        originLatitude = latitude;
+        originLongitude = longitude;
+        originCosLatitude = Math.cos(Math.toRadians(latitude));
+        for (int slot = 0; slot < size; slot++) {
+            distancesKm[slot] = distanceFromOrigin(slot);
+        }
+        boolean changed = false;
+        for (int i = 1; i < size; i++) {
+            int slot = order[i];
+            float distance = distancesKm[slot];
+            int j = i - 1;
+            while (j >= 0 && distancesKm[order[j]] > distance) {
+                order[j + 1] = order[j];
+                j--;
+            }
+            if (j + 1 != i) {
+                order[j + 1] = slot;
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    public boolean hasOrigin() {
+        return hasOrigin;
+    }
+
+    /**
+     * The id at the given position of the distance ranking, nearest first.
+     */
+    public String getRankedId(int rank) {
+        return ids[order[rank]];
+    }
+
+    public float getRankedDistanceKm(int rank) {
+        return distancesKm[order[rank]];
+    }
+
+    /**
+     * Adds to out the id of every point within radiusKm of the given position, in no
+     * particular order. Only the grid cells overlapping the circle are visited.
+     */
+    public void findWithin(double latitude, double longitude, double radiusKm, List<String> out) {
+        int count = collectWithin(latitude, longitude, radiusKm);
+        for (int i = 0; i < count; i++) {
+            out.add(ids[found[i]]);
+        }
+    }
+
+    /**
+     * Adds to out the id of every point within radiusKm of the {@link #rankFrom} position,
+     * nearest first. Like {@link #findWithin} it visits only the cells overlapping the
+     * circle, so the cost follows the number of nearby points, not the size of the index.
+     */
+    public void findNearest(double radiusKm, List<String> out) {
+        if (!hasOrigin) {
+            return;
+        }
+        int count = collectWithin(originLatitude, originLongitude, radiusKm);
+        for (int i = 1; i < count; i++) {
+            int slot = found[i];
+            int j = i - 1;
+            while (j >= 0 && distancesKm[found[j]] > distancesKm[slot]) {
+                found[j + 1] = found[j];
+                j--;
+            }
+            found[j + 1] = slot;
+        }
+        for (int i = 0; i < count; i++) {
+            out.add(ids[found[i]]);
+        }
+    }
+
+    /**
+     * Fills found with the slots within radiusKm of the given position and returns how
+     * many there are.
+     */
+    private int collectWithin(double latitude, double longitude, double radiusKm) {
+        double latitudeSpan = radiusKm / KM_PER_DEGREE;
+        double cosLatitude = Math.cos(Math.toRadians(latitude));
+        // Near the poles a circle covers every longitude.
+        double longitudeSpan = cosLatitude > 0.01 ? latitudeSpan / cosLatitude : 180;
+        int firstRow = Math.max(0, row(latitude - latitudeSpan));
+        int lastRow = Math.min(ROWS - 1, row(latitude + latitudeSpan));
+        int columnCount = Math.min(COLUMNS, column(longitude + longitudeSpan) - column(longitude - longitudeSpan) + 1);
+        int firstColumn = column(longitude - longitudeSpan);
+
+        int count = 0;
+        for (int r = firstRow; r <= lastRow; r++) {
+            for (int c = 0; c < columnCount; c++) {
+                Cell cell = cells.get((long) r * COLUMNS + Math.floorMod(firstColumn + c, COLUMNS));
+                if (cell == null) {
+                    continue;
+                }
+                for (int i = 0; i < cell.count; i++) {
+                    int slot = cell.slots[i];
+                    if (distanceKm(latitude, longitude, cosLatitude, latitudes[slot], longitudes[slot]) <= radiusKm) {
+                        found[count++] = slot;
+                    }
+                }
+            }
+        }
+        return count;
+    }
+
+    private float distanceFromOrigin(int slot) {
+        return distanceKm(originLatitude, originLongitude, originCosLatitude, latitudes[slot], longitudes[slot]);
+    }
+
+    /**
+     * Equirectangular distance: within a fraction of a percent of the great-circle
+     * distance at city scale, and needs no trigonometry per point.
+     */
+    private static float distanceKm(double fromLatitude, double fromLongitude, double cosFromLatitude,
+                                    double toLatitude, double toLongitude) {
+        double dLongitude = toLongitude - fromLongitude;
+        if (dLongitude > 180) dLongitude -= 360;
+        if (dLongitude < -180) dLongitude += 360;
+        double x = dLongitude * cosFromLatitude;
+        double y = toLatitude - fromLatitude;
+        return (float) (Math.sqrt(x * x + y * y) * KM_PER_DEGREE);
+    }
+
+    private void insertIntoOrder(int slot) {
+        int count = size - 1;
+        int position = count;
+        if (hasOrigin) {
+            position = 0;
+            while (position < count && distancesKm[order[position]] <= distancesKm[slot]) {
+                position++;
+            }
+        }
+        System.arraycopy(order, position, order, position + 1, count - position);
+        order[position] = slot;
+    }
+
+    private void removeFromOrder(int slot) {
+        for (int i = 0; i < size; i++) {
+            if (order[i] == slot) {
+                System.arraycopy(order, i + 1, order, i, size - i - 1);
+                return;
+            }
+        }
+    }
+
+    private void removeFromCell(int slot) {
+        long key = cellKeys[slot];
+        Cell cell = cells.get(key);
+        cell.remove(slot);
+        if (cell.count == 0) {
+            cells.remove(key);
+        }
+    }
+
+    private Cell cellFor(long key) {
+        Cell cell = cells.get(key);
+        if (cell == null) {
+            cell = new Cell();
+            cells.put(key, cell);
+        }
+        return cell;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= ids.length) {
+            return;
+        }
+        int grown = Math.max(capacity, ids.length * 2);
+        String[] newIds = new String[grown];
+        System.arraycopy(ids, 0, newIds, 0, size);
+        ids = newIds;
+        latitudes = grow(latitudes, grown);
+        longitudes = grow(longitudes, grown);
+        long[] newCellKeys = new long[grown];
+        System.arraycopy(cellKeys, 0, newCellKeys, 0, size);
+        cellKeys = newCellKeys;
+        float[] newDistances = new float[grown];
+        System.arraycopy(distancesKm, 0, newDistances, 0, size);
+        distancesKm = newDistances;
+        int[] newOrder = new int[grown];
+        System.arraycopy(order, 0, newOrder, 0, size);
+        order = newOrder;
+        found = new int[grown];
+    }
+
+    private double[] grow(double[] values, int capacity) {
+        double[] grown = new double[capacity];
+        System.arraycopy(values, 0, grown, 0, size);
+        return grown;
+    }
+
+    private static long cellKey(double latitude, double longitude) {
+        return (long) Math.min(ROWS - 1, Math.max(0, row(latitude))) * COLUMNS
+                + Math.floorMod(column(longitude), COLUMNS);
+    }
+
+    private static int row(double latitude) {
+        return (int) Math.floor((latitude + 90) / CELL_DEGREES);
+    }
+
+    private static int column(double longitude) {
+        return (int) Math.floor((longitude + 180) / CELL_DEGREES);
+    }
+
+    /**
+     * Slots whose points fall in one grid cell.
+     */
+    private static class Cell {
+        int[] slots = new int[4];
+        int count = 0;
+
+        void add(int slot) {
+            if (count == slots.length) {
+                int[] grown = new int[count * 2];
+                System.arraycopy(slots, 0, grown, 0, count);
+                slots = grown;
+            }
+            slots[count++] = slot;
+        }
+
+        void remove(int slot) {
+            for (int i = 0; i < count; i++) {
+                if (slots[i] == slot) {
+                    slots[i] = slots[--count];
+                    return;
+                }
+            }
+        }
+
+        void replace(int oldSlot, int newSlot) {
+            for (int i = 0; i < count; i++) {
+                if (slots[i] == oldSlot) {
+                    slots[i] = newSlot;
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.incidentreports;
+
+import android.content.Context;
+
+import androidx.annotation.NonNull;
+
+import com.bumptech.glide.Glide;
+import com.bumptech.glide.GlideBuilder;
+import com.bumptech.glide.Registry;
+import com.bumptech.glide.annotation.GlideModule;
+import com.bumptech.glide.load.engine.bitmap_recycle.LruBitmapPool;
+import com.bumptech.glide.load.engine.cache.InternalCacheDiskCacheFactory;
+import com.bumptech.glide.load.engine.cache.LruResourceCache;
+import com.bumptech.glide.load.engine.cache.MemorySizeCalculator;
+import com.bumptech.glide.load.model.GlideUrl;
+import com.bumptech.glide.module.AppGlideModule;
+
+import java.io.InputStream;
+
+/**
+ * App-wide Glide configuration: explicit memory and disk budgets for incident photos,
+ * and, in debug builds, a metered URL loader that logs how many bytes each image download
+ * transferred.
+ */
+@GlideModule
+public class IncidentGlideModule extends AppGlideModule {
+    private static final String DISK_CACHE_DIR = "incident_images";
+    private static final long DISK_CACHE_BYTES = 100L * 1024 * 1024;
+    // Two screens' worth of decoded bitmaps is enough for the list and one detail view.
+    private static final float MEMORY_CACHE_SCREENS = 2f;
+
+    @Override
+    public void applyOptions(@NonNull Context context, @NonNull GlideBuilder builder) {
+        MemorySizeCalculator calculator = new MemorySizeCalculator.Builder(context)
+                .setMemoryCacheScreens(MEMORY_CACHE_SCREENS)
+                .setBitmapPoolScreens(MEMORY_CACHE_SCREENS)
+                .build();
+        builder.setMemoryCache(new LruResourceCache(calculator.getMemoryCacheSize()));
+        builder.setBitmapPool(new LruBitmapPool(calculator.getBitmapPoolSize()));
+        builder.setDiskCache(new InternalCacheDiskCacheFactory(context, DISK_CACHE_DIR, DISK_CACHE_BYTES));
+    }
+
+    @Override
+    public void registerComponents(@NonNull Context context, @NonNull Glide glide, @NonNull Registry registry) {
+        if (BuildConfig.DEBUG) {
+            registry.replace(GlideUrl.class, InputStream.class, new MeteredUrlLoader.Factory(ApiMetrics.getInstance(context)));
+        }
+    }
+
+    @Override
+    public boolean isManifestParsingEnabled() {
+        return false;
+    }
+}
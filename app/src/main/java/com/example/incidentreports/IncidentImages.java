@@ -0,0 +1,122 @@
+package com.example.incidentreports;
+
+import android.app.Dialog;
+import android.content.Context;
+import android.graphics.drawable.BitmapDrawable;
+import android.graphics.drawable.Drawable;
+import android.os.SystemClock;
+import android.util.Log;
+import android.widget.ImageView;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.bumptech.glide.Glide;
+import com.bumptech.glide.RequestBuilder;
+import com.bumptech.glide.RequestManager;
+import com.bumptech.glide.load.DataSource;
+import com.bumptech.glide.load.DecodeFormat;
+import com.bumptech.glide.load.engine.DiskCacheStrategy;
+import com.bumptech.glide.load.engine.GlideException;
+import com.bumptech.glide.request.RequestListener;
+import com.bumptech.glide.request.target.Target;
+
+/**
+ * Glide requests for incident photos. List rows and the detail view load server
+ * thumbnails sized to their ImageView and decoded as RGB_565; the full-resolution file is
+ * only downloaded when the responder opens the photo full screen.
+ */
+public final class IncidentImages {
+    private static final String TAG = "IncidentImages";
+
+    private IncidentImages() {
+    }
+
+    /**
+     * Square list-row thumbnail. The adapter and its RecyclerView preloader both build
+     * their requests here so preloaded images are memory-cache hits when bound.
+     */
+    public static RequestBuilder<Drawable> listThumbnail(RequestManager requestManager, PocketBaseApiHelper apiHelper,
+                                                         IncidentSummary incident, int sizePx) {
+        return requestManager
+                .load(apiHelper.getFileUrl(incident, sizePx, sizePx))
+                .format(DecodeFormat.PREFER_RGB_565)
+                .diskCacheStrategy(DiskCacheStrategy.DATA)
+                .override(sizePx, sizePx)
+                .centerCrop();
+    }
+
+    public static void loadDetail(ImageView imageView, PocketBaseApiHelper apiHelper, IncidentReport report) {
+        Context context = imageView.getContext();
+        detailRequest(Glide.with(imageView).asDrawable(), context, apiHelper, report)
+                .listener(new TimingListener("detail"))
+                .into(imageView);
+    }
+
+    /**
+     * Warms the caches with the same thumbnail {@link #loadDetail} will request.
+     */
+    public static void preloadDetail(Context context, PocketBaseApiHelper apiHelper, IncidentReport report) {
+        detailRequest(Glide.with(context).asDrawable(), context, apiHelper, report).preload();
+    }
+
+    /**
+     * Shows the photo full screen. The cached thumbnail appears at once and the original
+     * file replaces it once downloaded.
+     */
+    public static void showFullResolution(Context context, PocketBaseApiHelper apiHelper, IncidentReport report) {
+        ImageView fullView = new ImageView(context);
+        fullView.setScaleType(ImageView.ScaleType.FIT_CENTER);
+        Dialog dialog = new Dialog(context, android.R.style.Theme_Black_NoTitleBar_Fullscreen);
+        dialog.setContentView(fullView);
+        fullView.setOnClickListener(v -> dialog.dismiss());
+        dialog.setOnDismissListener(d -> Glide.with(context).clear(fullView));
+        dialog.show();
+
+        Glide.with(fullView)
+                .load(apiHelper.getFileUrl(report))
+                .thumbnail(detailRequest(Glide.with(fullView).asDrawable(), context, apiHelper, report))
+                .listener(new TimingListener("full"))
+                .into(fullView);
+    }
+
+    private static RequestBuilder<Drawable> detailRequest(RequestBuilder<Drawable> builder, Context context,
+                                                          PocketBaseApiHelper apiHelper, IncidentReport report) {
+        int width = context.getResources().getDisplayMetrics().widthPixels;
+        int height = context.getResources().getDimensionPixelSize(R.dimen.dp_220);
+        return builder
+                .load(apiHelper.getFileUrl(report, width, height))
+                .format(DecodeFormat.PREFER_RGB_565)
+                // The thumbnail is already the right size, so keep the downloaded bytes as-is.
+                .diskCacheStrategy(DiskCacheStrategy.DATA)
+                .centerCrop();
+    }
+
+    private static class TimingListener implements RequestListener<Drawable> {
+        private final String label;
+        private final long startMs = SystemClock.elapsedRealtime();
+
+        TimingListener(String label) {
+            this.label = label;
+        }
+
+        @Override
+        public boolean onLoadFailed(@Nullable GlideException e, @Nullable Object model,
+                                    @NonNull Target<Drawable> target, boolean isFirstResource) {
+            Log.w(TAG, label + " image failed after " + (SystemClock.elapsedRealtime() - startMs) + " ms", e);
+            return false;
+        }
+
+        @Override
+        public boolean onResourceReady(@NonNull Drawable resource, @NonNull Object model, Target<Drawable> target,
+                                       @NonNull DataSource dataSource, boolean isFirstResource) {
+            int bitmapBytes = resource instanceof BitmapDrawable
+                    ? ((BitmapDrawable) resource).getBitmap().getAllocationByteCount()
+                    : 0;
+            Log.d(TAG, label + " image ready from " + dataSource + " in " + (SystemClock.elapsedRealtime() - startMs)
+                    + " ms, " + resource.getIntrinsicWidth() + "x" + resource.getIntrinsicHeight()
+                    + ", " + bitmapBytes + " bitmap bytes");
+            return false;
+        }
+    }
+}
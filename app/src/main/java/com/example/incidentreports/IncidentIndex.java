@@ -0,0 +1,283 @@
+package com.example.incidentreports;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * In-memory indexes over the incidents held on the device: buckets by status and type,
+ * an ordering by creation time, a word index over the text fields and an
+ * {@link IncidentGeoIndex} over the coordinates. Kept up to date
+ * one record at a time as changes arrive, so filtering the list never touches the
+ * network or re-reads every record.
+ */
+public class IncidentIndex {
+    // Newest first; the id breaks ties so records created in the same millisecond both stay.
+    private static final Comparator<IncidentSummary> NEWEST_FIRST = (a, b) -> {
+        int byCreated = Long.compare(b.getCreatedAtMs(), a.getCreatedAtMs());
+        return byCreated != 0 ? byCreated : a.getId().compareTo(b.getId());
+    };
+
+    private final Map<String, IncidentSummary> byId = new HashMap<>();
+    private final Map<String, Set<String>> byStatus = new HashMap<>();
+    private final Map<String, Set<String>> byType = new HashMap<>();
+    private final TreeSet<IncidentSummary> byCreated = new TreeSet<>(NEWEST_FIRST);
+    // Sorted so a partly typed word finds every word it starts.
+    private final TreeMap<String, Set<String>> byWord = new TreeMap<>();
+    private final IncidentGeoIndex byLocation = new IncidentGeoIndex();
+
+    /**
+     * Inserts or replaces a record. Returns true if its id was not indexed before.
+     */
+    public boolean put(IncidentSummary incident) {
+        IncidentSummary previous = byId.get(incident.getId());
+        if (incident.equals(previous)) {
+            return false;
+        }
+        if (previous != null) {
+            unindex(previous);
+        }
+        byId.put(incident.getId(), incident);
+        add(byStatus, key(incident.getStatus()), incident.getId());
+        add(byType, key(incident.getType()), incident.getId());
+        byCreated.add(incident);
+        for (String word : words(incident)) {
+            add(byWord, word, incident.getId());
+        }
+        if (incident.hasLocation()) {
+            byLocation.put(incident.getId(), incident.getLatitude(), incident.getLongitude());
+        }
+        return previous == null;
+    }
+
+    public boolean remove(String incidentId) {
+        IncidentSummary previous = byId.remove(incidentId);
+        if (previous == null) {
+            return false;
+        }
+        unindex(previous);
+        return true;
+    }
+
+    /**
+     * Drops every record whose id is not in the given set. Returns how many were dropped.
+     */
+    public int retainAll(Set<String> incidentIds) {
+        List<String> gone = new ArrayList<>();
+        for (String id : byId.keySet()) {
+            if (!incidentIds.contains(id)) {
+                gone.add(id);
+            }
+        }
+        for (String id : gone) {
+            remove(id);
+        }
+        return gone.size();
+    }
+
+    public void clear() {
+        byId.clear();
+        byStatus.clear();
+        byType.clear();
+        byCreated.clear();
+        byWord.clear();
+        byLocation.clear();
+    }
+
+    public IncidentSummary get(String incidentId) {
+        return byId.get(incidentId);
+    }
+
+    public boolean contains(String incidentId) {
+        return byId.containsKey(incidentId);
+    }
+
+    public int size() {
+        return byId.size();
+    }
+
+    /**
+     * The oldest record by creation time, or null if the index is empty.
+     */
+    public IncidentSummary oldest() {
+        return byCreated.isEmpty() ? null : byCreated.last();
+    }
+
+    /**
+     * Every record, newest first.
+     */
+    public List<IncidentSummary> all() {
+        return new ArrayList<>(byCreated);
+    }
+
+    /**
+     * Records matching every given constraint, newest first. An empty status or type
+     * collection means any; each word of the search text must start a word of the
+     * record's type, description or address, so results narrow as the user types.
+     */
+    public List<IncidentSummary> query(Collection<String> statuses, Collection<String> types, String search) {
+        List<Set<String>> constraints = new ArrayList<>();
+        if (!statuses.isEmpty()) {
+            constraints.add(union(byStatus, statuses));
+        }
+        if (!types.isEmpty()) {
+            constraints.add(union(byType, types));
+        }
+        for (String word : tokenize(search)) {
+            constraints.add(startingWith(word));
+        }
+        if (constraints.isEmpty()) {
+            return all();
+        }
+
+        // Walk the smallest candidate set and check it against the others.
+        Set<String> smallest = constraints.get(0);
+        for (Set<String> ids : constraints) {
+            if (ids.size() < smallest.size()) {
+                smallest = ids;
+            }
+        }
+        TreeSet<IncidentSummary> matches = new TreeSet<>(NEWEST_FIRST);
+        for (String id : smallest) {
+            if (inAll(id, constraints)) {
+                matches.add(byId.get(id));
+            }
+        }
+        return new ArrayList<>(matches);
+    }
+
+    /**
+     * Ranks the located records by distance from the given position. Cheap enough to
+     * call on every location update; returns true if the ranking changed.
+     */
+    public boolean rankFrom(double latitude, double longitude) {
+        return byLocation.rankFrom(latitude, longitude);
+    }
+
+    public boolean hasRanking() {
+        return byLocation.hasOrigin();
+    }
+
+    /**
+     * The given records that lie within radiusKm of the last {@link #rankFrom} position,
+     * nearest first. Records without a location are left out.
+     */
+    public List<IncidentSummary> nearest(List<IncidentSummary> incidents, double radiusKm) {
+        List<String> nearbyIds = new ArrayList<>();
+        byLocation.findNearest(radiusKm, nearbyIds);
+        List<IncidentSummary> nearest = new ArrayList<>();
+        if (nearbyIds.isEmpty()) {
+            return nearest;
+        }
+        Set<String> wanted = new HashSet<>();
+        for (IncidentSummary incident : incidents) {
+            wanted.add(incident.getId());
+        }
+        for (String id : nearbyIds) {
+            if (wanted.contains(id)) {
+                nearest.add(byId.get(id));
+            }
+        }
+        return nearest;
+    }
+
+    private void unindex(IncidentSummary incident) {
+        removeFrom(byStatus, key(incident.getStatus()), incident.getId());
+        removeFrom(byType, key(incident.getType()), incident.getId());
+        byCreated.remove(incident);
+        for (String word : words(incident)) {
+            removeFrom(byWord, word, incident.getId());
+        }
+        byLocation.remove(incident.getId());
+    }
+
+    private Set<String> union(Map<String, Set<String>> buckets, Collection<String> keys) {
+        List<Set<String>> matched = new ArrayList<>();
+        for (String k : keys) {
+            Set<String> bucket = buckets.get(key(k));
+            if (bucket != null) {
+                matched.add(bucket);
+            }
+        }
+        return union(matched);
+    }
+
+    private Set<String> startingWith(String prefix) {
+        return union(byWord.subMap(prefix, prefix + Character.MAX_VALUE).values());
+    }
+
+    /**
+     * A single bucket is returned as is rather than copied; callers only read it.
+     */
+    private static Set<String> union(Collection<Set<String>> buckets) {
+        if (buckets.size() == 1) {
+            return buckets.iterator().next();
+        }
+        Set<String> ids = new HashSet<>();
+        for (Set<String> bucket : buckets) {
+            ids.addAll(bucket);
+        }
+        return ids;
+    }
+
+    private static boolean inAll(String id, List<Set<String>> constraints) {
+        for (Set<String> ids : constraints) {
+            if (!ids.contains(id)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Set<String> words(IncidentSummary incident) {
+        Set<String> words = new HashSet<>(tokenize(incident.getType()));
+        words.addAll(tokenize(incident.getDescription()));
+        words.addAll(tokenize(incident.getAddress()));
+        return words;
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> words = new ArrayList<>();
+        if (text == null) {
+            return words;
+        }
+        for (String word : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+
+    private static String key(String value) {
+        return value != null ? value.toLowerCase(Locale.ROOT) : "";
+    }
+
+    private static <K> void add(Map<K, Set<String>> index, K key, String id) {
+        Set<String> ids = index.get(key);
+        if (ids == null) {
+            ids = new HashSet<>();
+            index.put(key, ids);
+        }
+        ids.add(id);
+    }
+
+    private static <K> void removeFrom(Map<K, Set<String>> index, K key, String id) {
+        Set<String> ids = index.get(key);
+        if (ids == null) {
+            return;
+        }
+        ids.remove(id);
+        if (ids.isEmpty()) {
+            index.remove(key);
+        }
+    }
+}
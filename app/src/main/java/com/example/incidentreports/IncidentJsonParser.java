@@ -0,0 +1,141 @@
+package com.example.incidentreports;
+
+import android.util.JsonReader;
+import android.util.JsonToken;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Pull parser for PocketBase list responses. Reads the bytes straight into
+ * {@link IncidentSummary} objects without building a String or a JSONObject tree first.
+ */
+public final class IncidentJsonParser {
+
+    private IncidentJsonParser() {
+    }
+
+    /**
+     * Reads a list response ({"page":..,"items":[..],..}) and returns its items. Unknown
+     * fields, including the pagination envelope, are skipped.
+     */
+    public static List<IncidentSummary> readSummaryPage(InputStream in) throws IOException {
+        List<IncidentSummary> items = new ArrayList<>();
+        try (JsonReader reader = new JsonReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                if ("items".equals(reader.nextName()) && reader.peek() == JsonToken.BEGIN_ARRAY) {
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        items.add(readSummary(reader));
+                    }
+                    reader.endArray();
+                } else {
+                    reader.skipValue();
+                }
+            }
+            reader.endObject();
+        }
+        return items;
+    }
+
+    private static IncidentSummary readSummary(JsonReader reader) throws IOException {
+        String id = "";
+        String collectionId = "";
+        String type = "Unknown";
+        String description = "No description";
+        String status = "pending";
+        String created = "";
+        String updated = "";
+        double latitude = Double.NaN;
+        double longitude = Double.NaN;
+        String address = "";
+        String imageFileName = "";
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            switch (name) {
+                case "id":
+                    id = readString(reader, id);
+                    break;
+                case "collectionId":
+                    collectionId = readString(reader, collectionId);
+                    break;
+                case "type":
+                    type = readString(reader, type);
+                    break;
+                case "description":
+                    description = readString(reader, description);
+                    break;
+                case "status":
+                    status = readString(reader, status);
+                    break;
+                case "created":
+                    created = readString(reader, created);
+                    break;
+                case "updated":
+                    updated = readString(reader, updated);
+                    break;
+                case "latitude":
+                    latitude = IncidentSummary.parseCoordinate(readString(reader, ""));
+                    break;
+                case "longitude":
+                    longitude = IncidentSummary.parseCoordinate(readString(reader, ""));
+                    break;
+                case "address":
+                    address = readString(reader, address);
+                    break;
+                case "incident_image":
+                    imageFileName = readFirstString(reader, imageFileName);
+                    break;
+                default:
+                    reader.skipValue();
+                    break;
+            }
+        }
+        reader.endObject();
+        return new IncidentSummary(id, collectionId, type, description, status, created, updated,
+                latitude, longitude, address, imageFileName);
+    }
+
+    /**
+     * Mirrors JSONObject.optString: strings and numbers are returned as text, anything
+     * else (null, objects, arrays, booleans) falls back to the default.
+     */
+    private static String readString(JsonReader reader, String fallback) throws IOException {
+        JsonToken token = reader.peek();
+        if (token == JsonToken.STRING || token == JsonToken.NUMBER) {
+            return reader.nextString();
+        }
+        reader.skipValue();
+        return fallback;
+    }
+
+    /**
+     * Reads a file field, which is a single name or an array of names depending on the
+     * field's max select, and returns the first name.
+     */
+    private static String readFirstString(JsonReader reader, String fallback) throws IOException {
+        if (reader.peek() != JsonToken.BEGIN_ARRAY) {
+            return readString(reader, fallback);
+        }
+        String first = fallback;
+        boolean found = false;
+        reader.beginArray();
+        while (reader.hasNext()) {
+            if (found) {
+                reader.skipValue();
+            } else {
+                first = readString(reader, fallback);
+                found = true;
+            }
+        }
+        reader.endArray();
+        return first;
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.incidentreports;
+
+import java.util.Objects;
+
+/**
+ * Cheap summary of an incident query: how many records match and which one changed
+ * last. Two equal fingerprints mean the list has not changed in between.
+ */
+public class IncidentListFingerprint {
+    private final int totalItems;
+    private final String latestId;
+    private final String latestUpdated;
+
+    public IncidentListFingerprint(int totalItems, String latestId, String latestUpdated) {
+        this.totalItems = totalItems;
+        this.latestId = latestId;
+        this.latestUpdated = latestUpdated;
+    }
+
+    public int getTotalItems() {
+        return totalItems;
+    }
+
+    public String getLatestId() {
+        return latestId;
+    }
+
+    public String getLatestUpdated() {
+        return latestUpdated;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof IncidentListFingerprint)) return false;
+        IncidentListFingerprint that = (IncidentListFingerprint) o;
+        return totalItems == that.totalItems
+                && Objects.equals(latestId, that.latestId)
+                && Objects.equals(latestUpdated, that.latestUpdated);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(totalItems, latestId, latestUpdated);
+    }
+}
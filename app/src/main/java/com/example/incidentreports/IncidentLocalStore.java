@@ -0,0 +1,439 @@
+package com.example.incidentreports;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteOpenHelper;
+import android.database.sqlite.SQLiteStatement;
+import android.os.Handler;
+import android.os.Looper;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * On-device SQLite copy of the incidents last received from PocketBase, so screens
+ * can render before the network answers. All disk work runs on a single background
+ * thread and results are delivered on the main thread.
+ */
+public class IncidentLocalStore {
+    private static final String DB_NAME = "incident_cache.db";
+    private static final int DB_VERSION = 3;
+    private static final String TABLE_INCIDENTS = "incidents";
+    private static final String TABLE_PENDING_STATUS = "pending_status";
+
+    private static final String COL_ID = "id";
+    private static final String COL_COLLECTION_ID = "collection_id";
+    private static final String COL_TYPE = "type";
+    private static final String COL_DESCRIPTION = "description";
+    private static final String COL_STATUS = "status";
+    private static final String COL_CREATED = "created";
+    private static final String COL_UPDATED = "updated";
+    private static final String COL_LATITUDE = "latitude";
+    private static final String COL_LONGITUDE = "longitude";
+    private static final String COL_ADDRESS = "address";
+    private static final String COL_IMAGE = "image";
+    // 1 once the full record has been stored; summaries of the same revision then leave the
+    // full description alone, and a newer revision resets it to 0.
+    private static final String COL_HAS_DETAIL = "has_detail";
+    private static final String COL_INCIDENT_ID = "incident_id";
+    private static final String COL_QUEUED_AT = "queued_at";
+
+    private static final String[] SUMMARY_COLUMNS = {
+            COL_ID, COL_COLLECTION_ID, COL_TYPE, COL_DESCRIPTION, COL_STATUS, COL_CREATED, COL_UPDATED,
+            COL_LATITUDE, COL_LONGITUDE, COL_ADDRESS, COL_IMAGE
+    };
+
+    private static final String[] DETAIL_COLUMNS = {
+            COL_ID, COL_COLLECTION_ID, COL_TYPE, COL_DESCRIPTION, COL_STATUS, COL_CREATED,
+            COL_UPDATED, COL_LATITUDE, COL_LONGITUDE, COL_ADDRESS, COL_IMAGE
+    };
+
+    // The CASE expressions read the row as it was before this update, so a summary with a
+    // different "updated" replaces the cached full description and clears has_detail.
+    private static final String SQL_UPDATE_SUMMARY = "UPDATE " + TABLE_INCIDENTS + " SET "
+            + COL_COLLECTION_ID + " = ?1, "
+            + COL_TYPE + " = ?2, "
+            + COL_DESCRIPTION + " = CASE WHEN " + COL_HAS_DETAIL + " = 1 AND " + COL_UPDATED + " IS ?6 THEN "
+            + COL_DESCRIPTION + " ELSE ?3 END, "
+            + COL_HAS_DETAIL + " = CASE WHEN " + COL_UPDATED + " IS ?6 THEN " + COL_HAS_DETAIL + " ELSE 0 END, "
+            + COL_STATUS + " = ?4, "
+            + COL_CREATED + " = ?5, "
+            + COL_UPDATED + " = ?6, "
+            + COL_LATITUDE + " = ?7, "
+            + COL_LONGITUDE + " = ?8, "
+            + COL_ADDRESS + " = ?9, "
+            + COL_IMAGE + " = ?10 "
+            + "WHERE " + COL_ID + " = ?11";
+
+    private static IncidentLocalStore instance;
+
+    public interface IncidentsLoadedCallback {
+        void onLoaded(List<IncidentSummary> incidents);
+    }
+
+    public interface PendingStatusesLoadedCallback {
+        void onLoaded(Map<String, String> statusByIncidentId);
+    }
+
+    public interface IncidentLoadedCallback {
+        /**
+         * Called with the cached record, or null if it has never been stored. The
+         * description is the list excerpt if only the summary has been cached, or if the
+         * record changed on the server since its full version was stored.
+         */
+        void onLoaded(IncidentReport incidentReport);
+    }
+
+    private final DatabaseHelper databaseHelper;
+    private final ExecutorService diskExecutor = Executors.newSingleThreadExecutor();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    private IncidentLocalStore(Context context) {
+        databaseHelper = new DatabaseHelper(context.getApplicationContext());
+    }
+
+    public static synchronized IncidentLocalStore getInstance(Context context) {
+        if (instance == null) {
+            instance = new IncidentLocalStore(context);
+        }
+        return instance;
+    }
+
+    public void loadAll(IncidentsLoadedCallback callback) {
+        diskExecutor.execute(() -> {
+            List<IncidentSummary> incidents = new ArrayList<>();
+            try (Cursor cursor = databaseHelper.getReadableDatabase().query(TABLE_INCIDENTS, SUMMARY_COLUMNS,
+                    null, null, null, null, COL_CREATED + " DESC")) {
+                while (cursor.moveToNext()) {
+                    incidents.add(readSummary(cursor));
+                }
+            }
+            mainHandler.post(() -> callback.onLoaded(incidents));
+        });
+    }
+
+    /**
+     * Returns the ids of every cached incident. Blocks on disk, so call it from a
+     * background thread such as a Worker.
+     */
+    public Set<String> loadIdsBlocking() {
+        Set<String> ids = new HashSet<>();
+        try (Cursor cursor = databaseHelper.getReadableDatabase().query(TABLE_INCIDENTS, new String[]{COL_ID},
+                null, null, null, null, null)) {
+            while (cursor.moveToNext()) {
+                ids.add(cursor.getString(0));
+            }
+        }
+        return ids;
+    }
+
+    public void load(String incidentId, IncidentLoadedCallback callback) {
+        diskExecutor.execute(() -> {
+            IncidentReport incident = null;
+            try (Cursor cursor = databaseHelper.getReadableDatabase().query(TABLE_INCIDENTS, DETAIL_COLUMNS,
+                    COL_ID + " = ?", new String[]{incidentId}, null, null, null)) {
+                if (cursor.moveToFirst()) {
+                    incident = readIncident(cursor);
+                }
+            }
+            IncidentReport result = incident;
+            mainHandler.post(() -> callback.onLoaded(result));
+        });
+    }
+
+    /**
+     * Replaces the cached list with a fresh server snapshot. Full descriptions already
+     * cached for incidents that are still in the list, and unchanged since, are kept.
+     */
+    public void replaceAll(List<IncidentSummary> incidents) {
+        List<IncidentSummary> copy = new ArrayList<>(incidents);
+        diskExecutor.execute(() -> {
+            SQLiteDatabase db = databaseHelper.getWritableDatabase();
+            SQLiteStatement update = db.compileStatement(SQL_UPDATE_SUMMARY);
+            db.beginTransaction();
+            try {
+                Set<String> keep = new HashSet<>();
+                for (IncidentSummary incident : copy) {
+                    keep.add(incident.getId());
+                    writeSummary(db, update, incident);
+                }
+                List<String> stale = new ArrayList<>();
+                try (Cursor cursor = db.query(TABLE_INCIDENTS, new String[]{COL_ID}, null, null, null, null, null)) {
+                    while (cursor.moveToNext()) {
+                        if (!keep.contains(cursor.getString(0))) {
+                            stale.add(cursor.getString(0));
+                        }
+                    }
+                }
+                for (String id : stale) {
+                    db.delete(TABLE_INCIDENTS, COL_ID + " = ?", new String[]{id});
+                }
+                db.setTransactionSuccessful();
+            } finally {
+                db.endTransaction();
+                update.close();
+            }
+        });
+    }
+
+    public void upsert(List<IncidentSummary> incidents) {
+        List<IncidentSummary> copy = new ArrayList<>(incidents);
+        diskExecutor.execute(() -> {
+            SQLiteDatabase db = databaseHelper.getWritableDatabase();
+            SQLiteStatement update = db.compileStatement(SQL_UPDATE_SUMMARY);
+            db.beginTransaction();
+            try {
+                for (IncidentSummary incident : copy) {
+                    writeSummary(db, update, incident);
+                }
+                db.setTransactionSuccessful();
+            } finally {
+                db.endTransaction();
+                update.close();
+            }
+        });
+    }
+
+    /**
+     * Stores a full record, overwriting whatever summary was cached for it.
+     */
+    public void upsert(IncidentReport incident) {
+        diskExecutor.execute(() -> databaseHelper.getWritableDatabase()
+                .insertWithOnConflict(TABLE_INCIDENTS, null, toValues(incident), SQLiteDatabase.CONFLICT_REPLACE));
+    }
+
+    public void delete(String incidentId) {
+        diskExecutor.execute(() -> databaseHelper.getWritableDatabase()
+                .delete(TABLE_INCIDENTS, COL_ID + " = ?", new String[]{incidentId}));
+    }
+
+    /**
+     * Overwrites the cached status of one incident, e.g. to show a queued change.
+     */
+    public void updateStatus(String incidentId, String status) {
+        diskExecutor.execute(() -> {
+            ContentValues values = new ContentValues();
+            values.put(COL_STATUS, status);
+            databaseHelper.getWritableDatabase()
+                    .update(TABLE_INCIDENTS, values, COL_ID + " = ?", new String[]{incidentId});
+        });
+    }
+
+    /**
+     * Stores a status change that still has to reach the server. A later change to the
+     * same incident replaces the earlier one, so each incident has at most one entry.
+     */
+    public void savePendingStatus(String incidentId, String status) {
+        diskExecutor.execute(() -> {
+            ContentValues values = new ContentValues();
+            values.put(COL_INCIDENT_ID, incidentId);
+            values.put(COL_STATUS, status);
+            values.put(COL_QUEUED_AT, System.currentTimeMillis());
+            databaseHelper.getWritableDatabase()
+                    .insertWithOnConflict(TABLE_PENDING_STATUS, null, values, SQLiteDatabase.CONFLICT_REPLACE);
+        });
+    }
+
+    public void loadPendingStatuses(PendingStatusesLoadedCallback callback) {
+        diskExecutor.execute(() -> {
+            Map<String, String> pending = new LinkedHashMap<>();
+            try (Cursor cursor = databaseHelper.getReadableDatabase().query(TABLE_PENDING_STATUS,
+                    new String[]{COL_INCIDENT_ID, COL_STATUS}, null, null, null, null, COL_QUEUED_AT)) {
+                while (cursor.moveToNext()) {
+                    pending.put(cursor.getString(0), cursor.getString(1));
+                }
+            }
+            mainHandler.post(() -> callback.onLoaded(pending));
+        });
+    }
+
+    /**
+     * Removes a pending change once the server has it. The status must match so a newer
+     * change queued while the flush was in flight is kept.
+     */
+    public void deletePendingStatus(String incidentId, String status) {
+        diskExecutor.execute(() -> databaseHelper.getWritableDatabase().delete(TABLE_PENDING_STATUS,
+                COL_INCIDENT_ID + " = ? AND " + COL_STATUS + " = ?", new String[]{incidentId, status}));
+    }
+
+    /**
+     * Drops every cached record and queued change, e.g. on logout so the next responder
+     * starts clean.
+     */
+    public void clear() {
+        diskExecutor.execute(() -> {
+            SQLiteDatabase db = databaseHelper.getWritableDatabase();
+            db.delete(TABLE_INCIDENTS, null, null);
+            db.delete(TABLE_PENDING_STATUS, null, null);
+        });
+    }
+
+    /**
+     * Updates the summary columns of an existing row, or inserts a summary-only row.
+     * The update statement is compiled once per transaction and reused for every row.
+     */
+    private static void writeSummary(SQLiteDatabase db, SQLiteStatement update, IncidentSummary incident) {
+        update.clearBindings();
+        bindNullable(update, 1, incident.getCollectionId());
+        bindNullable(update, 2, incident.getType());
+        bindNullable(update, 3, incident.getDescription());
+        bindNullable(update, 4, incident.getStatus());
+        bindNullable(update, 5, incident.getCreated());
+        bindNullable(update, 6, incident.getUpdated());
+        bindCoordinate(update, 7, incident.getLatitude());
+        bindCoordinate(update, 8, incident.getLongitude());
+        bindNullable(update, 9, incident.getAddress());
+        bindNullable(update, 10, incident.getImageFileName());
+        update.bindString(11, incident.getId());
+        if (update.executeUpdateDelete() > 0) {
+            return;
+        }
+        ContentValues values = new ContentValues();
+        values.put(COL_ID, incident.getId());
+        values.put(COL_COLLECTION_ID, incident.getCollectionId());
+        values.put(COL_TYPE, incident.getType());
+        values.put(COL_DESCRIPTION, incident.getDescription());
+        values.put(COL_STATUS, incident.getStatus());
+        values.put(COL_CREATED, incident.getCreated());
+        values.put(COL_UPDATED, incident.getUpdated());
+        putCoordinate(values, COL_LATITUDE, incident.getLatitude());
+        putCoordinate(values, COL_LONGITUDE, incident.getLongitude());
+        values.put(COL_ADDRESS, incident.getAddress());
+        values.put(COL_IMAGE, incident.getImageFileName());
+        values.put(COL_HAS_DETAIL, 0);
+        db.insert(TABLE_INCIDENTS, null, values);
+    }
+
+    private static void bindNullable(SQLiteStatement statement, int index, String value) {
+        if (value == null) {
+            statement.bindNull(index);
+        } else {
+            statement.bindString(index, value);
+        }
+    }
+
+    private static void bindCoordinate(SQLiteStatement statement, int index, double value) {
+        if (Double.isNaN(value)) {
+            statement.bindNull(index);
+        } else {
+            statement.bindDouble(index, value);
+        }
+    }
+
+    private static void putCoordinate(ContentValues values, String column, double value) {
+        if (Double.isNaN(value)) {
+            values.putNull(column);
+        } else {
+            values.put(column, value);
+        }
+    }
+
+    private static ContentValues toValues(IncidentReport incident) {
+        ContentValues values = new ContentValues();
+        values.put(COL_ID, incident.getId());
+        values.put(COL_COLLECTION_ID, incident.getCollectionId());
+        values.put(COL_TYPE, incident.getType());
+        values.put(COL_DESCRIPTION, incident.getDescription());
+        values.put(COL_STATUS, incident.getStatus());
+        values.put(COL_CREATED, incident.getCreated());
+        values.put(COL_UPDATED, incident.getUpdated());
+        putCoordinate(values, COL_LATITUDE, incident.getLatitude());
+        putCoordinate(values, COL_LONGITUDE, incident.getLongitude());
+        values.put(COL_ADDRESS, incident.getAddress());
+        values.put(COL_IMAGE, incident.getImageFileName());
+        values.put(COL_HAS_DETAIL, 1);
+        return values;
+    }
+
+    private static IncidentSummary readSummary(Cursor cursor) {
+        return new IncidentSummary(
+                cursor.getString(0),
+                cursor.getString(1),
+                cursor.getString(2),
+                cursor.getString(3),
+                cursor.getString(4),
+                cursor.getString(5),
+                cursor.getString(6),
+                readCoordinate(cursor, 7),
+                readCoordinate(cursor, 8),
+                emptyIfNull(cursor.getString(9)),
+                emptyIfNull(cursor.getString(10)));
+    }
+
+    private static IncidentReport readIncident(Cursor cursor) {
+        return new IncidentReport(
+                cursor.getString(0),
+                cursor.getString(1),
+                cursor.getString(2),
+                cursor.getString(3),
+                cursor.getString(4),
+                cursor.getString(5),
+                cursor.getString(6),
+                readCoordinate(cursor, 7),
+                readCoordinate(cursor, 8),
+                emptyIfNull(cursor.getString(9)),
+                emptyIfNull(cursor.getString(10)));
+    }
+
+    /**
+     * The columns are TEXT from before coordinates were parsed; older rows hold the
+     * server's string, newer ones a number, and both read back through the parser.
+     */
+    private static double readCoordinate(Cursor cursor, int index) {
+        return cursor.isNull(index) ? Double.NaN : IncidentSummary.parseCoordinate(cursor.getString(index));
+    }
+
+    private static String emptyIfNull(String value) {
+        return value != null ? value : "";
+    }
+
+    private static class DatabaseHelper extends SQLiteOpenHelper {
+        DatabaseHelper(Context context) {
+            super(context, DB_NAME, null, DB_VERSION);
+        }
+
+        @Override
+        public void onCreate(SQLiteDatabase db) {
+            db.execSQL("CREATE TABLE " + TABLE_INCIDENTS + " ("
+                    + COL_ID + " TEXT PRIMARY KEY, "
+                    + COL_COLLECTION_ID + " TEXT, "
+                    + COL_TYPE + " TEXT, "
+                    + COL_DESCRIPTION + " TEXT, "
+                    + COL_STATUS + " TEXT, "
+                    + COL_CREATED + " TEXT, "
+                    + COL_UPDATED + " TEXT, "
+                    + COL_LATITUDE + " TEXT, "
+                    + COL_LONGITUDE + " TEXT, "
+                    + COL_ADDRESS + " TEXT, "
+                    + COL_IMAGE + " TEXT, "
+                    + COL_HAS_DETAIL + " INTEGER NOT NULL DEFAULT 0)");
+            createPendingStatusTable(db);
+        }
+
+        @Override
+        public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+            if (oldVersion < 2) {
+                createPendingStatusTable(db);
+            }
+            if (oldVersion < 3) {
+                db.execSQL("ALTER TABLE " + TABLE_INCIDENTS + " ADD COLUMN "
+                        + COL_HAS_DETAIL + " INTEGER NOT NULL DEFAULT 0");
+            }
+        }
+
+        private static void createPendingStatusTable(SQLiteDatabase db) {
+            db.execSQL("CREATE TABLE " + TABLE_PENDING_STATUS + " ("
+                    + COL_INCIDENT_ID + " TEXT PRIMARY KEY, "
+                    + COL_STATUS + " TEXT NOT NULL, "
+                    + COL_QUEUED_AT + " INTEGER NOT NULL)");
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.incidentreports;
+
+import android.util.LruCache;
+
+import java.util.List;
+
+/**
+ * Process-wide LRU of the most recently seen incidents, keyed by id. List responses fill
+ * it with summaries, detail fetches upgrade entries to full {@link IncidentReport}s, and
+ * local writes patch entries in place so the detail screen can render without waiting.
+ */
+public class IncidentMemoryCache {
+    private static final int MAX_ENTRIES = 200;
+
+    private static IncidentMemoryCache instance;
+
+    private final LruCache<String, IncidentSummary> entries = new LruCache<>(MAX_ENTRIES);
+
+    private IncidentMemoryCache() {
+    }
+
+    public static synchronized IncidentMemoryCache getInstance() {
+        if (instance == null) {
+            instance = new IncidentMemoryCache();
+        }
+        return instance;
+    }
+
+    /**
+     * Returns the cached record, which is an {@link IncidentReport} once the detail has
+     * been fetched, or null if the incident is not cached.
+     */
+    public IncidentSummary get(String incidentId) {
+        return entries.get(incidentId);
+    }
+
+    /**
+     * Returns the cached detail record if it is at the same revision as the given record.
+     */
+    public IncidentReport getReport(IncidentSummary current) {
+        IncidentSummary cached = entries.get(current.getId());
+        if (cached instanceof IncidentReport && cached.isSameRevision(current)) {
+            return (IncidentReport) cached;
+        }
+        return null;
+    }
+
+    public void put(IncidentReport incident) {
+        entries.put(incident.getId(), incident);
+    }
+
+    /**
+     * Stores a list record. A cached detail record at the same revision is kept, since
+     * the summary carries less; a newer summary replaces it.
+     */
+    public void put(IncidentSummary incident) {
+        if (getReport(incident) == null) {
+            entries.put(incident.getId(), incident);
+        }
+    }
+
+    public void putAll(List<IncidentSummary> incidents) {
+        for (IncidentSummary incident : incidents) {
+            put(incident);
+        }
+    }
+
+    public void updateStatus(String incidentId, String status) {
+        IncidentSummary cached = entries.get(incidentId);
+        if (cached != null) {
+            entries.put(incidentId, cached.withStatus(status));
+        }
+    }
+
+    public void remove(String incidentId) {
+        entries.remove(incidentId);
+    }
+
+    public void clear() {
+        entries.evictAll();
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.incidentreports;
+
+import android.net.Uri;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import com.android.volley.AuthFailureError;
+import com.android.volley.NetworkResponse;
+import com.android.volley.ParseError;
+import com.android.volley.Request;
+import com.android.volley.Response;
+import com.android.volley.toolbox.HttpHeaderParser;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Authenticated GET for an incident list page that decodes the response with
+ * {@link IncidentJsonParser} on Volley's network thread instead of going through
+ * JsonObjectRequest's String and JSONObject copies.
+ */
+class IncidentPageRequest extends Request<List<IncidentSummary>> {
+    private static final String TAG = "IncidentPageRequest";
+
+    private final String token;
+    private final Response.Listener<List<IncidentSummary>> listener;
+
+    IncidentPageRequest(String url,
+                        String token,
+                        Response.Listener<List<IncidentSummary>> listener,
+                        Response.ErrorListener errorListener) {
+        super(Request.Method.GET, url, errorListener);
+        this.token = token;
+        this.listener = listener;
+    }
+
+    @Override
+    protected Response<List<IncidentSummary>> parseNetworkResponse(NetworkResponse response) {
+        Log.d(TAG, "Received " + response.data.length + " bytes for " + Uri.parse(getUrl()).getPath());
+        long parseStart = SystemClock.elapsedRealtime();
+        try {
+            List<IncidentSummary> items = IncidentJsonParser.readSummaryPage(new ByteArrayInputStream(response.data));
+            ApiMetrics.recordParse(this, parseStart, false);
+            return Response.success(items, HttpHeaderParser.parseCacheHeaders(response));
+        } catch (IOException | IllegalStateException e) {
+            ApiMetrics.recordParse(this, parseStart, true);
+            return Response.error(new ParseError(e));
+        }
+    }
+
+    @Override
+    protected void deliverResponse(List<IncidentSummary> response) {
+        listener.onResponse(response);
+    }
+
+    @NonNull
+    @Override
+    public Map<String, String> getHeaders() throws AuthFailureError {
+        Map<String, String> headers = new HashMap<>(super.getHeaders());
+        headers.put("Authorization", "Bearer " + token);
+        return headers;
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.incidentreports;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Loads an incident query (the responder's assigned list, or a dispatcher's filtered
+ * view) one PocketBase page at a time so the first rows can render before the rest of
+ * the backlog has been downloaded.
+ */
+public class IncidentPager {
+    public interface Listener {
+        /**
+         * Called with the pages loaded so far after a refresh; replaces the list.
+         */
+        void onRefreshed(List<IncidentSummary> incidents);
+
+        /**
+         * Called with the next page after a scroll-triggered load; appends to the list.
+         */
+        void onPageAppended(List<IncidentSummary> incidents);
+
+        void onError(String message, boolean refreshing);
+    }
+
+    private final PocketBaseApiHelper apiHelper;
+    private final String token;
+    private final IncidentQuery query;
+    private final int pageSize;
+    private final Listener listener;
+
+    private int loadedPages = 0;
+    private boolean hasMore = true;
+    private boolean loading = false;
+    // Bumped on every refresh so a page load started before it is ignored.
+    private int generation = 0;
+
+    public IncidentPager(PocketBaseApiHelper apiHelper, String token, IncidentQuery query, int pageSize, Listener listener) {
+        this.apiHelper = apiHelper;
+        this.token = token;
+        this.query = query;
+        this.pageSize = pageSize;
+        this.listener = listener;
+    }
+
+    /**
+     * Reloads every page the user has already scrolled through, or just the first
+     * page if nothing has been loaded yet.
+     */
+    public void refresh() {
+        generation++;
+        loading = true;
+        loadRefreshPage(generation, 1, Math.max(loadedPages, 1), new ArrayList<>());
+    }
+
+    /**
+     * Loads the page after the last one loaded, unless a load is already running or
+     * the previous page came back short.
+     */
+    public void loadNextPage() {
+        if (loading || !hasMore || loadedPages == 0) {
+            return;
+        }
+        loading = true;
+        int requestGeneration = generation;
+        int page = loadedPages + 1;
+        apiHelper.queryIncidents(token, query, page, pageSize, new PocketBaseApiHelper.IncidentPageCallback() {
+            @Override
+            public void onSuccess(List<IncidentSummary> incidents, boolean more) {
+                if (requestGeneration != generation) {
+                    return;
+                }
+                loading = false;
+                loadedPages = page;
+                hasMore = more;
+                listener.onPageAppended(incidents);
+            }
+
+            @Override
+            public void onError(String message) {
+                if (requestGeneration != generation) {
+                    return;
+                }
+                loading = false;
+                listener.onError(message, false);
+            }
+        });
+    }
+
+    public IncidentQuery getQuery() {
+        return query;
+    }
+
+    /**
+     * Pages loaded so far, for callers that keep the result to resume from later.
+     */
+    public int getLoadedPages() {
+        return loadedPages;
+    }
+
+    /**
+     * Continues from a result kept earlier, so the next scroll loads the page after it.
+     */
+    public void restore(int loadedPages, boolean hasMore) {
+        this.loadedPages = loadedPages;
+        this.hasMore = hasMore;
+    }
+
+    public boolean isLoading() {
+        return loading;
+    }
+
+    public boolean hasMore() {
+        return hasMore;
+    }
+
+    private void loadRefreshPage(int requestGeneration, int page, int lastPage, List<IncidentSummary> collected) {
+        apiHelper.queryIncidents(token, query, page, pageSize, new PocketBaseApiHelper.IncidentPageCallback() {
+            @Override
+            public void onSuccess(List<IncidentSummary> incidents, boolean more) {
+                if (requestGeneration != generation) {
+                    return;
+                }
+                collected.addAll(incidents);
+                if (more && page < lastPage) {
+                    loadRefreshPage(requestGeneration, page + 1, lastPage, collected);
+                    return;
+                }
+                loading = false;
+                loadedPages = page;
+                hasMore = more;
+                listener.onRefreshed(collected);
+            }
+
+            @Override
+            public void onError(String message) {
+                if (requestGeneration != generation) {
+                    return;
+                }
+                loading = false;
+                listener.onError(message, true);
+            }
+        });
+    }
+}
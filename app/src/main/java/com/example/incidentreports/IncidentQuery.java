@@ -0,0 +1,239 @@
+package com.example.incidentreports;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * A server-side query over incident_reports: which records (assignment, status, type,
+ * creation window, text) and in which order. Turned into a PocketBase filter by
+ * {@link #toFilter()}; {@link #getCacheKey()} is the same for equal queries however they
+ * were built, and for a relative creation window whenever it is asked.
+ *
+ * <p>The equality and range clauses are meant to hit indexes on the collection
+ * (status, type, created, and the responders relation); the text search is a LIKE match
+ * and only runs over the rows those clauses leave. There is no location clause: latitude
+ * and longitude are text fields, which the server would compare as strings, so distance
+ * filtering stays on the device in {@link IncidentGeoIndex}.
+ */
+public class IncidentQuery {
+    public static final String SORT_NEWEST = "-created";
+    public static final String SORT_RECENTLY_UPDATED = "-updated";
+    public static final String SORT_OLDEST = "created";
+
+    private final String responderId;
+    private final TreeSet<String> statuses;
+    private final TreeSet<String> types;
+    private final String createdFrom;
+    private final long createdWithinMs;
+    private final String createdTo;
+    private final String updatedSince;
+    private final String search;
+    private final String sort;
+
+    private IncidentQuery(Builder builder) {
+        responderId = builder.responderId;
+        statuses = new TreeSet<>(builder.statuses);
+        types = new TreeSet<>(builder.types);
+        createdFrom = builder.createdFrom;
+        createdWithinMs = builder.createdWithinMs;
+        createdTo = builder.createdTo;
+        updatedSince = builder.updatedSince;
+        search = builder.search;
+        sort = builder.sort;
+    }
+
+    /**
+     * The responder's own list: everything assigned to them, newest first.
+     */
+    public static IncidentQuery assignedTo(String responderId) {
+        return new Builder().assignedTo(responderId).build();
+    }
+
+    public Builder buildUpon() {
+        Builder builder = new Builder();
+        builder.responderId = responderId;
+        builder.statuses.addAll(statuses);
+        builder.types.addAll(types);
+        builder.createdFrom = createdFrom;
+        builder.createdWithinMs = createdWithinMs;
+        builder.createdTo = createdTo;
+        builder.updatedSince = updatedSince;
+        builder.search = search;
+        builder.sort = sort;
+        return builder;
+    }
+
+    public String getSort() {
+        return sort;
+    }
+
+    /**
+     * PocketBase filter expression, or an empty string for "every record". A relative
+     * creation window is anchored at the current whole minute.
+     */
+    public String toFilter() {
+        return filter(false);
+    }
+
+    public String getCacheKey() {
+        return sort + "|" + filter(true);
+    }
+
+    /**
+     * @param forKey write a relative creation window as its length rather than a date, so
+     *               the key stays the same as time passes
+     */
+    private String filter(boolean forKey) {
+        List<String> clauses = new ArrayList<>();
+        if (responderId != null) {
+            // ?= is the standard PocketBase operator for relation fields.
+            clauses.add("responders ?= " + quote(responderId));
+        }
+        if (!statuses.isEmpty()) {
+            clauses.add(anyOf("status", statuses));
+        }
+        if (!types.isEmpty()) {
+            clauses.add(anyOf("type", types));
+        }
+        if (createdFrom != null) {
+            clauses.add("created >= " + quote(createdFrom));
+        } else if (createdWithinMs > 0) {
+            long minute = System.currentTimeMillis() / 60000 * 60000;
+            clauses.add("created >= " + (forKey ? "@now-" + createdWithinMs + "ms"
+                    : quote(PocketBaseTime.format(minute - createdWithinMs))));
+        }
+        if (createdTo != null) {
+            clauses.add("created < " + quote(createdTo));
+        }
+        if (updatedSince != null) {
+            clauses.add("updated > " + quote(updatedSince));
+        }
+        if (search != null) {
+            String term = quote(search);
+            clauses.add("(description ~ " + term + " || address ~ " + term + ")");
+        }
+        StringBuilder filter = new StringBuilder();
+        for (String clause : clauses) {
+            if (filter.length() > 0) filter.append(" && ");
+            filter.append(clause);
+        }
+        return filter.toString();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof IncidentQuery && getCacheKey().equals(((IncidentQuery) o).getCacheKey());
+    }
+
+    @Override
+    public int hashCode() {
+        return getCacheKey().hashCode();
+    }
+
+    private static String anyOf(String field, Collection<String> values) {
+        StringBuilder clause = new StringBuilder("(");
+        for (String value : values) {
+            if (clause.length() > 1) clause.append(" || ");
+            clause.append(field).append(" = ").append(quote(value));
+        }
+        return clause.append(")").toString();
+    }
+
+    /**
+     * PocketBase string literal; backslashes and double quotes are escaped.
+     */
+    private static String quote(String value) {
+        return "\"" + value.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+    }
+
+    /**
+     * PocketBase's datetime format, which is also what "created" and "updated" compare against.
+     */
+    static String formatTimestamp(Date date) {
+        return PocketBaseTime.format(date.getTime());
+    }
+
+    public static class Builder {
+        private String responderId;
+        private final TreeSet<String> statuses = new TreeSet<>();
+        private final TreeSet<String> types = new TreeSet<>();
+        private String createdFrom;
+        private long createdWithinMs;
+        private String createdTo;
+        private String updatedSince;
+        private String search;
+        private String sort = SORT_NEWEST;
+
+        public Builder assignedTo(String responderId) {
+            this.responderId = responderId;
+            return this;
+        }
+
+        /**
+         * Keeps records in any of the given statuses; no statuses means every status.
+         */
+        public Builder statuses(Collection<String> statuses) {
+            this.statuses.clear();
+            this.statuses.addAll(statuses);
+            return this;
+        }
+
+        public Builder types(Collection<String> types) {
+            this.types.clear();
+            this.types.addAll(types);
+            return this;
+        }
+
+        /**
+         * Records created at or after from and before to; either may be null for an open end.
+         */
+        public Builder createdBetween(Date from, Date to) {
+            createdFrom = from != null ? formatTimestamp(from) : null;
+            createdWithinMs = 0;
+            createdTo = to != null ? formatTimestamp(to) : null;
+            return this;
+        }
+
+        /**
+         * Records created in the last periodMs, measured from whenever the query is sent.
+         * With newest-first paging the window's moving edge only drops rows from the end,
+         * so later pages do not skip any.
+         */
+        public Builder createdWithinLast(long periodMs) {
+            createdFrom = null;
+            createdWithinMs = periodMs;
+            createdTo = null;
+            return this;
+        }
+
+        /**
+         * Records updated after the given PocketBase timestamp. Exclusive, so a delta from
+         * the newest record already held does not fetch that record again.
+         */
+        public Builder updatedSince(String timestamp) {
+            updatedSince = timestamp != null && !timestamp.isEmpty() ? timestamp : null;
+            return this;
+        }
+
+        /**
+         * Case-insensitive substring match on description or address; blank clears it.
+         */
+        public Builder search(String text) {
+            String trimmed = text != null ? text.trim() : "";
+            search = trimmed.isEmpty() ? null : trimmed;
+            return this;
+        }
+
+        public Builder sort(String sort) {
+            this.sort = sort;
+            return this;
+        }
+
+        public IncidentQuery build() {
+            return new IncidentQuery(this);
+        }
+    }
+}
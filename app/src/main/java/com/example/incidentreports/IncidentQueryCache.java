@@ -0,0 +1,87 @@
+package com.example.incidentreports;
+
+import android.os.SystemClock;
+import android.util.LruCache;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Process-wide LRU of query results, keyed by {@link IncidentQuery#getCacheKey()}. Going
+ * back to a filter combination shows its rows at once while they are revalidated;
+ * writes mark every entry stale rather than dropping it.
+ */
+public class IncidentQueryCache {
+    private static final int MAX_QUERIES = 16;
+    // Results younger than this are shown without asking the server again.
+    private static final long FRESH_FOR_MS = 60 * 1000;
+
+    private static IncidentQueryCache instance;
+
+    private final LruCache<String, Entry> entries = new LruCache<>(MAX_QUERIES);
+
+    public static class Entry {
+        private final List<IncidentSummary> incidents;
+        private final int loadedPages;
+        private final boolean hasMore;
+        private final long fetchedAtMs;
+
+        Entry(List<IncidentSummary> incidents, int loadedPages, boolean hasMore, long fetchedAtMs) {
+            this.incidents = incidents;
+            this.loadedPages = loadedPages;
+            this.hasMore = hasMore;
+            this.fetchedAtMs = fetchedAtMs;
+        }
+
+        public List<IncidentSummary> getIncidents() {
+            return incidents;
+        }
+
+        public int getLoadedPages() {
+            return loadedPages;
+        }
+
+        public boolean hasMore() {
+            return hasMore;
+        }
+
+        public boolean isFresh() {
+            return fetchedAtMs > 0 && SystemClock.elapsedRealtime() - fetchedAtMs < FRESH_FOR_MS;
+        }
+    }
+
+    private IncidentQueryCache() {
+    }
+
+    public static synchronized IncidentQueryCache getInstance() {
+        if (instance == null) {
+            instance = new IncidentQueryCache();
+        }
+        return instance;
+    }
+
+    public Entry get(IncidentQuery query) {
+        return entries.get(query.getCacheKey());
+    }
+
+    public void put(IncidentQuery query, List<IncidentSummary> incidents, int loadedPages, boolean hasMore) {
+        entries.put(query.getCacheKey(),
+                new Entry(new ArrayList<>(incidents), loadedPages, hasMore, SystemClock.elapsedRealtime()));
+    }
+
+    /**
+     * Keeps every entry for instant display but forces a server check on next use.
+     */
+    public synchronized void invalidateAll() {
+        for (String key : entries.snapshot().keySet()) {
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                entries.put(key, new Entry(entry.incidents, entry.loadedPages, entry.hasMore, 0));
+            }
+        }
+    }
+
+    public void clear() {
+        entries.evictAll();
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.incidentreports;
+
+import java.util.Locale;
+
+/**
+ * The status of an incident_reports record. Records hold one of these shared constants
+ * instead of their own copy of the server's string, and the list row reads its label and
+ * colour from here instead of case-folding on every bind.
+ */
+public enum IncidentStatus {
+    PENDING("pending", R.color.status_pending),
+    ONGOING("ongoing", R.color.status_ongoing),
+    RESOLVED("resolved", R.color.status_resolved),
+    UNKNOWN("unknown", R.color.text_label);
+
+    // values() copies the array on every call.
+    private static final IncidentStatus[] ALL = values();
+
+    private final String value;
+    private final String label;
+    private final int colorRes;
+
+    IncidentStatus(String value, int colorRes) {
+        this.value = value;
+        this.label = value.toUpperCase(Locale.ROOT);
+        this.colorRes = colorRes;
+    }
+
+    /**
+     * The value PocketBase stores, e.g. "pending".
+     */
+    public String getValue() {
+        return value;
+    }
+
+    /**
+     * Upper-case label shown on the list row.
+     */
+    public String getLabel() {
+        return label;
+    }
+
+    public int getColorRes() {
+        return colorRes;
+    }
+
+    public static IncidentStatus fromValue(String value) {
+        if (value == null) {
+            return UNKNOWN;
+        }
+        for (IncidentStatus status : ALL) {
+            if (status.value.equalsIgnoreCase(value)) {
+                return status;
+            }
+        }
+        return UNKNOWN;
+    }
+}
@@ -0,0 +1,266 @@
+package com.example.incidentreports;
+
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * The fields of an incident_reports record that the list row and its search need. List
+ * requests project to these fields only, with the description cut to an excerpt; the
+ * full record is an {@link IncidentReport}.
+ *
+ * <p>Decoded into a compact form once, when the record is read: the status is an
+ * {@link IncidentStatus}, timestamps are epoch milliseconds, coordinates are doubles,
+ * and the collection id and type, which repeat across every record, are interned.
+ * Decoding is not lossy: a status the enum does not know or spells differently, such as
+ * "Pending", and a timestamp that does not parse are kept as the server sent them and
+ * written back unchanged.
+ */
+public class IncidentSummary {
+    private final String id;
+    private final String collectionId;
+    private final String type;
+    private final String description;
+    private final IncidentStatus status;
+    // The server's value when status is UNKNOWN or the value differs from the enum's, e.g.
+    // in case; otherwise null.
+    private final String statusText;
+    private final long createdAtMs;
+    private final long updatedAtMs;
+    // The server's text when it did not parse to a time, otherwise null.
+    private final String unparsedCreated;
+    private final String unparsedUpdated;
+    // Degrees, parsed once when the record is read; NaN when the record has no location.
+    private final double latitude;
+    private final double longitude;
+    private final String address;
+    private final String imageFileName;
+
+    public IncidentSummary(String id,
+                           String collectionId,
+                           String type,
+                           String description,
+                           String status,
+                           String created,
+                           String updated,
+                           double latitude,
+                           double longitude,
+                           String address,
+                           String imageFileName) {
+        this(id, intern(collectionId), intern(type), description, IncidentStatus.fromValue(status), status,
+                PocketBaseTime.parse(created), created, PocketBaseTime.parse(updated), updated,
+                latitude, longitude, address, imageFileName);
+    }
+
+    /**
+     * Takes decoded values. The status and timestamp texts are only kept when they did
+     * not decode exactly: for a status other than the enum's value, or a time of 0 from a
+     * non-empty string.
+     */
+    IncidentSummary(String id,
+                    String collectionId,
+                    String type,
+                    String description,
+                    IncidentStatus status,
+                    String statusValue,
+                    long createdAtMs,
+                    String createdText,
+                    long updatedAtMs,
+                    String updatedText,
+                    double latitude,
+                    double longitude,
+                    String address,
+                    String imageFileName) {
+        this.id = id;
+        this.collectionId = collectionId;
+        this.type = type;
+        this.description = description;
+        this.status = status;
+        this.statusText = status == IncidentStatus.UNKNOWN || !status.getValue().equals(statusValue) ? statusValue : null;
+        this.createdAtMs = createdAtMs;
+        this.updatedAtMs = updatedAtMs;
+        this.unparsedCreated = unparsed(createdAtMs, createdText);
+        this.unparsedUpdated = unparsed(updatedAtMs, updatedText);
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.address = address;
+        this.imageFileName = imageFileName;
+    }
+
+    /**
+     * Copies a record with only the status replaced.
+     */
+    IncidentSummary(IncidentSummary source, String statusValue) {
+        this(source.id, source.collectionId, source.type, source.description, IncidentStatus.fromValue(statusValue),
+                statusValue, source.createdAtMs, source.unparsedCreated, source.updatedAtMs, source.unparsedUpdated,
+                source.latitude, source.longitude, source.address, source.imageFileName);
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getCollectionId() {
+        return collectionId;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    /**
+     * The status as PocketBase stores it, e.g. "pending".
+     */
+    public String getStatus() {
+        return statusText != null || status == IncidentStatus.UNKNOWN ? statusText : status.getValue();
+    }
+
+    /**
+     * Upper-case label for the list row; a status the app does not know shows as sent.
+     */
+    public String getStatusLabel() {
+        if (status == IncidentStatus.UNKNOWN && statusText != null && !statusText.isEmpty()) {
+            return statusText.toUpperCase(Locale.ROOT);
+        }
+        return status.getLabel();
+    }
+
+    public IncidentStatus getIncidentStatus() {
+        return status;
+    }
+
+    public long getCreatedAtMs() {
+        return createdAtMs;
+    }
+
+    public long getUpdatedAtMs() {
+        return updatedAtMs;
+    }
+
+    /**
+     * The creation time in PocketBase's format, e.g. for the detail screen or the disk cache.
+     */
+    public String getCreated() {
+        return unparsedCreated != null ? unparsedCreated : PocketBaseTime.format(createdAtMs);
+    }
+
+    /**
+     * The last-modified time in PocketBase's format, e.g. for a server filter.
+     */
+    public String getUpdated() {
+        return unparsedUpdated != null ? unparsedUpdated : PocketBaseTime.format(updatedAtMs);
+    }
+
+    /**
+     * Whether both records are at the same server revision. Compares the "updated" value
+     * null-safely, including one kept as text because it did not parse.
+     */
+    public boolean isSameRevision(IncidentSummary other) {
+        return updatedAtMs == other.updatedAtMs && Objects.equals(unparsedUpdated, other.unparsedUpdated);
+    }
+
+    public double getLatitude() {
+        return latitude;
+    }
+
+    public double getLongitude() {
+        return longitude;
+    }
+
+    public boolean hasLocation() {
+        return !Double.isNaN(latitude) && !Double.isNaN(longitude);
+    }
+
+    public String getAddress() {
+        return address;
+    }
+
+    public String getImageFileName() {
+        return imageFileName;
+    }
+
+    public boolean hasImage() {
+        return imageFileName != null && !imageFileName.isEmpty();
+    }
+
+    /**
+     * Returns a copy with only the status replaced, used for optimistic updates.
+     */
+    public IncidentSummary withStatus(String newStatus) {
+        return new IncidentSummary(this, newStatus);
+    }
+
+    /**
+     * Whether the other record is this one with another status and nothing else changed.
+     * The "updated" time is ignored, since the server bumps it with every status change.
+     */
+    public boolean differsOnlyInStatus(IncidentSummary other) {
+        if (getClass() != other.getClass()) return false;
+        if (status == other.status && Objects.equals(statusText, other.statusText)) return false;
+        return createdAtMs == other.createdAtMs
+                && Objects.equals(unparsedCreated, other.unparsedCreated)
+                && Double.compare(latitude, other.latitude) == 0
+                && Double.compare(longitude, other.longitude) == 0
+                && Objects.equals(id, other.id)
+                && Objects.equals(collectionId, other.collectionId)
+                && Objects.equals(type, other.type)
+                && Objects.equals(description, other.description)
+                && Objects.equals(address, other.address)
+                && Objects.equals(imageFileName, other.imageFileName);
+    }
+
+    /**
+     * Reads a coordinate stored as text or number; anything unparseable is NaN.
+     */
+    static double parseCoordinate(String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return Double.NaN;
+        }
+        try {
+            return Double.parseDouble(value.trim());
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+
+    private static String unparsed(long epochMs, String text) {
+        return epochMs == 0 && text != null && !text.isEmpty() ? text : null;
+    }
+
+    /**
+     * Shares one instance of values that repeat across records.
+     */
+    static String intern(String value) {
+        return value != null ? value.intern() : null;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        IncidentSummary that = (IncidentSummary) o;
+        return createdAtMs == that.createdAtMs
+                && updatedAtMs == that.updatedAtMs
+                && status == that.status
+                && Objects.equals(statusText, that.statusText)
+                && Objects.equals(unparsedCreated, that.unparsedCreated)
+                && Objects.equals(unparsedUpdated, that.unparsedUpdated)
+                && Double.compare(latitude, that.latitude) == 0
+                && Double.compare(longitude, that.longitude) == 0
+                && Objects.equals(id, that.id)
+                && Objects.equals(collectionId, that.collectionId)
+                && Objects.equals(type, that.type)
+                && Objects.equals(description, that.description)
+                && Objects.equals(address, that.address)
+                && Objects.equals(imageFileName, that.imageFileName);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, collectionId, type, description, status, statusText, createdAtMs, updatedAtMs,
+                unparsedCreated, unparsedUpdated, latitude, longitude, address, imageFileName);
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.incidentreports;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Locally held set of assigned incidents, indexed by {@link IncidentIndex} for filtering,
+ * plus the high-water mark of their PocketBase "updated" timestamps used to ask the
+ * server only for changes.
+ */
+public class IncidentSyncStore {
+    private final IncidentIndex index = new IncidentIndex();
+    private long highWaterMarkMs = 0;
+
+    /**
+     * Replaces the whole set with a full server snapshot. Returns how many of the
+     * incidents were not known before. Only records that changed are re-indexed.
+     */
+    public int replaceAll(List<IncidentSummary> incidents) {
+        Set<String> ids = new HashSet<>();
+        for (IncidentSummary incident : incidents) {
+            ids.add(incident.getId());
+        }
+        index.retainAll(ids);
+        highWaterMarkMs = 0;
+        int added = 0;
+        for (IncidentSummary incident : incidents) {
+            if (put(incident)) {
+                added++;
+            }
+        }
+        return added;
+    }
+
+    /**
+     * Merges changed records into the set. Returns how many of them were not known before.
+     */
+    public int merge(List<IncidentSummary> changes) {
+        int added = 0;
+        for (IncidentSummary incident : changes) {
+            if (put(incident)) {
+                added++;
+            }
+        }
+        return added;
+    }
+
+    /**
+     * Inserts or replaces a single record. Returns true if it was not known before.
+     */
+    public boolean put(IncidentSummary incident) {
+        highWaterMarkMs = Math.max(highWaterMarkMs, incident.getUpdatedAtMs());
+        return index.put(incident);
+    }
+
+    public boolean remove(String incidentId) {
+        return index.remove(incidentId);
+    }
+
+    public void clear() {
+        index.clear();
+        highWaterMarkMs = 0;
+    }
+
+    /**
+     * Returns true if the given snapshot holds exactly the records already stored.
+     */
+    public boolean matches(List<IncidentSummary> incidents) {
+        if (incidents.size() != index.size()) {
+            return false;
+        }
+        for (IncidentSummary incident : incidents) {
+            if (!incident.equals(index.get(incident.getId()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public boolean contains(String incidentId) {
+        return index.contains(incidentId);
+    }
+
+    /**
+     * Returns the smallest creation time held, or 0 if the set is empty.
+     */
+    public long getOldestCreatedMs() {
+        IncidentSummary oldest = index.oldest();
+        return oldest != null ? oldest.getCreatedAtMs() : 0;
+    }
+
+    public boolean hasHighWaterMark() {
+        return highWaterMarkMs > 0;
+    }
+
+    /**
+     * The newest "updated" timestamp held, in PocketBase's format for a delta query.
+     */
+    public String getHighWaterMark() {
+        return PocketBaseTime.format(highWaterMarkMs);
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    /**
+     * Returns the incidents newest first, as the list screen shows them.
+     */
+    public List<IncidentSummary> snapshot() {
+        return index.all();
+    }
+
+    /**
+     * Returns the incidents matching the given statuses, types and search text, newest
+     * first. See {@link IncidentIndex#query}.
+     */
+    public List<IncidentSummary> query(Collection<String> statuses, Collection<String> types, String search) {
+        return index.query(statuses, types, search);
+    }
+
+    /**
+     * Re-ranks the incidents by distance from the responder. Returns true if the order changed.
+     */
+    public boolean rankFrom(double latitude, double longitude) {
+        return index.rankFrom(latitude, longitude);
+    }
+
+    public boolean hasRanking() {
+        return index.hasRanking();
+    }
+
+    /**
+     * The given incidents within radiusKm of the last ranked position, nearest first.
+     */
+    public List<IncidentSummary> nearest(List<IncidentSummary> incidents, double radiusKm) {
+        return index.nearest(incidents, radiusKm);
+    }
+}
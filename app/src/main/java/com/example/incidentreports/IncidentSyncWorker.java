@@ -0,0 +1,180 @@
+package com.example.incidentreports;
+
+import android.Manifest;
+import android.app.NotificationChannel;
+import android.app.NotificationManager;
+import android.app.PendingIntent;
+import android.content.ContentResolver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.pm.PackageManager;
+import android.media.AudioAttributes;
+import android.net.Uri;
+import android.os.Build;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.core.app.NotificationCompat;
+import androidx.core.app.NotificationManagerCompat;
+import androidx.core.content.ContextCompat;
+import androidx.work.Constraints;
+import androidx.work.ExistingPeriodicWorkPolicy;
+import androidx.work.NetworkType;
+import androidx.work.PeriodicWorkRequest;
+import androidx.work.WorkManager;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Background check for new assignments while the list screen is not visible. Fetches the
+ * newest page, compares it with the local cache and raises a notification, with the
+ * alert sound, for any incident the device has not seen yet.
+ */
+public class IncidentSyncWorker extends Worker {
+    private static final String TAG = "IncidentSyncWorker";
+    private static final String WORK_NAME = "incident_background_sync";
+    private static final String CHANNEL_ID = "new_incidents";
+    private static final int NOTIFICATION_ID = 1001;
+    // WorkManager does not run periodic work more often than every 15 minutes.
+    private static final long INTERVAL_MINUTES = 15;
+    private static final int PAGE_SIZE = 20;
+    // Covers RequestPolicy.LIST's three attempts and their backoff.
+    private static final long FETCH_TIMEOUT_SECONDS = 45;
+
+    public IncidentSyncWorker(@NonNull Context context, @NonNull WorkerParameters params) {
+        super(context, params);
+    }
+
+    public static void schedule(Context context) {
+        Constraints constraints = new Constraints.Builder()
+                .setRequiredNetworkType(NetworkType.CONNECTED)
+                .build();
+        PeriodicWorkRequest request = new PeriodicWorkRequest.Builder(
+                IncidentSyncWorker.class, INTERVAL_MINUTES, TimeUnit.MINUTES)
+                .setConstraints(constraints)
+                .build();
+        WorkManager.getInstance(context)
+                .enqueueUniquePeriodicWork(WORK_NAME, ExistingPeriodicWorkPolicy.KEEP, request);
+    }
+
+    public static void cancel(Context context) {
+        WorkManager.getInstance(context).cancelUniqueWork(WORK_NAME);
+    }
+
+    @NonNull
+    @Override
+    public Result doWork() {
+        if (TaskListActivity.isVisible()) {
+            // The foreground scheduler and the realtime stream already cover this.
+            return Result.success();
+        }
+        Context context = getApplicationContext();
+        SessionManager sessionManager = new SessionManager(context);
+        if (!sessionManager.isLoggedIn()) {
+            return Result.success();
+        }
+        if (PocketBaseClient.getInstance(context).getCircuitBreaker().getRemainingCooldownMs() > 0) {
+            // The server failed recently; WorkManager's backoff spaces out the next try.
+            return Result.retry();
+        }
+
+        // The client runs the call on the main thread and answers there, so this worker
+        // thread only waits; it never touches call state itself.
+        CountDownLatch done = new CountDownLatch(1);
+        AtomicReference<List<IncidentSummary>> fetched = new AtomicReference<>();
+        new PocketBaseApiHelper(context).fetchAssignedIncidentsPage(sessionManager.getToken(),
+                sessionManager.getUserId(), 1, PAGE_SIZE, new PocketBaseApiHelper.IncidentPageCallback() {
+                    @Override
+                    public void onSuccess(List<IncidentSummary> incidents, boolean hasMore) {
+                        fetched.set(incidents);
+                        done.countDown();
+                    }
+
+                    @Override
+                    public void onError(String message) {
+                        Log.w(TAG, "Background sync failed: " + message);
+                        done.countDown();
+                    }
+                });
+
+        try {
+            if (!done.await(FETCH_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                return Result.retry();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Result.retry();
+        }
+        List<IncidentSummary> incidents = fetched.get();
+        if (incidents == null) {
+            return Result.retry();
+        }
+
+        IncidentLocalStore localStore = IncidentLocalStore.getInstance(context);
+        Set<String> knownIds = localStore.loadIdsBlocking();
+        List<IncidentSummary> newIncidents = new ArrayList<>();
+        for (IncidentSummary incident : incidents) {
+            if (!knownIds.contains(incident.getId())) {
+                newIncidents.add(incident);
+            }
+        }
+        localStore.upsert(incidents);
+        Log.d(TAG, "Background sync: " + incidents.size() + " fetched, " + newIncidents.size() + " new");
+
+        if (!newIncidents.isEmpty()) {
+            notifyNewIncidents(context, newIncidents);
+        }
+        return Result.success();
+    }
+
+    private static void notifyNewIncidents(Context context, List<IncidentSummary> newIncidents) {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.TIRAMISU
+                && ContextCompat.checkSelfPermission(context, Manifest.permission.POST_NOTIFICATIONS)
+                != PackageManager.PERMISSION_GRANTED) {
+            return;
+        }
+        Uri sound = Uri.parse(ContentResolver.SCHEME_ANDROID_RESOURCE + "://"
+                + context.getPackageName() + "/" + R.raw.notification_sound);
+        createChannel(context, sound);
+
+        Intent intent = new Intent(context, TaskListActivity.class);
+        intent.setFlags(Intent.FLAG_ACTIVITY_NEW_TASK | Intent.FLAG_ACTIVITY_CLEAR_TOP);
+        PendingIntent contentIntent = PendingIntent.getActivity(context, 0, intent,
+                PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE);
+
+        IncidentSummary latest = newIncidents.get(0);
+        String title = newIncidents.size() == 1
+                ? "New incident: " + latest.getType()
+                : newIncidents.size() + " new incidents assigned";
+        NotificationCompat.Builder builder = new NotificationCompat.Builder(context, CHANNEL_ID)
+                .setSmallIcon(R.drawable.ic_fire)
+                .setContentTitle(title)
+                .setContentText(latest.getDescription())
+                .setSound(sound)
+                .setPriority(NotificationCompat.PRIORITY_HIGH)
+                .setCategory(NotificationCompat.CATEGORY_ALARM)
+                .setContentIntent(contentIntent)
+                .setAutoCancel(true);
+        NotificationManagerCompat.from(context).notify(NOTIFICATION_ID, builder.build());
+    }
+
+    private static void createChannel(Context context, Uri sound) {
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.O) {
+            return;
+        }
+        NotificationChannel channel = new NotificationChannel(CHANNEL_ID, "New incidents",
+                NotificationManager.IMPORTANCE_HIGH);
+        channel.setSound(sound, new AudioAttributes.Builder()
+                .setUsage(AudioAttributes.USAGE_NOTIFICATION_EVENT)
+                .setContentType(AudioAttributes.CONTENT_TYPE_SONIFICATION)
+                .build());
+        context.getSystemService(NotificationManager.class).createNotificationChannel(channel);
+    }
+}
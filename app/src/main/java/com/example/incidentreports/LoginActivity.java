@@ -54,9 +54,9 @@ public class LoginActivity extends AppCompatActivity {
         setLoading(true);
         apiHelper.loginAdmin(email, password, new PocketBaseApiHelper.AuthCallback() {
             @Override
-            public void onSuccess(String token, String userId, String fullName) {
+            public void onSuccess(String token, String userId, String fullName, String position) {
                 setLoading(false);
-                sessionManager.saveSession(token, userId, fullName);
+                sessionManager.saveSession(token, userId, fullName, position);
                 goToTaskList();
             }
 
@@ -68,6 +68,12 @@ public class LoginActivity extends AppCompatActivity {
         });
     }
 
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        apiHelper.cancelPendingRequests();
+    }
+
     private void setLoading(boolean loading) {
         progressBar.setVisibility(loading ? View.VISIBLE : View.GONE);
     }
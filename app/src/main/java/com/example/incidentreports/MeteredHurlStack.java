@@ -0,0 +1,106 @@
+package com.example.incidentreports;
+
+import android.os.SystemClock;
+
+import com.android.volley.AuthFailureError;
+import com.android.volley.Request;
+import com.android.volley.toolbox.HttpResponse;
+import com.android.volley.toolbox.HurlStack;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.net.UnknownHostException;
+import java.util.Map;
+
+/**
+ * HurlStack that reports every attempt to {@link ApiMetrics}. HttpURLConnection does not
+ * expose its connect phase, so TTFB covers DNS, connect, request upload and server time.
+ * Only installed in debug builds.
+ */
+class MeteredHurlStack extends HurlStack {
+    private final ApiMetrics metrics;
+
+    MeteredHurlStack(ApiMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public HttpResponse executeRequest(Request<?> request, Map<String, String> additionalHeaders)
+            throws IOException, AuthFailureError {
+        String endpoint = ApiMetrics.endpointFor(methodName(request.getMethod()), request.getUrl());
+        boolean retry = request.getRetryPolicy().getCurrentRetryCount() > 0;
+
+        long start = SystemClock.elapsedRealtime();
+        HttpResponse response;
+        try {
+            response = super.executeRequest(request, additionalHeaders);
+        } catch (IOException e) {
+            metrics.recordTransfer(endpoint, 0, -1, SystemClock.elapsedRealtime() - start, 0, retry, errorFor(e));
+            throw e;
+        }
+        long ttfbMs = SystemClock.elapsedRealtime() - start;
+        int statusCode = response.getStatusCode();
+        String error = ApiMetrics.errorForStatus(statusCode);
+
+        InputStream content = response.getContent();
+        if (content == null) {
+            metrics.recordTransfer(endpoint, statusCode, ttfbMs, SystemClock.elapsedRealtime() - start, 0,
+                    retry, error);
+            return response;
+        }
+        InputStream metered = new FilterInputStream(content) {
+            private long bytes;
+            private boolean reported;
+
+            @Override
+            public int read() throws IOException {
+                int value = super.read();
+                if (value != -1) bytes++;
+                return value;
+            }
+
+            @Override
+            public int read(byte[] buffer, int offset, int length) throws IOException {
+                int read = super.read(buffer, offset, length);
+                if (read > 0) bytes += read;
+                return read;
+            }
+
+            @Override
+            public void close() throws IOException {
+                // BasicNetwork closes the body once it has read it all.
+                if (!reported) {
+                    reported = true;
+                    metrics.recordTransfer(endpoint, statusCode, ttfbMs,
+                            SystemClock.elapsedRealtime() - start, bytes, retry, error);
+                }
+                super.close();
+            }
+        };
+        return new HttpResponse(statusCode, response.getHeaders(), response.getContentLength(), metered);
+    }
+
+    private static String errorFor(IOException e) {
+        if (e instanceof SocketTimeoutException) return ApiMetrics.ERROR_TIMEOUT;
+        if (e instanceof ConnectException || e instanceof UnknownHostException) return ApiMetrics.ERROR_NO_CONNECTION;
+        return ApiMetrics.ERROR_IO;
+    }
+
+    private static String methodName(int method) {
+        switch (method) {
+            case Request.Method.POST:
+                return "POST";
+            case Request.Method.PUT:
+                return "PUT";
+            case Request.Method.PATCH:
+                return "PATCH";
+            case Request.Method.DELETE:
+                return "DELETE";
+            default:
+                return "GET";
+        }
+    }
+}
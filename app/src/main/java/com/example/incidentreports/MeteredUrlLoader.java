@@ -0,0 +1,173 @@
+package com.example.incidentreports;
+
+import android.net.Uri;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.bumptech.glide.Priority;
+import com.bumptech.glide.load.DataSource;
+import com.bumptech.glide.load.HttpException;
+import com.bumptech.glide.load.Options;
+import com.bumptech.glide.load.data.DataFetcher;
+import com.bumptech.glide.load.model.GlideUrl;
+import com.bumptech.glide.load.model.ModelLoader;
+import com.bumptech.glide.load.model.ModelLoaderFactory;
+import com.bumptech.glide.load.model.MultiModelLoaderFactory;
+import com.bumptech.glide.load.model.stream.HttpGlideUrlLoader;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Glide's default HTTP loader with byte counting. When Glide releases a download the
+ * bytes read, time to first byte and total time are logged and reported to
+ * {@link ApiMetrics} under the file endpoint.
+ */
+class MeteredUrlLoader implements ModelLoader<GlideUrl, InputStream> {
+    private static final String TAG = "ImageTransfer";
+
+    private final HttpGlideUrlLoader delegate = new HttpGlideUrlLoader();
+    private final ApiMetrics metrics;
+
+    MeteredUrlLoader(ApiMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Nullable
+    @Override
+    public LoadData<InputStream> buildLoadData(@NonNull GlideUrl model, int width, int height, @NonNull Options options) {
+        LoadData<InputStream> loadData = delegate.buildLoadData(model, width, height, options);
+        if (loadData == null) {
+            return null;
+        }
+        return new LoadData<>(loadData.sourceKey, new MeteredFetcher(loadData.fetcher, model, metrics));
+    }
+
+    @Override
+    public boolean handles(@NonNull GlideUrl model) {
+        return delegate.handles(model);
+    }
+
+    static class Factory implements ModelLoaderFactory<GlideUrl, InputStream> {
+        private final ApiMetrics metrics;
+
+        Factory(ApiMetrics metrics) {
+            this.metrics = metrics;
+        }
+
+        @NonNull
+        @Override
+        public ModelLoader<GlideUrl, InputStream> build(@NonNull MultiModelLoaderFactory multiFactory) {
+            return new MeteredUrlLoader(metrics);
+        }
+
+        @Override
+        public void teardown() {
+        }
+    }
+
+    private static class MeteredFetcher implements DataFetcher<InputStream> {
+        private final DataFetcher<InputStream> delegate;
+        private final GlideUrl url;
+        private final ApiMetrics metrics;
+        private CountingInputStream stream;
+        private long startMs;
+        private long ttfbMs;
+
+        MeteredFetcher(DataFetcher<InputStream> delegate, GlideUrl url, ApiMetrics metrics) {
+            this.delegate = delegate;
+            this.url = url;
+            this.metrics = metrics;
+        }
+
+        @Override
+        public void loadData(@NonNull Priority priority, @NonNull DataCallback<? super InputStream> callback) {
+            startMs = SystemClock.elapsedRealtime();
+            delegate.loadData(priority, new DataCallback<InputStream>() {
+                @Override
+                public void onDataReady(@Nullable InputStream data) {
+                    ttfbMs = SystemClock.elapsedRealtime() - startMs;
+                    stream = data != null ? new CountingInputStream(data) : null;
+                    callback.onDataReady(stream);
+                }
+
+                @Override
+                public void onLoadFailed(@NonNull Exception e) {
+                    int statusCode = e instanceof HttpException ? ((HttpException) e).getStatusCode() : 0;
+                    String error = statusCode > 0 ? ApiMetrics.errorForStatus(statusCode) : null;
+                    metrics.recordTransfer(ApiMetrics.ENDPOINT_FILE, statusCode, -1,
+                            SystemClock.elapsedRealtime() - startMs, 0, false,
+                            error != null ? error : ApiMetrics.ERROR_IO);
+                    callback.onLoadFailed(e);
+                }
+            });
+        }
+
+        @Override
+        public void cleanup() {
+            if (stream != null) {
+                long totalMs = SystemClock.elapsedRealtime() - startMs;
+                Uri uri = Uri.parse(url.toStringUrl());
+                Log.d(TAG, uri.getLastPathSegment() + " thumb=" + uri.getQueryParameter("thumb") + ": "
+                        + stream.count + " bytes in " + totalMs + " ms");
+                metrics.recordTransfer(ApiMetrics.ENDPOINT_FILE, 200, ttfbMs, totalMs, stream.count, false, null);
+                stream = null;
+            }
+            delegate.cleanup();
+        }
+
+        @Override
+        public void cancel() {
+            delegate.cancel();
+        }
+
+        @NonNull
+        @Override
+        public Class<InputStream> getDataClass() {
+            return InputStream.class;
+        }
+
+        @NonNull
+        @Override
+        public DataSource getDataSource() {
+            return DataSource.REMOTE;
+        }
+    }
+
+    private static class CountingInputStream extends FilterInputStream {
+        long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int value = super.read();
+            if (value != -1) {
+                count++;
+            }
+            return value;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = super.read(buffer, offset, length);
+            if (read > 0) {
+                count += read;
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.incidentreports;
+
+import android.content.Intent;
+import android.os.Bundle;
+import android.widget.Button;
+import android.widget.TextView;
+import android.widget.Toast;
+
+import androidx.appcompat.app.AppCompatActivity;
+
+import java.io.File;
+
+/**
+ * Debug screen for {@link ApiMetrics}. Shows the per-endpoint summary and exports it,
+ * together with the per-request log, to the app's external files directory. Only reachable
+ * from debug builds.
+ */
+public class MetricsActivity extends AppCompatActivity {
+    private ApiMetrics metrics;
+    private TextView txtMetrics;
+
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        setContentView(R.layout.activity_metrics);
+
+        metrics = ApiMetrics.getInstance(this);
+        txtMetrics = findViewById(R.id.txtMetrics);
+        Button btnRefresh = findViewById(R.id.btnRefreshMetrics);
+        Button btnExport = findViewById(R.id.btnExportMetrics);
+        Button btnReset = findViewById(R.id.btnResetMetrics);
+
+        btnRefresh.setOnClickListener(v -> showMetrics());
+        btnExport.setOnClickListener(v -> exportMetrics());
+        btnReset.setOnClickListener(v -> {
+            metrics.reset();
+            showMetrics();
+        });
+    }
+
+    @Override
+    protected void onResume() {
+        super.onResume();
+        showMetrics();
+    }
+
+    private void showMetrics() {
+        txtMetrics.setText(metrics.formatSummary());
+    }
+
+    private void exportMetrics() {
+        File dir = getExternalFilesDir(null);
+        if (dir == null) {
+            Toast.makeText(this, "External storage is not available.", Toast.LENGTH_SHORT).show();
+            return;
+        }
+        String summary = metrics.formatSummary();
+        metrics.export(dir, new ApiMetrics.ExportCallback() {
+            @Override
+            public void onExported(File export) {
+                runOnUiThread(() -> {
+                    if (isFinishing()) return;
+                    Toast.makeText(MetricsActivity.this, "Saved " + export.getAbsolutePath(), Toast.LENGTH_LONG).show();
+
+                    Intent share = new Intent(Intent.ACTION_SEND);
+                    share.setType("text/plain");
+                    share.putExtra(Intent.EXTRA_SUBJECT, "Incident Reports API metrics");
+                    share.putExtra(Intent.EXTRA_TEXT, summary);
+                    startActivity(Intent.createChooser(share, "Share metrics summary"));
+                });
+            }
+
+            @Override
+            public void onError(String message) {
+                runOnUiThread(() -> Toast.makeText(MetricsActivity.this, "Export failed: " + message,
+                        Toast.LENGTH_LONG).show());
+            }
+        });
+    }
+}
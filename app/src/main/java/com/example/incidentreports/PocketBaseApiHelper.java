@@ -1,25 +1,31 @@
 package com.example.incidentreports;
 
-import static com.example.incidentreports.BuildConfig.POCKETBASE_URL;
-
 import android.content.Context;
 import android.net.Uri;
+import android.os.SystemClock;
 import android.util.Log;
 
 import androidx.annotation.NonNull;
 
 import com.android.volley.AuthFailureError;
+import com.android.volley.NetworkResponse;
+import com.android.volley.ParseError;
 import com.android.volley.Request;
-import com.android.volley.RequestQueue;
+import com.android.volley.NoConnectionError;
+import com.android.volley.TimeoutError;
 import com.android.volley.VolleyError;
+import com.android.volley.toolbox.HttpHeaderParser;
 import com.android.volley.toolbox.JsonObjectRequest;
-import com.android.volley.toolbox.Volley;
+import com.android.volley.toolbox.JsonRequest;
+import com.android.volley.toolbox.StringRequest;
 
 import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 
+import java.io.UnsupportedEncodingException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -28,17 +34,66 @@ import java.util.Map;
  * Handles REST communication with PocketBase.
  */
 public class PocketBaseApiHelper {
-    public static final String BASE_URL = POCKETBASE_URL;
     private static final String TAG = "PocketBaseApiHelper";
+    private static final String INCIDENT_TOPIC = "incident_reports/*";
+    // Page size used when walking every page of a query rather than showing them lazily.
+    private static final int BULK_PAGE_SIZE = 200;
+    private static final int DESCRIPTION_EXCERPT_LENGTH = 160;
+    // List rows show type, description, created, status and a photo thumbnail, and the list
+    // search also matches the address, which a description excerpt may have cut off.
+    private static final String SUMMARY_FIELDS = "id,collectionId,type,description:excerpt("
+            + DESCRIPTION_EXCERPT_LENGTH + ",true),status,created,updated,latitude,longitude,address,incident_image";
+    // The detail screen needs the whole record except the responders relation.
+    private static final String DETAIL_FIELDS = "id,collectionId,type,description,status,created,updated,"
+            + "latitude,longitude,address,incident_image";
+
+    // Thumbnail sizes configured on incident_image as {width, height}, smallest first: square
+    // ones for list rows, 16:9 ones for the detail view. Keep in sync with the collection.
+    private static final int[][] THUMB_SIZES = {{160, 160}, {320, 320}, {480, 270}, {720, 405}, {1080, 608}, {1440, 810}};
+    // The "?thumb=WxH" suffix for each of THUMB_SIZES, built once: thumbnail URLs are made while binding rows.
+    private static final String[] THUMB_QUERIES = new String[THUMB_SIZES.length];
+
+    static {
+        for (int i = 0; i < THUMB_SIZES.length; i++) {
+            THUMB_QUERIES[i] = "?thumb=" + THUMB_SIZES[i][0] + "x" + THUMB_SIZES[i][1];
+        }
+    }
 
-    private final RequestQueue requestQueue;
+    private final PocketBaseClient client;
+    private final AuthTokenManager tokenManager;
+    private final String baseUrl;
+    // Sign-up writes are sent under this tag instead of the helper, so a screen closing
+    // between the responder and the admin record cannot cancel the second write.
+    private static final Object SIGNUP_TAG = new Object();
+    // Null until the first batch call tells us whether the server has the batch API enabled.
+    private static volatile Boolean batchApiAvailable;
 
     public PocketBaseApiHelper(Context context) {
-        requestQueue = Volley.newRequestQueue(context.getApplicationContext());
+        // Helpers are cheap; the queue and its connections are shared app-wide.
+        client = PocketBaseClient.getInstance(context);
+        tokenManager = AuthTokenManager.getInstance(context);
+        // Read per helper so tests and field setups can point the app at another server.
+        baseUrl = new ApiConfigManager(context).getBaseUrl();
+    }
+
+    /**
+     * Drops the callbacks of every call made through this helper that has not answered
+     * yet, and cancels the calls nobody else is waiting on. Screens call it in onDestroy.
+     * Sign-up is not affected: its two writes always run to the end.
+     */
+    public void cancelPendingRequests() {
+        client.cancelAll(this);
     }
 
     public interface AuthCallback {
-        void onSuccess(String token, String userId, String fullName);
+        void onSuccess(String token, String userId, String fullName, String position);
+        void onError(String message);
+    }
+
+    public interface AuthRefreshCallback {
+        void onSuccess(String token);
+        // The server refused the token: the session is over and the user must sign in again.
+        void onRejected();
         void onError(String message);
     }
 
@@ -48,7 +103,7 @@ public class PocketBaseApiHelper {
     }
 
     public interface IncidentListCallback {
-        void onSuccess(List<IncidentReport> incidents);
+        void onSuccess(List<IncidentSummary> incidents);
         void onError(String message);
     }
 
@@ -57,8 +112,37 @@ public class PocketBaseApiHelper {
         void onError(String message);
     }
 
+    public interface IncidentPageCallback {
+        void onSuccess(List<IncidentSummary> incidents, boolean hasMore);
+        void onError(String message);
+    }
+
+    public interface FingerprintCallback {
+        void onSuccess(IncidentListFingerprint fingerprint);
+        void onError(String message);
+    }
+
+    public interface StatusUpdateCallback {
+        // rejectedById: changes the server refused outright (e.g. 403 once the responder is
+        // unassigned), with its message. Sending them again cannot succeed.
+        void onSuccess(Map<String, String> rejectedById);
+        void onError(String message);
+    }
+
+    public interface StatusMapCallback {
+        void onSuccess(Map<String, String> statusById);
+        void onError(String message);
+    }
+
+    public interface RealtimeCallback {
+        void onConnected();
+        void onIncidentChanged(IncidentSummary incident, boolean created);
+        void onIncidentRemoved(String incidentId);
+        void onDisconnected();
+    }
+
     public void loginAdmin(String email, String password, AuthCallback callback) {
-        String url = BASE_URL + "/api/collections/admins/auth-with-password";
+        String url = baseUrl + "/api/collections/admins/auth-with-password";
         JSONObject body = new JSONObject();
 
         try {
@@ -69,24 +153,56 @@ public class PocketBaseApiHelper {
             return;
         }
 
-        JsonObjectRequest request = new JsonObjectRequest(Request.Method.POST, url, body,
+        client.<JSONObject>send(this, null, RequestPolicy.LOGIN,
+                (listener, errorListener) -> new JsonObjectRequest(Request.Method.POST, url, body, listener, errorListener),
                 response -> {
                     try {
                         String token = response.getString("token");
                         JSONObject record = response.getJSONObject("record");
                         String responderId = record.optString("responder", "");
                         String fullName = record.optString("first_name", "") + " " + record.optString("last_name", "");
+                        String position = record.optString("position", "");
                         Log.d(TAG, "Login successful. ResponderID: " + responderId);
-                        callback.onSuccess(token, responderId.trim(), fullName.trim());
+                        callback.onSuccess(token, responderId.trim(), fullName.trim(), position.trim());
                     } catch (JSONException e) {
                         callback.onError("Unable to parse login response.");
                     }
                 },
                 error -> callback.onError(parseVolleyError(error)));
+    }
 
-        requestQueue.add(request);
+    /**
+     * Exchanges a still-valid token for a new one with a fresh expiry.
+     */
+    public void refreshAuth(String token, AuthRefreshCallback callback) {
+        String url = baseUrl + "/api/collections/admins/auth-refresh";
+        client.<JSONObject>send(this, null, RequestPolicy.AUTH_REFRESH,
+                (listener, errorListener) -> new AuthJsonRequest(Request.Method.POST, url, null, token,
+                        listener, errorListener),
+                response -> {
+                    String newToken = response.optString("token", "");
+                    if (newToken.isEmpty()) {
+                        callback.onError("Unable to parse refresh response.");
+                    } else {
+                        callback.onSuccess(newToken);
+                    }
+                },
+                error -> {
+                    int code = error.networkResponse != null ? error.networkResponse.statusCode : 0;
+                    // 404: the admin record is gone; 401/403: the token is no longer accepted.
+                    if (code == 401 || code == 403 || code == 404) {
+                        callback.onRejected();
+                    } else {
+                        callback.onError(parseVolleyError(error));
+                    }
+                });
     }
 
+    /**
+     * Creates the responder record and then the admin account pointing at it. Both writes
+     * finish even if the calling screen goes away, so its callback must check that the
+     * screen is still there. If the admin record is refused the responder is deleted again.
+     */
     public void registerAdmin(String firstName, 
                               String middleName, 
                               String lastName, 
@@ -97,7 +213,7 @@ public class PocketBaseApiHelper {
                               SimpleCallback callback) {
         
         // 1. Create Responder record first to get an ID
-        String responderUrl = BASE_URL + "/api/collections/responders/records";
+        String responderUrl = baseUrl + "/api/collections/responders/records";
         JSONObject responderBody = new JSONObject();
         try {
             responderBody.put("unit_name", firstName + "'s Unit"); // Default value
@@ -109,7 +225,9 @@ public class PocketBaseApiHelper {
             return;
         }
 
-        JsonObjectRequest responderRequest = new JsonObjectRequest(Request.Method.POST, responderUrl, responderBody,
+        client.<JSONObject>send(SIGNUP_TAG, null, RequestPolicy.SIGNUP,
+                (listener, errorListener) -> new JsonObjectRequest(Request.Method.POST, responderUrl, responderBody,
+                        listener, errorListener),
                 responderResponse -> {
                     String responderId = responderResponse.optString("id");
                     
@@ -117,8 +235,6 @@ public class PocketBaseApiHelper {
                     createAdminRecord(firstName, middleName, lastName, email, password, responderId, extension, callback);
                 },
                 error -> callback.onError("Failed to create responder: " + parseVolleyError(error)));
-
-        requestQueue.add(responderRequest);
     }
 
     private void createAdminRecord(String firstName, 
@@ -129,7 +245,7 @@ public class PocketBaseApiHelper {
                                    String responderId, 
                                    String extension, 
                                    SimpleCallback callback) {
-        String url = BASE_URL + "/api/collections/admins/records";
+        String url = baseUrl + "/api/collections/admins/records";
         JSONObject body = new JSONObject();
 
         try {
@@ -143,116 +259,528 @@ public class PocketBaseApiHelper {
             body.put("extension", extension);
             body.put("position", "admin"); // Default position
         } catch (JSONException e) {
+            deleteResponderRecord(responderId);
             callback.onError(e.getMessage());
             return;
         }
 
-        JsonObjectRequest request = new JsonObjectRequest(Request.Method.POST, url, body,
+        client.<JSONObject>send(SIGNUP_TAG, null, RequestPolicy.SIGNUP,
+                (listener, errorListener) -> new JsonObjectRequest(Request.Method.POST, url, body, listener, errorListener),
                 response -> callback.onSuccess(),
-                error -> callback.onError("Failed to create admin: " + parseVolleyError(error)));
+                error -> {
+                    if (!(error instanceof TimeoutError)) {
+                        // Refused or never sent: the responder would be left without an admin.
+                        // After a timeout the admin may exist, so the responder is kept.
+                        deleteResponderRecord(responderId);
+                    }
+                    callback.onError("Failed to create admin: " + parseVolleyError(error));
+                });
+    }
 
-        requestQueue.add(request);
+    /**
+     * Rolls back the responder record of a sign-up whose admin record failed. Best effort:
+     * if this fails too, the orphan is only logged.
+     */
+    private void deleteResponderRecord(String responderId) {
+        String url = baseUrl + "/api/collections/responders/records/" + responderId;
+        client.<String>send(SIGNUP_TAG, null, RequestPolicy.ROLLBACK,
+                (listener, errorListener) -> new StringRequest(Request.Method.DELETE, url, listener, errorListener),
+                response -> Log.d(TAG, "Removed responder " + responderId + " of a failed sign-up"),
+                error -> Log.w(TAG, "Could not remove responder " + responderId + " of a failed sign-up: "
+                        + parseVolleyError(error)));
     }
 
+    /**
+     * Fetches every assigned incident, walking all result pages.
+     */
     public void fetchAssignedIncidents(String token, String responderId, IncidentListCallback callback) {
-        // Use ?= which is the standard PocketBase operator for relation fields
-        String filter = "responders ?= \"" + responderId + "\"";
-        
-        Log.d(TAG, "Fetching incidents for responderId: " + responderId + " with filter: " + filter);
+        fetchAllPages(token, IncidentQuery.assignedTo(responderId), 1, new ArrayList<>(), callback);
+    }
 
-        String url = Uri.parse(BASE_URL + "/api/collections/incident_reports/records")
+    /**
+     * Fetches only the assigned incidents whose "updated" timestamp is after the given
+     * high-water mark, so an unchanged list costs an empty page. A record saved in the
+     * same millisecond as the mark is left to the next full fetch, as are deletions and
+     * unassignments.
+     */
+    public void fetchAssignedIncidentsSince(String token, String responderId, String updatedSince, IncidentListCallback callback) {
+        IncidentQuery query = IncidentQuery.assignedTo(responderId).buildUpon().updatedSince(updatedSince).build();
+        fetchAllPages(token, query, 1, new ArrayList<>(), callback);
+    }
+
+    /**
+     * Fetches one page of assigned incidents, newest first. The total count query is
+     * skipped, so hasMore is inferred from whether the page came back full.
+     */
+    public void fetchAssignedIncidentsPage(String token, String responderId, int page, int perPage, IncidentPageCallback callback) {
+        queryIncidents(token, IncidentQuery.assignedTo(responderId), page, perPage, callback);
+    }
+
+    /**
+     * Fetches one page of incidents matching the query, filtered and sorted on the server.
+     * Like the assigned list it skips the total count, so hasMore means "page came back full".
+     */
+    public void queryIncidents(String token, IncidentQuery query, int page, int perPage, IncidentPageCallback callback) {
+        Log.d(TAG, "Fetching incidents page " + page + " with filter: " + query.toFilter());
+
+        Uri.Builder url = Uri.parse(baseUrl + "/api/collections/incident_reports/records").buildUpon();
+        String filter = query.toFilter();
+        if (!filter.isEmpty()) {
+            url.appendQueryParameter("filter", filter);
+        }
+        url.appendQueryParameter("sort", query.getSort())
+                .appendQueryParameter("page", String.valueOf(page))
+                .appendQueryParameter("perPage", String.valueOf(perPage))
+                .appendQueryParameter("skipTotal", "1")
+                .appendQueryParameter("fields", SUMMARY_FIELDS);
+        String pageUrl = url.toString();
+
+        client.<List<IncidentSummary>>send(this, sharedKey(token, pageUrl), RequestPolicy.LIST,
+                (listener, errorListener) -> new IncidentPageRequest(pageUrl, tokenManager.resolve(token), listener, errorListener),
+                incidents -> {
+                    Log.d(TAG, "Response items count: " + incidents.size());
+                    callback.onSuccess(incidents, incidents.size() >= perPage);
+                },
+                error -> {
+                    String message = parseVolleyError(error);
+                    Log.e(TAG, "Error fetching incidents: " + message);
+                    callback.onError(message);
+                });
+    }
+
+    /**
+     * Asks for just the most recently updated assigned record's id and timestamp plus the
+     * match count, a response of a few hundred bytes. Comparing it with the previous
+     * fingerprint tells the caller whether a real fetch is needed at all.
+     */
+    public void probeAssignedIncidents(String token, String responderId, FingerprintCallback callback) {
+        String url = Uri.parse(baseUrl + "/api/collections/incident_reports/records")
                 .buildUpon()
-                .appendQueryParameter("filter", filter)
-                .appendQueryParameter("sort", "-created")
+                .appendQueryParameter("filter", IncidentQuery.assignedTo(responderId).toFilter())
+                .appendQueryParameter("sort", "-updated")
+                .appendQueryParameter("perPage", "1")
+                .appendQueryParameter("fields", "id,updated")
                 .toString();
 
-        JsonObjectRequest request = new AuthJsonRequest(Request.Method.GET, url, null, token,
+        client.<JSONObject>send(this, sharedKey(token, url), RequestPolicy.PROBE,
+                (listener, errorListener) -> new AuthJsonRequest(Request.Method.GET, url, null, tokenManager.resolve(token),
+                        listener, errorListener),
                 response -> {
-                    List<IncidentReport> incidents = new ArrayList<>();
                     JSONArray items = response.optJSONArray("items");
-                    Log.d(TAG, "Response items count: " + (items != null ? items.length() : 0));
-                    if (items != null) {
-                        for (int i = 0; i < items.length(); i++) {
-                            JSONObject obj = items.optJSONObject(i);
-                            if (obj != null) {
-                                incidents.add(parseIncident(obj));
-                            }
-                        }
-                    }
-                    callback.onSuccess(incidents);
+                    JSONObject latest = items != null ? items.optJSONObject(0) : null;
+                    callback.onSuccess(new IncidentListFingerprint(
+                            response.optInt("totalItems", 0),
+                            latest != null ? latest.optString("id", "") : "",
+                            latest != null ? latest.optString("updated", "") : ""));
                 },
-                error -> {
-                    Log.e(TAG, "Error fetching incidents: " + parseVolleyError(error));
-                    callback.onError(parseVolleyError(error));
-                });
+                error -> callback.onError(parseVolleyError(error)));
+    }
 
-        requestQueue.add(request);
+    /**
+     * Identical reads made while one is in flight share it; the token keeps sessions apart.
+     * Only a hash of the token goes into the key, so the bearer token never ends up in a
+     * map key or log line.
+     */
+    private static String sharedKey(String token, String url) {
+        return Integer.toHexString(token != null ? token.hashCode() : 0) + " " + url;
+    }
+
+    private void fetchAllPages(String token,
+                               IncidentQuery query,
+                               int page,
+                               List<IncidentSummary> collected,
+                               IncidentListCallback callback) {
+        queryIncidents(token, query, page, BULK_PAGE_SIZE, new IncidentPageCallback() {
+            @Override
+            public void onSuccess(List<IncidentSummary> incidents, boolean hasMore) {
+                collected.addAll(incidents);
+                if (hasMore) {
+                    fetchAllPages(token, query, page + 1, collected, callback);
+                } else {
+                    callback.onSuccess(collected);
+                }
+            }
+
+            @Override
+            public void onError(String message) {
+                callback.onError(message);
+            }
+        });
     }
 
     public void fetchIncidentById(String token, String incidentId, IncidentCallback callback) {
-        String url = BASE_URL + "/api/collections/incident_reports/records/" + incidentId;
-        JsonObjectRequest request = new AuthJsonRequest(Request.Method.GET, url, null, token,
+        String url = Uri.parse(baseUrl + "/api/collections/incident_reports/records/" + incidentId)
+                .buildUpon()
+                .appendQueryParameter("fields", DETAIL_FIELDS)
+                .toString();
+        client.<JSONObject>send(this, sharedKey(token, url), RequestPolicy.GET,
+                (listener, errorListener) -> new AuthJsonRequest(Request.Method.GET, url, null, tokenManager.resolve(token),
+                        listener, errorListener),
                 response -> callback.onSuccess(parseIncident(response)),
                 error -> callback.onError(parseVolleyError(error)));
-        requestQueue.add(request);
     }
 
     public void updateIncidentStatus(String token, String incidentId, String newStatus, SimpleCallback callback) {
-        String url = BASE_URL + "/api/collections/incident_reports/records/" + incidentId;
+        patchStatus(token, incidentId, newStatus, callback::onSuccess, error -> callback.onError(parseVolleyError(error)));
+    }
+
+    private void patchStatus(String token,
+                             String incidentId,
+                             String newStatus,
+                             Runnable onSuccess,
+                             com.android.volley.Response.ErrorListener onError) {
+        String url = baseUrl + "/api/collections/incident_reports/records/" + incidentId;
         JSONObject body = new JSONObject();
         try {
             body.put("status", newStatus);
         } catch (JSONException e) {
-            callback.onError(e.getMessage());
+            onError.onErrorResponse(new VolleyError(e));
             return;
         }
 
-        JsonObjectRequest request = new AuthJsonRequest(Request.Method.PATCH, url, body, token,
-                response -> callback.onSuccess(),
+        client.<JSONObject>send(this, null, RequestPolicy.PATCH,
+                (listener, errorListener) -> new AuthJsonRequest(Request.Method.PATCH, url, body, tokenManager.resolve(token),
+                        listener, errorListener),
+                response -> {
+                    client.detachSharedCalls();
+                    IncidentQueryCache.getInstance().invalidateAll();
+                    onSuccess.run();
+                },
+                onError);
+    }
+
+    /**
+     * Streams create/update/delete events for incident_reports and narrows them to the
+     * records assigned to the given responder. An update that drops the responder from
+     * the record is reported as a removal. Call stop() on the returned client to close it.
+     */
+    public PocketBaseRealtimeClient subscribeToAssignedIncidents(String token, String responderId, RealtimeCallback callback) {
+        PocketBaseRealtimeClient client = new PocketBaseRealtimeClient(baseUrl, tokenManager.resolve(token), incidentTopic(),
+                new PocketBaseRealtimeClient.Listener() {
+                    @Override
+                    public void onConnected() {
+                        callback.onConnected();
+                    }
+
+                    @Override
+                    public void onRecordEvent(String action, JSONObject record) {
+                        String id = record.optString("id", "");
+                        if ("delete".equals(action) || !isAssignedTo(record, responderId)) {
+                            callback.onIncidentRemoved(id);
+                        } else {
+                            // The topic asks for the list projection, so the excerpt is the server's,
+                            // identical to what a poll returns.
+                            callback.onIncidentChanged(parseSummary(record), "create".equals(action));
+                        }
+                    }
+
+                    @Override
+                    public void onDisconnected() {
+                        callback.onDisconnected();
+                    }
+                });
+        client.start();
+        return client;
+    }
+
+    /**
+     * The incident topic with the list projection as a subscription option, plus the
+     * responders relation the assignment check reads. Events then arrive already trimmed.
+     */
+    private static String incidentTopic() {
+        JSONObject options = new JSONObject();
+        try {
+            options.put("query", new JSONObject().put("fields", SUMMARY_FIELDS + ",responders"));
+        } catch (JSONException e) {
+            throw new IllegalStateException(e);
+        }
+        return INCIDENT_TOPIC + "?options=" + Uri.encode(options.toString());
+    }
+
+    /**
+     * Fetches only the id and status of the given incidents in a single request.
+     * Incidents the server no longer returns are absent from the result.
+     */
+    public void fetchIncidentStatuses(String token, Collection<String> incidentIds, StatusMapCallback callback) {
+        StringBuilder filter = new StringBuilder();
+        for (String id : incidentIds) {
+            if (filter.length() > 0) filter.append(" || ");
+            filter.append("id = \"").append(id).append("\"");
+        }
+        String url = Uri.parse(baseUrl + "/api/collections/incident_reports/records")
+                .buildUpon()
+                .appendQueryParameter("filter", filter.toString())
+                .appendQueryParameter("fields", "id,status")
+                .appendQueryParameter("perPage", String.valueOf(Math.max(incidentIds.size(), 1)))
+                .appendQueryParameter("skipTotal", "1")
+                .toString();
+
+        client.<JSONObject>send(this, sharedKey(token, url), RequestPolicy.GET,
+                (listener, errorListener) -> new AuthJsonRequest(Request.Method.GET, url, null, tokenManager.resolve(token),
+                        listener, errorListener),
+                response -> {
+                    Map<String, String> statusById = new HashMap<>();
+                    JSONArray items = response.optJSONArray("items");
+                    if (items != null) {
+                        for (int i = 0; i < items.length(); i++) {
+                            JSONObject obj = items.optJSONObject(i);
+                            if (obj != null) {
+                                statusById.put(obj.optString("id"), obj.optString("status"));
+                            }
+                        }
+                    }
+                    callback.onSuccess(statusById);
+                },
                 error -> callback.onError(parseVolleyError(error)));
+    }
+
+    /**
+     * Applies several status changes at once. Uses PocketBase's /api/batch endpoint so
+     * they land in one transaction, and falls back to one PATCH per incident when the
+     * server does not have batch requests enabled or refused part of the batch. Changes
+     * the server refuses outright are reported back instead of failing the rest.
+     */
+    public void updateIncidentStatuses(String token, Map<String, String> statusById, StatusUpdateCallback callback) {
+        if (statusById.isEmpty()) {
+            callback.onSuccess(new HashMap<>());
+            return;
+        }
+        if (statusById.size() == 1 || Boolean.FALSE.equals(batchApiAvailable)) {
+            updateIncidentStatusesOneByOne(token, new ArrayList<>(statusById.entrySet()), 0, callback);
+            return;
+        }
+
+        JSONObject body = new JSONObject();
+        try {
+            JSONArray requests = new JSONArray();
+            for (Map.Entry<String, String> entry : statusById.entrySet()) {
+                JSONObject patch = new JSONObject();
+                patch.put("method", "PATCH");
+                patch.put("url", "/api/collections/incident_reports/records/" + entry.getKey());
+                patch.put("body", new JSONObject().put("status", entry.getValue()));
+                requests.put(patch);
+            }
+            body.put("requests", requests);
+        } catch (JSONException e) {
+            callback.onError(e.getMessage());
+            return;
+        }
+
+        client.<JSONArray>send(this, null, RequestPolicy.BATCH,
+                (listener, errorListener) -> new AuthBatchRequest(baseUrl + "/api/batch", body, tokenManager.resolve(token),
+                        listener, errorListener),
+                response -> {
+                    batchApiAvailable = true;
+                    client.detachSharedCalls();
+                    IncidentQueryCache.getInstance().invalidateAll();
+                    callback.onSuccess(new HashMap<>());
+                },
+                error -> {
+                    int code = error.networkResponse != null ? error.networkResponse.statusCode : 0;
+                    // 404: server predates the batch API. 403: batch requests are disabled in its settings.
+                    if (code == 404 || code == 403) {
+                        batchApiAvailable = false;
+                        updateIncidentStatusesOneByOne(token, new ArrayList<>(statusById.entrySet()), 0, callback);
+                    } else if (code == 400) {
+                        // One change was refused and rolled the batch back; find it one at a time.
+                        updateIncidentStatusesOneByOne(token, new ArrayList<>(statusById.entrySet()), 0, callback);
+                    } else {
+                        callback.onError(parseVolleyError(error));
+                    }
+                });
+    }
 
-        requestQueue.add(request);
+    private void updateIncidentStatusesOneByOne(String token,
+                                                List<Map.Entry<String, String>> updates,
+                                                int index,
+                                                StatusUpdateCallback callback) {
+        updateIncidentStatusesOneByOne(token, updates, index, new HashMap<>(), callback);
     }
 
-    public String getFileUrl(IncidentReport report) {
+    private void updateIncidentStatusesOneByOne(String token,
+                                                List<Map.Entry<String, String>> updates,
+                                                int index,
+                                                Map<String, String> rejectedById,
+                                                StatusUpdateCallback callback) {
+        if (index >= updates.size()) {
+            callback.onSuccess(rejectedById);
+            return;
+        }
+        Map.Entry<String, String> update = updates.get(index);
+        patchStatus(token, update.getKey(), update.getValue(),
+                () -> updateIncidentStatusesOneByOne(token, updates, index + 1, rejectedById, callback),
+                error -> {
+                    if (isRejection(error)) {
+                        rejectedById.put(update.getKey(), parseVolleyError(error));
+                        updateIncidentStatusesOneByOne(token, updates, index + 1, rejectedById, callback);
+                    } else {
+                        callback.onError(parseVolleyError(error));
+                    }
+                });
+    }
+
+    /**
+     * Whether the server refused the request itself, so sending it again cannot help.
+     * 401 is left out: it is replayed after a token refresh or ends the session.
+     */
+    private static boolean isRejection(VolleyError error) {
+        int code = error.networkResponse != null ? error.networkResponse.statusCode : 0;
+        return code >= 400 && code < 500 && code != 401 && code != 408 && code != 429;
+    }
+
+    public String getFileUrl(IncidentSummary report) {
         if (!report.hasImage()) {
             return "";
         }
-        return BASE_URL + "/api/files/" + report.getCollectionId() + "/" + report.getId() + "/" + report.getImageFileName();
+        return baseUrl + "/api/files/" + report.getCollectionId() + "/" + report.getId() + "/" + report.getImageFileName();
     }
 
-    private IncidentReport parseIncident(JSONObject obj) {
+    /**
+     * URL of the smallest server-side thumbnail that covers the given size, falling back
+     * to the largest one. PocketBase only serves sizes listed in the field's thumbs option
+     * and returns the original file for any other size.
+     */
+    public String getFileUrl(IncidentSummary report, int widthPx, int heightPx) {
+        if (!report.hasImage()) {
+            return "";
+        }
+        int thumb = THUMB_SIZES.length - 1;
+        for (int i = 0; i < THUMB_SIZES.length; i++) {
+            if (THUMB_SIZES[i][0] >= widthPx && THUMB_SIZES[i][1] >= heightPx) {
+                thumb = i;
+                break;
+            }
+        }
+        // The file URL has no query of its own, so the suffix can be appended as is.
+        return getFileUrl(report) + THUMB_QUERIES[thumb];
+    }
+
+    private static boolean isAssignedTo(JSONObject record, String responderId) {
+        Object responders = record.opt("responders");
+        if (responders instanceof JSONArray) {
+            JSONArray arr = (JSONArray) responders;
+            for (int i = 0; i < arr.length(); i++) {
+                if (responderId.equals(arr.optString(i))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        return responderId.equals(responders);
+    }
+
+    /**
+     * Reads the list projection of a record.
+     */
+    static IncidentSummary parseSummary(JSONObject obj) {
+        return new IncidentSummary(
+                obj.optString("id", ""),
+                obj.optString("collectionId", ""),
+                obj.optString("type", "Unknown"),
+                obj.optString("description", "No description"),
+                obj.optString("status", "pending"),
+                obj.optString("created", ""),
+                obj.optString("updated", ""),
+                IncidentSummary.parseCoordinate(obj.optString("latitude", "")),
+                IncidentSummary.parseCoordinate(obj.optString("longitude", "")),
+                obj.optString("address", ""),
+                parseImageField(obj.opt("incident_image")));
+    }
+
+    static IncidentReport parseIncident(JSONObject obj) {
         String id = obj.optString("id", "");
         String collectionId = obj.optString("collectionId", "");
         String type = obj.optString("type", "Unknown");
         String description = obj.optString("description", "No description");
         String status = obj.optString("status", "pending");
         String created = obj.optString("created", "");
-        String latitude = obj.optString("latitude", "");
-        String longitude = obj.optString("longitude", "");
+        String updated = obj.optString("updated", "");
+        double latitude = IncidentSummary.parseCoordinate(obj.optString("latitude", ""));
+        double longitude = IncidentSummary.parseCoordinate(obj.optString("longitude", ""));
         String address = obj.optString("address", "No address");
 
-        String image = "";
-        Object imgField = obj.opt("incident_image");
+        String image = parseImageField(obj.opt("incident_image"));
+
+        return new IncidentReport(id, collectionId, type, description, status, created, updated, latitude, longitude, address, image);
+    }
+
+    private static String parseImageField(Object imgField) {
         if (imgField instanceof JSONArray) {
             JSONArray arr = (JSONArray) imgField;
-            if (arr.length() > 0) {
-                image = arr.optString(0, "");
-            }
+            return arr.length() > 0 ? arr.optString(0, "") : "";
         } else if (imgField instanceof String) {
-            image = (String) imgField;
+            return (String) imgField;
         }
-
-        return new IncidentReport(id, collectionId, type, description, status, created, latitude, longitude, address, image);
+        return "";
     }
 
-    private String parseVolleyError(VolleyError error) {
-        if (error.networkResponse != null && error.networkResponse.data != null) {
-            return new String(error.networkResponse.data);
+    /**
+     * Turns a Volley error into a message fit for a Toast. PocketBase error bodies carry a
+     * readable "message"; anything else is described by its cause rather than dumped raw.
+     */
+    static String parseVolleyError(VolleyError error) {
+        if (error instanceof CircuitOpenError) {
+            long seconds = (((CircuitOpenError) error).getRetryAfterMs() + 999) / 1000;
+            return "Server is not responding. Trying again in " + seconds + " s.";
+        }
+        if (error instanceof TimeoutError) {
+            return "The server took too long to respond.";
+        }
+        if (error instanceof NoConnectionError) {
+            return "No connection to the server.";
+        }
+        if (error.networkResponse != null) {
+            int code = error.networkResponse.statusCode;
+            if (error.networkResponse.data != null) {
+                try {
+                    String message = new JSONObject(new String(error.networkResponse.data, "UTF-8")).optString("message");
+                    if (!message.isEmpty()) {
+                        return message;
+                    }
+                } catch (JSONException | UnsupportedEncodingException ignored) {
+                    // Not a PocketBase error body (e.g. a proxy page); fall through to the status.
+                }
+            }
+            return code >= 500 ? "Server error (" + code + ")." : "Request failed (" + code + ").";
         }
         return error.getMessage() != null ? error.getMessage() : "Network error";
     }
 
+    private static class AuthBatchRequest extends JsonRequest<JSONArray> {
+        private final String token;
+
+        AuthBatchRequest(String url,
+                         JSONObject body,
+                         String token,
+                         com.android.volley.Response.Listener<JSONArray> listener,
+                         com.android.volley.Response.ErrorListener errorListener) {
+            super(Request.Method.POST, url, body.toString(), listener, errorListener);
+            this.token = token;
+        }
+
+        @Override
+        protected com.android.volley.Response<JSONArray> parseNetworkResponse(NetworkResponse response) {
+            long parseStart = SystemClock.elapsedRealtime();
+            try {
+                String json = new String(response.data, HttpHeaderParser.parseCharset(response.headers, "utf-8"));
+                JSONArray parsed = new JSONArray(json);
+                ApiMetrics.recordParse(this, parseStart, false);
+                return com.android.volley.Response.success(parsed, HttpHeaderParser.parseCacheHeaders(response));
+            } catch (UnsupportedEncodingException | JSONException e) {
+                ApiMetrics.recordParse(this, parseStart, true);
+                return com.android.volley.Response.error(new ParseError(e));
+            }
+        }
+
+        @NonNull
+        @Override
+        public Map<String, String> getHeaders() throws AuthFailureError {
+            Map<String, String> headers = new HashMap<>(super.getHeaders());
+            headers.put("Authorization", "Bearer " + token);
+            return headers;
+        }
+    }
+
     private static class AuthJsonRequest extends JsonObjectRequest {
         private final String token;
 
@@ -266,6 +794,15 @@ public class PocketBaseApiHelper {
             this.token = token;
         }
 
+        @Override
+        protected com.android.volley.Response<JSONObject> parseNetworkResponse(NetworkResponse response) {
+            Log.d(TAG, "Received " + response.data.length + " bytes for " + Uri.parse(getUrl()).getPath());
+            long parseStart = SystemClock.elapsedRealtime();
+            com.android.volley.Response<JSONObject> parsed = super.parseNetworkResponse(response);
+            ApiMetrics.recordParse(this, parseStart, !parsed.isSuccess());
+            return parsed;
+        }
+
         @NonNull
         @Override
         public Map<String, String> getHeaders() throws AuthFailureError {
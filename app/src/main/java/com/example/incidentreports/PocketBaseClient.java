@@ -0,0 +1,412 @@
+package com.example.incidentreports;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import com.android.volley.DefaultRetryPolicy;
+import com.android.volley.Network;
+import com.android.volley.Request;
+import com.android.volley.RequestQueue;
+import com.android.volley.Response;
+import com.android.volley.VolleyError;
+import com.android.volley.toolbox.BasicNetwork;
+import com.android.volley.toolbox.DiskBasedCache;
+import com.android.volley.toolbox.HurlStack;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Application-wide networking stack. Every {@link PocketBaseApiHelper} sends through the
+ * one queue held here, so all screens share a single dispatcher pool, disk cache and set
+ * of kept-alive connections instead of building a new stack per Activity. Calls made with
+ * {@link #send} also share one {@link CircuitBreaker} and follow their {@link RequestPolicy}.
+ * Its public methods may be called from any thread; call state itself is confined to the
+ * main thread, and calls from elsewhere are posted there before they touch it.
+ */
+public class PocketBaseClient {
+    private static final String TAG = "PocketBaseClient";
+    private static final String CACHE_DIR = "volley";
+    private static final int CACHE_SIZE_BYTES = 5 * 1024 * 1024;
+    // Bounded dispatcher: at most this many requests are on the wire at once, the rest wait.
+    private static final int NETWORK_THREADS = 4;
+    // Idle keep-alive connections HttpURLConnection keeps per host; read once at first use.
+    private static final int MAX_IDLE_CONNECTIONS = 5;
+    // Five server failures in a row pause all calls for 30 s, doubling up to 5 min while probes fail.
+    private static final int BREAKER_FAILURE_THRESHOLD = 5;
+    private static final long BREAKER_COOLDOWN_MS = 30 * 1000;
+    private static final long BREAKER_MAX_COOLDOWN_MS = 5 * 60 * 1000;
+
+    private static PocketBaseClient instance;
+
+    private final RequestQueue requestQueue;
+    private final CircuitBreaker circuitBreaker =
+            new CircuitBreaker(BREAKER_FAILURE_THRESHOLD, BREAKER_COOLDOWN_MS, BREAKER_MAX_COOLDOWN_MS);
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    // Main-thread only, like the calls themselves; see checkMainThread().
+    private final List<Call<?>> calls = new ArrayList<>();
+    private final Map<String, Call<?>> sharedCalls = new HashMap<>();
+
+    private AuthRefresher authRefresher;
+
+    /**
+     * Builds a fresh Volley request for each attempt, since a request cannot be re-queued.
+     */
+    public interface RequestFactory<T> {
+        Request<T> create(Response.Listener<T> listener, Response.ErrorListener errorListener);
+    }
+
+    /**
+     * Renews the session token when the server rejects it. Exactly one of the callbacks
+     * runs, on the main thread.
+     */
+    public interface AuthRefresher {
+        void refresh(Runnable onRefreshed, Runnable onFailed);
+    }
+
+    private PocketBaseClient(Context context) {
+        System.setProperty("http.keepAlive", "true");
+        System.setProperty("http.maxConnections", String.valueOf(MAX_IDLE_CONNECTIONS));
+
+        // HurlStack sits on the platform HttpURLConnection, which pools keep-alive
+        // connections per host. It speaks HTTP/1.1 only; HTTP/2 would need an OkHttp or
+        // Cronet backed stack.
+        // Debug builds use the metered subclass, which reports timings and sizes of every
+        // attempt to ApiMetrics; release builds keep no metrics at all.
+        HurlStack stack = BuildConfig.DEBUG ? new MeteredHurlStack(ApiMetrics.getInstance(context)) : new HurlStack();
+        Network network = new BasicNetwork(stack);
+        File cacheDir = new File(context.getCacheDir(), CACHE_DIR);
+        requestQueue = new RequestQueue(new DiskBasedCache(cacheDir, CACHE_SIZE_BYTES), network, NETWORK_THREADS);
+        requestQueue.start();
+        Log.d(TAG, "Started shared request queue with " + NETWORK_THREADS + " network threads");
+    }
+
+    public static synchronized PocketBaseClient getInstance(Context context) {
+        if (instance == null) {
+            instance = new PocketBaseClient(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    public <T> Request<T> add(Request<T> request) {
+        return requestQueue.add(request);
+    }
+
+    public RequestQueue getRequestQueue() {
+        return requestQueue;
+    }
+
+    public CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    public void setAuthRefresher(AuthRefresher authRefresher) {
+        this.authRefresher = authRefresher;
+    }
+
+    /**
+     * Sends a call under the given policy. Each attempt gets the policy's timeout and no
+     * Volley-level retries; failed attempts are retried here after a jittered backoff,
+     * slow ones may be hedged, and while the breaker is open the call fails at once with
+     * a {@link CircuitOpenError}. At most one of the listeners is called, on the main thread,
+     * also when the call was sent from a background thread such as a Worker.
+     *
+     * @param tag       owner of the listeners, for {@link #cancelAll(Object)}
+     * @param sharedKey identifies a read whose result any caller can use; while such a call
+     *                  is in flight, identical calls join it instead of sending their own.
+     *                  Pass null for writes and other calls that must run once per caller.
+     *                  Keys must not contain credentials such as the bearer token
+     */
+    public <T> void send(Object tag, String sharedKey, RequestPolicy policy, RequestFactory<T> factory,
+                         Response.Listener<T> listener, Response.ErrorListener errorListener) {
+        if (!isMainThread()) {
+            // Calls are confined to the main thread; background callers hop over here.
+            handler.post(() -> send(tag, sharedKey, policy, factory, listener, errorListener));
+            return;
+        }
+        if (sharedKey != null) {
+            @SuppressWarnings("unchecked")
+            Call<T> running = (Call<T>) sharedCalls.get(sharedKey);
+            if (running != null) {
+                Log.d(TAG, "Joining an identical read already in flight");
+                running.subscribe(tag, listener, errorListener);
+                return;
+            }
+        }
+        Call<T> call = new Call<>(sharedKey, policy, factory);
+        call.subscribe(tag, listener, errorListener);
+        if (sharedKey != null) {
+            sharedCalls.put(sharedKey, call);
+        }
+        calls.add(call);
+        call.start();
+    }
+
+    /**
+     * Drops every listener registered under the tag. Calls left with no listeners are
+     * cancelled, including their pending retries; shared calls keep running for others.
+     */
+    public void cancelAll(Object tag) {
+        if (!isMainThread()) {
+            handler.post(() -> cancelAll(tag));
+            return;
+        }
+        for (Call<?> call : new ArrayList<>(calls)) {
+            call.unsubscribe(tag);
+        }
+    }
+
+    /**
+     * Stops new callers from joining the shared reads now in flight, because a write has
+     * made their answers out of date. A detached call still answers its own callers,
+     * unless a newer call for the same key answers first: then the older call is
+     * cancelled and its callers get the newer answer instead of the stale one.
+     */
+    public void detachSharedCalls() {
+        if (!isMainThread()) {
+            handler.post(this::detachSharedCalls);
+            return;
+        }
+        sharedCalls.clear();
+    }
+
+    private static boolean isMainThread() {
+        return Looper.myLooper() == Looper.getMainLooper();
+    }
+
+    /**
+     * Fails fast when call state is touched off the main thread, which would otherwise
+     * corrupt the call lists without any visible error.
+     */
+    private static void checkMainThread() {
+        if (!isMainThread()) {
+            throw new IllegalStateException("PocketBaseClient calls must run on the main thread, not "
+                    + Thread.currentThread().getName());
+        }
+    }
+
+    private static class Subscriber<T> {
+        final Object tag;
+        final Response.Listener<T> listener;
+        final Response.ErrorListener errorListener;
+
+        Subscriber(Object tag, Response.Listener<T> listener, Response.ErrorListener errorListener) {
+            this.tag = tag;
+            this.listener = listener;
+            this.errorListener = errorListener;
+        }
+    }
+
+    /**
+     * One logical call, its attempts and everyone waiting on it. Only touched on the main
+     * thread: Volley delivers there and retries and hedges are posted to the main handler.
+     */
+    private class Call<T> {
+        private final String sharedKey;
+        private final RequestPolicy policy;
+        private final RequestFactory<T> factory;
+        private final List<Subscriber<T>> subscribers = new ArrayList<>();
+        private final List<Request<T>> inFlight = new ArrayList<>();
+        private final Runnable hedge = this::hedge;
+        private final Runnable retry = this::attempt;
+        private int attempts = 0;
+        private int retries = 0;
+        private boolean authReplayed = false;
+        private boolean finished = false;
+
+        Call(String sharedKey, RequestPolicy policy, RequestFactory<T> factory) {
+            this.sharedKey = sharedKey;
+            this.policy = policy;
+            this.factory = factory;
+        }
+
+        void subscribe(Object tag, Response.Listener<T> listener, Response.ErrorListener errorListener) {
+            checkMainThread();
+            subscribers.add(new Subscriber<>(tag, listener, errorListener));
+        }
+
+        void unsubscribe(Object tag) {
+            checkMainThread();
+            for (int i = subscribers.size() - 1; i >= 0; i--) {
+                if (subscribers.get(i).tag == tag) {
+                    subscribers.remove(i);
+                }
+            }
+            if (subscribers.isEmpty() && !finished) {
+                Log.d(TAG, "No one is waiting, cancelling "
+                        + (inFlight.isEmpty() ? "call" : inFlight.get(0).getUrl()));
+                finish(null, null);
+            }
+        }
+
+        void start() {
+            checkMainThread();
+            attempt();
+            if (!finished && policy.getHedgeAfterMs() > 0) {
+                handler.postDelayed(hedge, policy.getHedgeAfterMs());
+            }
+        }
+
+        private void hedge() {
+            // Only hedge the original attempt; once it has failed the retry path takes over.
+            if (!finished && inFlight.size() == 1 && attempts == 1) {
+                Log.d(TAG, "No answer after " + policy.getHedgeAfterMs() + " ms, hedging " + inFlight.get(0).getUrl());
+                attempt();
+            }
+        }
+
+        private void attempt() {
+            if (finished) {
+                return;
+            }
+            if (!circuitBreaker.allowRequest()) {
+                // A hedge or probe already on the wire will still report back.
+                if (inFlight.isEmpty()) {
+                    finish(null, new CircuitOpenError(circuitBreaker.getRemainingCooldownMs()));
+                }
+                return;
+            }
+            Attempt attempt = new Attempt();
+            attempt.request = factory.create(attempt, attempt);
+            attempt.request.setRetryPolicy(new AttemptRetryPolicy(policy.getTimeoutMs(), attempts));
+            attempts++;
+            inFlight.add(attempt.request);
+            requestQueue.add(attempt.request);
+        }
+
+        private void onResponse(Request<T> request, T response) {
+            checkMainThread();
+            inFlight.remove(request);
+            circuitBreaker.onSuccess();
+            if (finished) {
+                return;
+            }
+            finish(response, null);
+        }
+
+        private void onError(Request<T> request, VolleyError error) {
+            checkMainThread();
+            inFlight.remove(request);
+            if (RequestPolicy.isServerFailure(error)) {
+                circuitBreaker.onFailure();
+            } else if (error.networkResponse != null) {
+                circuitBreaker.onSuccess();
+            }
+            // Otherwise the server never answered, e.g. the device is offline: no verdict either way.
+            if (finished || !inFlight.isEmpty()) {
+                // Another copy is still running and may yet succeed.
+                return;
+            }
+            int code = error.networkResponse != null ? error.networkResponse.statusCode : 0;
+            if (code == 401 && policy.isAuthenticated() && !authReplayed && authRefresher != null) {
+                // One refresh-and-replay per call; the factory picks up the new token.
+                authReplayed = true;
+                Log.d(TAG, "Token rejected, refreshing before replaying " + request.getUrl());
+                authRefresher.refresh(this::attempt, () -> {
+                    if (!finished) {
+                        finish(null, error);
+                    }
+                });
+                return;
+            }
+            if (retries < policy.getMaxRetries() && RequestPolicy.isRetryable(error)) {
+                retries++;
+                long delay = policy.backoffDelayMs(retries);
+                Log.d(TAG, "Retry " + retries + " of " + request.getUrl() + " in " + delay + " ms");
+                handler.postDelayed(retry, delay);
+                return;
+            }
+            finish(null, error);
+        }
+
+        private class Attempt implements Response.Listener<T>, Response.ErrorListener {
+            Request<T> request;
+
+            @Override
+            public void onResponse(T response) {
+                Call.this.onResponse(request, response);
+            }
+
+            @Override
+            public void onErrorResponse(VolleyError error) {
+                Call.this.onError(request, error);
+            }
+        }
+
+        /**
+         * Ends the call and notifies its subscribers; with neither a response nor an error
+         * the call was cancelled and nobody is notified.
+         */
+        private void finish(T response, VolleyError error) {
+            finished = true;
+            handler.removeCallbacks(hedge);
+            handler.removeCallbacks(retry);
+            for (Request<T> request : inFlight) {
+                request.cancel();
+            }
+            inFlight.clear();
+            if (sharedKey != null && response != null) {
+                adoptOlderCalls();
+            }
+            calls.remove(this);
+            if (sharedKey != null && sharedCalls.get(sharedKey) == this) {
+                sharedCalls.remove(sharedKey);
+            }
+            if (response == null && error == null) {
+                return;
+            }
+            for (Subscriber<T> subscriber : new ArrayList<>(subscribers)) {
+                if (error != null) {
+                    subscriber.errorListener.onErrorResponse(error);
+                } else {
+                    subscriber.listener.onResponse(response);
+                }
+            }
+            subscribers.clear();
+        }
+
+        /**
+         * Takes over the callers of detached calls for the same key that started before
+         * this one and are still running, so their older answers are never delivered.
+         */
+        @SuppressWarnings("unchecked")
+        private void adoptOlderCalls() {
+            // Calls are kept in start order; stop at this one so newer calls are left alone.
+            for (Call<?> other : new ArrayList<>(calls)) {
+                if (other == this) {
+                    break;
+                }
+                if (sharedKey.equals(other.sharedKey)) {
+                    Call<T> older = (Call<T>) other;
+                    Log.d(TAG, "Answering " + older.subscribers.size() + " callers of an older identical read");
+                    subscribers.addAll(older.subscribers);
+                    older.subscribers.clear();
+                    older.finish(null, null);
+                }
+            }
+        }
+    }
+
+    /**
+     * Single-shot Volley policy with a fixed timeout. Reports earlier attempts of the same
+     * call as its retry count so MeteredHurlStack logs retries and hedges as such.
+     */
+    private static class AttemptRetryPolicy extends DefaultRetryPolicy {
+        private final int previousAttempts;
+
+        AttemptRetryPolicy(int timeoutMs, int previousAttempts) {
+            super(timeoutMs, 0, 1f);
+            this.previousAttempts = previousAttempts;
+        }
+
+        @Override
+        public int getCurrentRetryCount() {
+            return previousAttempts + super.getCurrentRetryCount();
+        }
+    }
+}
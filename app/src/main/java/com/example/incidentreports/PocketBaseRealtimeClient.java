@@ -0,0 +1,201 @@
+package com.example.incidentreports;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Keeps a PocketBase realtime (SSE) subscription open on a background thread and
+ * reconnects with exponential backoff whenever the stream drops. A stopped client
+ * cannot be restarted; create a new one instead.
+ */
+public class PocketBaseRealtimeClient {
+    private static final String TAG = "PocketBaseRealtime";
+    private static final String CONNECT_EVENT = "PB_CONNECT";
+    private static final int CONNECT_TIMEOUT_MS = 10000;
+    // PocketBase closes idle realtime clients after 5 minutes; wait a bit longer than that.
+    private static final int READ_TIMEOUT_MS = 6 * 60 * 1000;
+    private static final long MIN_BACKOFF_MS = 1000;
+    private static final long MAX_BACKOFF_MS = 60000;
+
+    public interface Listener {
+        void onConnected();
+        void onRecordEvent(String action, JSONObject record);
+        void onDisconnected();
+    }
+
+    private final String baseUrl;
+    private final String token;
+    private final String topic;
+    private final Listener listener;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    private volatile boolean running;
+    private boolean stopped;
+    private volatile HttpURLConnection streamConnection;
+    private Thread worker;
+
+    public PocketBaseRealtimeClient(String baseUrl, String token, String topic, Listener listener) {
+        this.baseUrl = baseUrl;
+        this.token = token;
+        this.topic = topic;
+        this.listener = listener;
+    }
+
+    public synchronized void start() {
+        if (running || stopped) {
+            return;
+        }
+        running = true;
+        worker = new Thread(this::runLoop, TAG);
+        worker.start();
+    }
+
+    public synchronized void stop() {
+        running = false;
+        stopped = true;
+        HttpURLConnection connection = streamConnection;
+        if (connection != null) {
+            connection.disconnect();
+        }
+        if (worker != null) {
+            worker.interrupt();
+            worker = null;
+        }
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void runLoop() {
+        long backoff = MIN_BACKOFF_MS;
+        while (running) {
+            boolean subscribed = false;
+            try {
+                subscribed = readStream();
+            } catch (IOException | JSONException e) {
+                Log.w(TAG, "Realtime stream dropped: " + e.getMessage());
+            } finally {
+                streamConnection = null;
+            }
+
+            if (!running) {
+                break;
+            }
+            mainHandler.post(() -> {
+                if (running) listener.onDisconnected();
+            });
+
+            if (subscribed) {
+                backoff = MIN_BACKOFF_MS;
+            }
+            try {
+                Thread.sleep(backoff);
+            } catch (InterruptedException e) {
+                break;
+            }
+            backoff = Math.min(backoff * 2, MAX_BACKOFF_MS);
+        }
+    }
+
+    /**
+     * Reads the event stream until it closes. Returns true if the subscription was
+     * established before the stream ended, so the caller can reset its backoff.
+     */
+    private boolean readStream() throws IOException, JSONException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(baseUrl + "/api/realtime").openConnection();
+        connection.setRequestProperty("Accept", "text/event-stream");
+        connection.setConnectTimeout(CONNECT_TIMEOUT_MS);
+        connection.setReadTimeout(READ_TIMEOUT_MS);
+        streamConnection = connection;
+
+        boolean subscribed = false;
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8))) {
+            String event = "";
+            StringBuilder data = new StringBuilder();
+            String line;
+            while (running && (line = reader.readLine()) != null) {
+                if (line.isEmpty()) {
+                    if (data.length() > 0) {
+                        if (CONNECT_EVENT.equals(event)) {
+                            String clientId = new JSONObject(data.toString()).getString("clientId");
+                            subscribe(clientId);
+                            subscribed = true;
+                            mainHandler.post(() -> {
+                                if (running) listener.onConnected();
+                            });
+                        } else {
+                            dispatch(data.toString());
+                        }
+                    }
+                    event = "";
+                    data.setLength(0);
+                } else if (line.startsWith("event:")) {
+                    event = line.substring(6).trim();
+                } else if (line.startsWith("data:")) {
+                    if (data.length() > 0) data.append('\n');
+                    data.append(line.substring(5).trim());
+                }
+            }
+        } finally {
+            connection.disconnect();
+        }
+        return subscribed;
+    }
+
+    private void subscribe(String clientId) throws IOException, JSONException {
+        JSONObject body = new JSONObject();
+        body.put("clientId", clientId);
+        body.put("subscriptions", new JSONArray().put(topic));
+
+        HttpURLConnection connection = (HttpURLConnection) new URL(baseUrl + "/api/realtime").openConnection();
+        try {
+            connection.setRequestMethod("POST");
+            connection.setDoOutput(true);
+            connection.setConnectTimeout(CONNECT_TIMEOUT_MS);
+            connection.setReadTimeout(CONNECT_TIMEOUT_MS);
+            connection.setRequestProperty("Content-Type", "application/json");
+            connection.setRequestProperty("Authorization", "Bearer " + token);
+            try (OutputStream out = connection.getOutputStream()) {
+                out.write(body.toString().getBytes(StandardCharsets.UTF_8));
+            }
+            int code = connection.getResponseCode();
+            if (code < 200 || code >= 300) {
+                throw new IOException("Realtime subscribe failed with HTTP " + code);
+            }
+            Log.d(TAG, "Subscribed to " + topic + " as client " + clientId);
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    private void dispatch(String payload) {
+        try {
+            JSONObject message = new JSONObject(payload);
+            String action = message.optString("action", "");
+            JSONObject record = message.optJSONObject("record");
+            if (record == null) {
+                return;
+            }
+            mainHandler.post(() -> {
+                if (running) listener.onRecordEvent(action, record);
+            });
+        } catch (JSONException e) {
+            Log.w(TAG, "Ignoring malformed realtime message: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.incidentreports;
+
+/**
+ * Converts PocketBase datetimes ("2024-01-31 08:15:00.123Z", always UTC) to and from
+ * epoch milliseconds. Hand-rolled because SimpleDateFormat allocates and is slow on the
+ * decode path, and java.time needs API 26.
+ */
+final class PocketBaseTime {
+    private static final long MS_PER_DAY = 24 * 60 * 60 * 1000L;
+
+    private PocketBaseTime() {
+    }
+
+    /**
+     * Epoch milliseconds, or 0 for an empty or malformed value. The date/time separator
+     * may be a space or 'T', and the milliseconds are optional.
+     */
+    static long parse(String value) {
+        if (value == null || value.length() < 19) {
+            return 0;
+        }
+        try {
+            int year = digits(value, 0, 4);
+            int month = digits(value, 5, 2);
+            int day = digits(value, 8, 2);
+            int hour = digits(value, 11, 2);
+            int minute = digits(value, 14, 2);
+            int second = digits(value, 17, 2);
+            int millis = value.length() >= 23 && value.charAt(19) == '.' ? digits(value, 20, 3) : 0;
+            return daysFromCivil(year, month, day) * MS_PER_DAY
+                    + ((hour * 60L + minute) * 60L + second) * 1000L + millis;
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * The PocketBase form of the given instant, or an empty string for 0.
+     */
+    static String format(long epochMs) {
+        if (epochMs == 0) {
+            return "";
+        }
+        long days = Math.floorDiv(epochMs, MS_PER_DAY);
+        int msOfDay = (int) Math.floorMod(epochMs, MS_PER_DAY);
+
+        // Inverse of daysFromCivil.
+        long z = days + 719468;
+        long era = Math.floorDiv(z, 146097);
+        long dayOfEra = z - era * 146097;
+        long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long shiftedMonth = (5 * dayOfYear + 2) / 153;
+        int day = (int) (dayOfYear - (153 * shiftedMonth + 2) / 5 + 1);
+        int month = (int) (shiftedMonth < 10 ? shiftedMonth + 3 : shiftedMonth - 9);
+        int year = (int) (yearOfEra + era * 400 + (month <= 2 ? 1 : 0));
+
+        char[] out = "0000-00-00 00:00:00.000Z".toCharArray();
+        put(out, 0, 4, year);
+        put(out, 5, 2, month);
+        put(out, 8, 2, day);
+        put(out, 11, 2, msOfDay / 3600000);
+        put(out, 14, 2, msOfDay / 60000 % 60);
+        put(out, 17, 2, msOfDay / 1000 % 60);
+        put(out, 20, 3, msOfDay % 1000);
+        return new String(out);
+    }
+
+    /**
+     * Days since 1970-01-01 of a proleptic Gregorian date (H. Hinnant's algorithm).
+     */
+    private static long daysFromCivil(int year, int month, int day) {
+        if (month < 1 || month > 12 || day < 1 || day > 31) {
+            throw new NumberFormatException("Bad date");
+        }
+        long y = month <= 2 ? year - 1 : year;
+        long era = Math.floorDiv(y, 400);
+        long yearOfEra = y - era * 400;
+        long dayOfYear = (153L * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097 + dayOfEra - 719468;
+    }
+
+    private static int digits(String value, int start, int count) {
+        int result = 0;
+        for (int i = start; i < start + count; i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                throw new NumberFormatException(value);
+            }
+            result = result * 10 + (c - '0');
+        }
+        return result;
+    }
+
+    private static void put(char[] out, int start, int count, int value) {
+        for (int i = start + count - 1; i >= start; i--) {
+            out[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+}
@@ -143,12 +143,15 @@ public class RegisterActivity extends AppCompatActivity {
         apiHelper.registerAdmin(fName, mName, lName, email, pass, contact, extension, new PocketBaseApiHelper.SimpleCallback() {
             @Override
             public void onSuccess() {
+                // Sign-up outlives the screen; there is nothing to show once it is gone.
+                if (isDestroyed()) return;
                 setLoading(false);
                 showSuccessDialog();
             }
 
             @Override
             public void onError(String message) {
+                if (isDestroyed()) return;
                 setLoading(false);
                 // In case of server error (e.g. email already exists)
                 new AlertDialog.Builder(RegisterActivity.this)
@@ -177,6 +180,13 @@ public class RegisterActivity extends AppCompatActivity {
         dialog.show();
     }
 
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        // Leaves an in-flight sign-up running; see PocketBaseApiHelper.registerAdmin.
+        apiHelper.cancelPendingRequests();
+    }
+
     private void setLoading(boolean loading) {
         progressBar.setVisibility(loading ? View.VISIBLE : View.GONE);
         btnRegister.setEnabled(!loading);
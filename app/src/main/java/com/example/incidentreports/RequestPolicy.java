@@ -0,0 +1,124 @@
+package com.example.incidentreports;
+
+import com.android.volley.NetworkError;
+import com.android.volley.NoConnectionError;
+import com.android.volley.TimeoutError;
+import com.android.volley.VolleyError;
+
+import java.util.Random;
+
+/**
+ * Timeout, retry and hedging settings for one kind of PocketBase call. Retries wait an
+ * exponentially growing, fully jittered delay so devices that failed together do not
+ * come back together. Hedging sends a second copy of a slow idempotent GET and keeps
+ * whichever answer arrives first. Authenticated calls rejected with a 401 are replayed
+ * once after the token has been refreshed.
+ */
+public class RequestPolicy {
+    // Password auth can be repeated safely; it is slow on the server because of hashing.
+    public static final RequestPolicy LOGIN = new RequestPolicy(15000, 1, 1000, 4000, 0, false);
+    // Sign-up creates records, so a timed-out attempt may already have landed: never repeat it.
+    public static final RequestPolicy SIGNUP = new RequestPolicy(15000, 0, 0, 0, 0, false);
+    // Deleting the record of a failed sign-up is idempotent, so it may be repeated.
+    public static final RequestPolicy ROLLBACK = new RequestPolicy(10000, 2, 1000, 8000, 0, false);
+    // A rejected refresh means the session is over; it must not trigger another refresh.
+    public static final RequestPolicy AUTH_REFRESH = new RequestPolicy(10000, 1, 1000, 4000, 0, false);
+    public static final RequestPolicy LIST = new RequestPolicy(10000, 2, 500, 4000, 2000, true);
+    public static final RequestPolicy GET = new RequestPolicy(8000, 2, 500, 4000, 1500, true);
+    // Probes run on every poll; fail fast and let the poll scheduler back off instead.
+    public static final RequestPolicy PROBE = new RequestPolicy(5000, 0, 0, 0, 0, true);
+    // Setting a status to a fixed value is idempotent, so PATCH and batch may be retried.
+    public static final RequestPolicy PATCH = new RequestPolicy(10000, 2, 1000, 8000, 0, true);
+    public static final RequestPolicy BATCH = new RequestPolicy(15000, 1, 1000, 8000, 0, true);
+
+    private static final Random random = new Random();
+
+    private final int timeoutMs;
+    private final int maxRetries;
+    private final long baseBackoffMs;
+    private final long maxBackoffMs;
+    private final long hedgeAfterMs;
+    private final boolean authenticated;
+
+    /**
+     * @param timeoutMs     socket timeout of each attempt
+     * @param maxRetries    attempts after the first; hedges do not count
+     * @param baseBackoffMs delay cap before the first retry, doubled for each further one
+     * @param maxBackoffMs  upper bound of the delay cap
+     * @param hedgeAfterMs  send a second copy when the first has not answered by then; 0 disables
+     * @param authenticated the call carries the session token and may be replayed after a refresh
+     */
+    public RequestPolicy(int timeoutMs, int maxRetries, long baseBackoffMs, long maxBackoffMs, long hedgeAfterMs,
+                         boolean authenticated) {
+        this.timeoutMs = timeoutMs;
+        this.maxRetries = maxRetries;
+        this.baseBackoffMs = baseBackoffMs;
+        this.maxBackoffMs = maxBackoffMs;
+        this.hedgeAfterMs = hedgeAfterMs;
+        this.authenticated = authenticated;
+    }
+
+    public int getTimeoutMs() {
+        return timeoutMs;
+    }
+
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+
+    public long getHedgeAfterMs() {
+        return hedgeAfterMs;
+    }
+
+    public boolean isAuthenticated() {
+        return authenticated;
+    }
+
+    /**
+     * Delay before the given retry (1 for the first): uniformly random up to the capped
+     * exponential bound ("full jitter").
+     */
+    public long backoffDelayMs(int retry) {
+        long cap = Math.min(baseBackoffMs << Math.min(retry - 1, 10), maxBackoffMs);
+        if (cap <= 0) {
+            return 0;
+        }
+        synchronized (random) {
+            return (long) (random.nextDouble() * cap);
+        }
+    }
+
+    /**
+     * Whether repeating the call could succeed: timeouts, connection failures, 5xx and 429.
+     */
+    public static boolean isRetryable(VolleyError error) {
+        if (error instanceof CircuitOpenError) {
+            return false;
+        }
+        if (error instanceof TimeoutError) {
+            return true;
+        }
+        int code = error.networkResponse != null ? error.networkResponse.statusCode : 0;
+        if (code == 429) {
+            return true;
+        }
+        if (code >= 500) {
+            return code != 501;
+        }
+        return code == 0 && error instanceof NetworkError;
+    }
+
+    /**
+     * Whether the error says the server is unhealthy, as opposed to rejecting this one
+     * request. Only these count towards opening the {@link CircuitBreaker}. A device that
+     * is offline or cannot resolve the host ({@link NoConnectionError}) says nothing about
+     * the server, so those failures are retried but neither trip the breaker nor close it.
+     */
+    public static boolean isServerFailure(VolleyError error) {
+        if (error instanceof CircuitOpenError || error instanceof NoConnectionError) {
+            return false;
+        }
+        int code = error.networkResponse != null ? error.networkResponse.statusCode : 0;
+        return code >= 500 || code == 0 && (error instanceof TimeoutError || error instanceof NetworkError);
+    }
+}
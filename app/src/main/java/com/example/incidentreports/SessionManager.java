@@ -2,15 +2,30 @@ package com.example.incidentreports;
 
 import android.content.Context;
 import android.content.SharedPreferences;
+import android.util.Base64;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.nio.charset.StandardCharsets;
 
 /**
- * Stores authenticated admin session details for PocketBase calls.
+ * Stores authenticated admin session details for PocketBase calls. The session is read
+ * from preferences once per process and served from memory afterwards, together with
+ * the expiry decoded from the token.
  */
 public class SessionManager {
     private static final String PREF_NAME = "fire_app_session";
     private static final String KEY_TOKEN = "auth_token";
     private static final String KEY_USER_ID = "user_id";
     private static final String KEY_FULL_NAME = "full_name";
+    private static final String KEY_POSITION = "position";
+    // Admin positions allowed to watch every incident, not just their own assignments.
+    private static final String POSITION_DISPATCHER = "dispatcher";
+    private static final String POSITION_SUPERVISOR = "supervisor";
+
+    // Shared by every instance; null until first read from preferences.
+    private static volatile Session cached;
 
     private final SharedPreferences sharedPreferences;
 
@@ -18,24 +33,62 @@ public class SessionManager {
         sharedPreferences = context.getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE);
     }
 
-    public void saveSession(String token, String userId, String fullName) {
-        sharedPreferences.edit()
-                .putString(KEY_TOKEN, token)
-                .putString(KEY_USER_ID, userId)
-                .putString(KEY_FULL_NAME, fullName)
-                .apply();
+    public void saveSession(String token, String userId, String fullName, String position) {
+        synchronized (SessionManager.class) {
+            cached = new Session(token, userId, fullName, position);
+            sharedPreferences.edit()
+                    .putString(KEY_TOKEN, token)
+                    .putString(KEY_USER_ID, userId)
+                    .putString(KEY_FULL_NAME, fullName)
+                    .putString(KEY_POSITION, position)
+                    .apply();
+        }
+    }
+
+    /**
+     * Replaces the token after an auth refresh, keeping the rest of the session.
+     */
+    public void updateToken(String token) {
+        synchronized (SessionManager.class) {
+            Session session = session();
+            cached = new Session(token, session.userId, session.fullName, session.position);
+            sharedPreferences.edit().putString(KEY_TOKEN, token).apply();
+        }
     }
 
     public String getToken() {
-        return sharedPreferences.getString(KEY_TOKEN, "");
+        return session().token;
     }
 
     public String getUserId() {
-        return sharedPreferences.getString(KEY_USER_ID, "");
+        return session().userId;
     }
 
     public String getFullName() {
-        return sharedPreferences.getString(KEY_FULL_NAME, "");
+        return session().fullName;
+    }
+
+    /**
+     * The "position" of the signed-in admin record, e.g. "admin" or "dispatcher".
+     */
+    public String getPosition() {
+        return session().position;
+    }
+
+    /**
+     * Whether the dispatch view over every incident is offered. The server's list rule
+     * still decides what the account may read; this only hides the entry point.
+     */
+    public boolean canDispatch() {
+        String position = getPosition();
+        return POSITION_DISPATCHER.equals(position) || POSITION_SUPERVISOR.equals(position);
+    }
+
+    /**
+     * Wall-clock time the token expires at, or 0 when it carries no readable expiry.
+     */
+    public long getTokenExpiryMs() {
+        return session().expiresAtMs;
     }
 
     public boolean isLoggedIn() {
@@ -43,6 +96,57 @@ public class SessionManager {
     }
 
     public void clearSession() {
-        sharedPreferences.edit().clear().apply();
+        synchronized (SessionManager.class) {
+            cached = new Session("", "", "", "");
+            sharedPreferences.edit().clear().apply();
+        }
+    }
+
+    private Session session() {
+        Session session = cached;
+        if (session == null) {
+            synchronized (SessionManager.class) {
+                if (cached == null) {
+                    cached = new Session(sharedPreferences.getString(KEY_TOKEN, ""),
+                            sharedPreferences.getString(KEY_USER_ID, ""),
+                            sharedPreferences.getString(KEY_FULL_NAME, ""),
+                            sharedPreferences.getString(KEY_POSITION, ""));
+                }
+                session = cached;
+            }
+        }
+        return session;
+    }
+
+    /**
+     * Reads the "exp" claim of a JWT without verifying it; the server does that.
+     */
+    static long readExpiryMs(String token) {
+        String[] parts = token.split("\\.");
+        if (parts.length < 2) {
+            return 0;
+        }
+        try {
+            byte[] payload = Base64.decode(parts[1], Base64.URL_SAFE | Base64.NO_PADDING | Base64.NO_WRAP);
+            return new JSONObject(new String(payload, StandardCharsets.UTF_8)).optLong("exp", 0) * 1000;
+        } catch (IllegalArgumentException | JSONException e) {
+            return 0;
+        }
+    }
+
+    private static class Session {
+        final String token;
+        final String userId;
+        final String fullName;
+        final String position;
+        final long expiresAtMs;
+
+        Session(String token, String userId, String fullName, String position) {
+            this.token = token;
+            this.userId = userId;
+            this.fullName = fullName;
+            this.position = position;
+            this.expiresAtMs = token.isEmpty() ? 0 : readExpiryMs(token);
+        }
     }
 }
@@ -0,0 +1,267 @@
+package com.example.incidentreports;
+
+import android.content.Context;
+import android.net.ConnectivityManager;
+import android.net.Network;
+import android.net.NetworkCapabilities;
+import android.net.NetworkRequest;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import android.widget.Toast;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Durable outbound queue for incident status changes. Changes are stored on disk and
+ * shown right away, then sent when the network is available. Each incident keeps only
+ * its latest queued status, so repeated taps collapse into one PATCH.
+ *
+ * Statuses only move forward (pending, ongoing, resolved). Before sending, the queue
+ * reads the current server statuses and drops any change the server already has or has
+ * moved past, so replaying a flush whose response was lost cannot apply a transition twice.
+ *
+ * A change the server refuses outright, e.g. because the responder was unassigned, is
+ * dropped rather than retried: the cached record goes back to the server's status and
+ * the responder is told.
+ */
+public class StatusUpdateQueue {
+    private static final String TAG = "StatusUpdateQueue";
+
+    private static StatusUpdateQueue instance;
+
+    public interface Listener {
+        void onQueueChanged();
+    }
+
+    private final Context appContext;
+    private final PocketBaseApiHelper apiHelper;
+    private final IncidentLocalStore localStore;
+    private final Map<String, String> pendingById = new LinkedHashMap<>();
+    private final List<Listener> listeners = new ArrayList<>();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    private boolean loaded = false;
+    private boolean flushing = false;
+    private boolean flushAgain = false;
+
+    private StatusUpdateQueue(Context context) {
+        appContext = context.getApplicationContext();
+        apiHelper = new PocketBaseApiHelper(appContext);
+        localStore = IncidentLocalStore.getInstance(appContext);
+
+        localStore.loadPendingStatuses(stored -> {
+            for (Map.Entry<String, String> entry : stored.entrySet()) {
+                // Anything queued after start-up is newer than what was on disk.
+                if (!pendingById.containsKey(entry.getKey())) {
+                    pendingById.put(entry.getKey(), entry.getValue());
+                }
+            }
+            loaded = true;
+            notifyListeners();
+            flush();
+        });
+
+        ConnectivityManager connectivityManager = appContext.getSystemService(ConnectivityManager.class);
+        NetworkRequest request = new NetworkRequest.Builder()
+                .addCapability(NetworkCapabilities.NET_CAPABILITY_INTERNET)
+                .build();
+        connectivityManager.registerNetworkCallback(request, new ConnectivityManager.NetworkCallback() {
+            @Override
+            public void onAvailable(Network network) {
+                mainHandler.post(StatusUpdateQueue.this::flush);
+            }
+        });
+    }
+
+    public static synchronized StatusUpdateQueue getInstance(Context context) {
+        if (instance == null) {
+            instance = new StatusUpdateQueue(context);
+        }
+        return instance;
+    }
+
+    /**
+     * Queues a status change, updates the cached record so it shows immediately, and
+     * tries to send it straight away.
+     */
+    public void enqueue(String incidentId, String status) {
+        pendingById.put(incidentId, status);
+        localStore.savePendingStatus(incidentId, status);
+        localStore.updateStatus(incidentId, status);
+        IncidentMemoryCache.getInstance().updateStatus(incidentId, status);
+        notifyListeners();
+        flush();
+    }
+
+    public boolean isPending(String incidentId) {
+        return pendingById.containsKey(incidentId);
+    }
+
+    public boolean hasPending() {
+        return !pendingById.isEmpty();
+    }
+
+    /**
+     * Returns the record with its queued status applied, or the record itself if
+     * nothing is queued for it.
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends IncidentSummary> T applyPending(T incident) {
+        String status = pendingById.get(incident.getId());
+        // withStatus is overridden covariantly, so the copy has the same class as the input.
+        return status != null ? (T) incident.withStatus(status) : incident;
+    }
+
+    public List<IncidentSummary> applyPending(List<IncidentSummary> incidents) {
+        if (pendingById.isEmpty()) {
+            return incidents;
+        }
+        List<IncidentSummary> result = new ArrayList<>(incidents.size());
+        for (IncidentSummary incident : incidents) {
+            result.add(applyPending(incident));
+        }
+        return result;
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Drops queued changes without sending them, e.g. when the session ends.
+     */
+    public void clear() {
+        pendingById.clear();
+        notifyListeners();
+    }
+
+    /**
+     * Sends every queued change. Safe to call at any time; overlapping calls are folded
+     * into a single follow-up flush.
+     */
+    public void flush() {
+        if (!loaded || pendingById.isEmpty() || !isOnline()) {
+            return;
+        }
+        if (flushing) {
+            flushAgain = true;
+            return;
+        }
+        String token = new SessionManager(appContext).getToken();
+        if (token.isEmpty()) {
+            return;
+        }
+
+        flushing = true;
+        Map<String, String> batch = new LinkedHashMap<>(pendingById);
+        apiHelper.fetchIncidentStatuses(token, batch.keySet(), new PocketBaseApiHelper.StatusMapCallback() {
+            @Override
+            public void onSuccess(Map<String, String> serverStatusById) {
+                Map<String, String> toSend = new HashMap<>();
+                for (Map.Entry<String, String> entry : batch.entrySet()) {
+                    String serverStatus = serverStatusById.get(entry.getKey());
+                    if (serverStatus != null && statusRank(serverStatus) < statusRank(entry.getValue())) {
+                        toSend.put(entry.getKey(), entry.getValue());
+                    } else {
+                        // Already applied, superseded, or the incident is gone.
+                        markSent(entry.getKey(), entry.getValue());
+                    }
+                }
+                apiHelper.updateIncidentStatuses(token, toSend, new PocketBaseApiHelper.StatusUpdateCallback() {
+                    @Override
+                    public void onSuccess(Map<String, String> rejectedById) {
+                        for (Map.Entry<String, String> entry : toSend.entrySet()) {
+                            String rejection = rejectedById.get(entry.getKey());
+                            if (rejection != null) {
+                                markRejected(entry.getKey(), entry.getValue(), serverStatusById.get(entry.getKey()), rejection);
+                            } else {
+                                markSent(entry.getKey(), entry.getValue());
+                            }
+                        }
+                        finishFlush();
+                    }
+
+                    @Override
+                    public void onError(String message) {
+                        Log.w(TAG, "Status flush failed, will retry: " + message);
+                        finishFlush();
+                    }
+                });
+            }
+
+            @Override
+            public void onError(String message) {
+                Log.w(TAG, "Could not read server statuses, will retry: " + message);
+                finishFlush();
+            }
+        });
+    }
+
+    private void markSent(String incidentId, String status) {
+        localStore.deletePendingStatus(incidentId, status);
+        // Keep the entry if the responder queued a newer status while this was in flight.
+        if (status.equals(pendingById.get(incidentId))) {
+            pendingById.remove(incidentId);
+        }
+    }
+
+    private void markRejected(String incidentId, String status, String serverStatus, String message) {
+        Log.w(TAG, "Status " + status + " for " + incidentId + " rejected, dropping it: " + message);
+        markSent(incidentId, status);
+        if (!pendingById.containsKey(incidentId)) {
+            localStore.updateStatus(incidentId, serverStatus);
+            IncidentMemoryCache.getInstance().updateStatus(incidentId, serverStatus);
+        }
+        Toast.makeText(appContext, "Status change to " + status + " was not accepted: " + message,
+                Toast.LENGTH_LONG).show();
+    }
+
+    private void finishFlush() {
+        flushing = false;
+        notifyListeners();
+        if (flushAgain) {
+            flushAgain = false;
+            flush();
+        }
+    }
+
+    private void notifyListeners() {
+        for (Listener listener : new ArrayList<>(listeners)) {
+            listener.onQueueChanged();
+        }
+    }
+
+    /**
+     * Whether the device has a network that reaches the internet, i.e. whether a queued
+     * change is sent now rather than when the connection returns.
+     */
+    public boolean isOnline() {
+        ConnectivityManager connectivityManager = appContext.getSystemService(ConnectivityManager.class);
+        Network network = connectivityManager.getActiveNetwork();
+        if (network == null) {
+            return false;
+        }
+        NetworkCapabilities capabilities = connectivityManager.getNetworkCapabilities(network);
+        return capabilities != null && capabilities.hasCapability(NetworkCapabilities.NET_CAPABILITY_INTERNET);
+    }
+
+    private static int statusRank(String status) {
+        switch (IncidentStatus.fromValue(status)) {
+            case RESOLVED:
+                return 2;
+            case ONGOING:
+                return 1;
+            default:
+                return 0;
+        }
+    }
+}
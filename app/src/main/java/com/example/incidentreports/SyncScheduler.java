@@ -0,0 +1,135 @@
+package com.example.incidentreports;
+
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.net.ConnectivityManager;
+import android.os.BatteryManager;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.PowerManager;
+
+/**
+ * Decides when the foreground list polls next. It polls fast while an incident is
+ * active, backs off exponentially while nothing changes or requests keep failing, and
+ * stretches every interval on metered networks, in battery saver or on low battery.
+ * While the shared circuit breaker is open it waits out the breaker's cool-down.
+ */
+public class SyncScheduler {
+    private static final long ACTIVE_INTERVAL_MS = 5000;
+    private static final long IDLE_INTERVAL_MS = 15000;
+    private static final long MAX_UNCHANGED_INTERVAL_MS = 2 * 60 * 1000;
+    private static final long MAX_ERROR_INTERVAL_MS = 5 * 60 * 1000;
+    private static final int CONSTRAINED_MULTIPLIER = 3;
+    private static final int LOW_BATTERY_PERCENT = 15;
+
+    private final Context appContext;
+    private final CircuitBreaker circuitBreaker;
+    private final Runnable syncTask;
+    private final Handler handler = new Handler(Looper.getMainLooper());
+
+    private boolean running = false;
+    private boolean hasActiveIncident = false;
+    private int unchangedStreak = 0;
+    private int errorStreak = 0;
+
+    // Re-arms itself so a poll that never reports back cannot stall the loop; a report
+    // reschedules from the moment the result arrived.
+    private final Runnable tick = () -> {
+        syncTask.run();
+        scheduleNext();
+    };
+
+    public SyncScheduler(Context context, Runnable syncTask) {
+        this.appContext = context.getApplicationContext();
+        this.circuitBreaker = PocketBaseClient.getInstance(context).getCircuitBreaker();
+        this.syncTask = syncTask;
+    }
+
+    public void start() {
+        running = true;
+        scheduleNext();
+    }
+
+    public void stop() {
+        running = false;
+        handler.removeCallbacks(tick);
+    }
+
+    public void setHasActiveIncident(boolean active) {
+        if (hasActiveIncident == active) {
+            return;
+        }
+        hasActiveIncident = active;
+        if (active) {
+            unchangedStreak = 0;
+            if (running) scheduleNext();
+        }
+    }
+
+    /**
+     * The last poll found new data: return to the base cadence.
+     */
+    public void onChanged() {
+        unchangedStreak = 0;
+        errorStreak = 0;
+        scheduleNext();
+    }
+
+    public void onUnchanged() {
+        unchangedStreak++;
+        errorStreak = 0;
+        scheduleNext();
+    }
+
+    public void onFailed() {
+        errorStreak++;
+        scheduleNext();
+    }
+
+    long nextIntervalMs() {
+        long interval;
+        if (errorStreak > 0) {
+            interval = backoff(ACTIVE_INTERVAL_MS, errorStreak, MAX_ERROR_INTERVAL_MS);
+        } else {
+            long base = hasActiveIncident ? ACTIVE_INTERVAL_MS : IDLE_INTERVAL_MS;
+            interval = backoff(base, unchangedStreak, MAX_UNCHANGED_INTERVAL_MS);
+        }
+        if (isConstrained()) {
+            interval *= CONSTRAINED_MULTIPLIER;
+        }
+        // Polling an open breaker would only fail locally; wake up when a probe is allowed.
+        return Math.max(interval, circuitBreaker.getRemainingCooldownMs());
+    }
+
+    private void scheduleNext() {
+        handler.removeCallbacks(tick);
+        if (running) {
+            handler.postDelayed(tick, nextIntervalMs());
+        }
+    }
+
+    private static long backoff(long base, int streak, long max) {
+        // Cap the shift so the multiplication cannot overflow on long streaks.
+        return Math.min(base << Math.min(streak, 10), max);
+    }
+
+    private boolean isConstrained() {
+        ConnectivityManager connectivityManager = appContext.getSystemService(ConnectivityManager.class);
+        if (connectivityManager != null && connectivityManager.isActiveNetworkMetered()) {
+            return true;
+        }
+        PowerManager powerManager = appContext.getSystemService(PowerManager.class);
+        if (powerManager != null && powerManager.isPowerSaveMode()) {
+            return true;
+        }
+        Intent battery = appContext.registerReceiver(null, new IntentFilter(Intent.ACTION_BATTERY_CHANGED));
+        if (battery == null) {
+            return false;
+        }
+        int level = battery.getIntExtra(BatteryManager.EXTRA_LEVEL, -1);
+        int scale = battery.getIntExtra(BatteryManager.EXTRA_SCALE, -1);
+        int plugged = battery.getIntExtra(BatteryManager.EXTRA_PLUGGED, 0);
+        return plugged == 0 && level >= 0 && scale > 0 && level * 100 / scale <= LOW_BATTERY_PERCENT;
+    }
+}
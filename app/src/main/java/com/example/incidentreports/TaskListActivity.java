@@ -1,87 +1,360 @@
 package com.example.incidentreports;
 
+import android.Manifest;
+import android.annotation.SuppressLint;
 import android.content.Intent;
+import android.content.pm.PackageManager;
+import android.location.Location;
+import android.location.LocationListener;
+import android.location.LocationManager;
 import android.media.MediaPlayer;
+import android.os.Build;
 import android.os.Bundle;
-import android.os.Handler;
 import android.os.Looper;
+import android.os.SystemClock;
+import android.text.Editable;
+import android.text.TextWatcher;
+import android.util.Log;
 import android.view.View;
+import android.view.ViewTreeObserver;
+import android.widget.EditText;
 import android.widget.ImageButton;
 import android.widget.ProgressBar;
 import android.widget.TextView;
 import android.widget.Toast;
 
+import androidx.annotation.NonNull;
 import androidx.appcompat.app.AppCompatActivity;
+import androidx.core.app.ActivityCompat;
+import androidx.core.content.ContextCompat;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
+import com.bumptech.glide.Glide;
+import com.bumptech.glide.RequestManager;
+import com.bumptech.glide.integration.recyclerview.RecyclerViewPreloader;
+import com.bumptech.glide.util.FixedPreloadSizeProvider;
+import com.google.android.material.chip.ChipGroup;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 public class TaskListActivity extends AppCompatActivity {
+    private static final String TAG = "TaskListActivity";
+
     private SessionManager sessionManager;
     private PocketBaseApiHelper apiHelper;
     private IncidentAdapter adapter;
+    private RecyclerView recyclerView;
+    private LinearLayoutManager layoutManager;
     private ProgressBar progressBar;
     private TextView txtEmpty;
-    private int lastKnownIncidentCount = 0;
     private MediaPlayer mediaPlayer; // Keep a reference to the MediaPlayer
+    private PocketBaseRealtimeClient realtimeClient;
+    private final IncidentSyncStore incidentStore = new IncidentSyncStore();
+    private IncidentLocalStore localStore;
+    private StatusUpdateQueue statusQueue;
+    private final StatusUpdateQueue.Listener queueListener = this::showIncidents;
+    private AuthTokenManager tokenManager;
+    private final AuthTokenManager.SessionListener sessionListener = () -> {
+        Toast.makeText(this, "Your session has expired. Please log in again.", Toast.LENGTH_LONG).show();
+        logoutAndGoToLogin();
+    };
+    // The stream was subscribed with the old token; reconnect it with the new one.
+    private final AuthTokenManager.TokenListener tokenListener = token -> {
+        if (realtimeClient != null) startRealtime();
+    };
+    private boolean hasServerSnapshot = false;
+    private int pollsSinceFullSync = 0;
+    private IncidentListFingerprint lastFingerprint;
+    private IncidentPager pager;
+    private boolean refreshShowsLoader = false;
+    private long createdAtMs;
+    // Answered from the in-memory index of loaded incidents, without a server round-trip.
+    private final Set<String> statusFilter = new HashSet<>();
+    private String textFilter = "";
+    private boolean nearbyOnly = false;
+    private LocationManager locationManager;
+    private final LocationListener locationListener = new LocationListener() {
+        @Override
+        public void onLocationChanged(@NonNull Location location) {
+            onLocation(location);
+        }
+
+        // Overridden because they are not default methods before API 29.
+        @Override
+        public void onStatusChanged(String provider, int status, Bundle extras) {
+        }
+
+        @Override
+        public void onProviderEnabled(@NonNull String provider) {
+        }
+
+        @Override
+        public void onProviderDisabled(@NonNull String provider) {
+        }
+    };
 
-    private final Handler autoRefreshHandler = new Handler(Looper.getMainLooper());
-    private static final int REFRESH_INTERVAL = 5000;
+    private SyncScheduler syncScheduler;
+    private IncidentMemoryCache memoryCache;
+    private static final int REQUEST_NOTIFICATIONS = 1;
+    private static final int REQUEST_LOCATION = 2;
+    private static final double NEARBY_RADIUS_KM = 5;
+    private static final long LOCATION_INTERVAL_MS = 10 * 1000;
+    private static final float LOCATION_MIN_DISTANCE_M = 25;
+    // Read by IncidentSyncWorker so it skips runs while this screen is already polling.
+    private static volatile boolean visible = false;
+    // Safety net for changes the probe cannot tell apart (e.g. one unassignment plus one
+    // new assignment in the same cycle): resync fully every five minutes.
+    private static final int FULL_SYNC_EVERY = 60;
+    private static final int PAGE_SIZE = 20;
+    // Pending incidents at the top of the list whose detail and image are fetched ahead of a tap.
+    private static final int PREFETCH_DETAILS = 3;
+    // Rows ahead of the viewport whose thumbnails are requested before they scroll in.
+    private static final int THUMBNAIL_PRELOAD_ROWS = 6;
+    // Start loading the next page when this many rows are left below the viewport.
+    private static final int PREFETCH_DISTANCE = 5;
+    private static final List<String> ACTIVE_STATUSES = Arrays.asList("pending", "ongoing");
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
+        createdAtMs = SystemClock.elapsedRealtime();
         setContentView(R.layout.activity_task_list);
 
         sessionManager = new SessionManager(this);
         apiHelper = new PocketBaseApiHelper(this);
+        localStore = IncidentLocalStore.getInstance(this);
+        memoryCache = IncidentMemoryCache.getInstance();
+        syncScheduler = new SyncScheduler(this, this::syncAssignedTasks);
+        statusQueue = StatusUpdateQueue.getInstance(this);
+        tokenManager = AuthTokenManager.getInstance(this);
+        locationManager = (LocationManager) getSystemService(LOCATION_SERVICE);
 
         if (!sessionManager.isLoggedIn()) {
             logoutAndGoToLogin();
             return;
         }
 
+        IncidentSyncWorker.schedule(this);
+        requestNotificationPermission();
+
         TextView txtWelcome = findViewById(R.id.txtWelcome);
         txtWelcome.setText("Welcome, " + sessionManager.getFullName());
+        if (BuildConfig.DEBUG) {
+            // Hidden entry to the request metrics screen for debug builds.
+            txtWelcome.setOnLongClickListener(v -> {
+                startActivity(new Intent(this, MetricsActivity.class));
+                return true;
+            });
+        }
 
         ImageButton btnLogout = findViewById(R.id.btnLogout);
         btnLogout.setOnClickListener(v -> logoutAndGoToLogin());
+        View btnAllIncidents = findViewById(R.id.btnAllIncidents);
+        if (sessionManager.canDispatch()) {
+            btnAllIncidents.setOnClickListener(v -> startActivity(new Intent(this, DispatchActivity.class)));
+        } else {
+            btnAllIncidents.setVisibility(View.GONE);
+        }
+
+        bindFilters();
 
-        RecyclerView recyclerView = findViewById(R.id.recyclerIncidents);
+        recyclerView = findViewById(R.id.recyclerIncidents);
         progressBar = findViewById(R.id.progressTasks);
         txtEmpty = findViewById(R.id.txtEmpty);
 
-        adapter = new IncidentAdapter(incidentReport -> {
+        RequestManager glide = Glide.with(this);
+        int thumbnailSizePx = getResources().getDimensionPixelSize(R.dimen.dp_80);
+        adapter = new IncidentAdapter(this, glide, apiHelper, thumbnailSizePx, incident -> {
             stopNotificationSound(); // Stop the sound when an incident is clicked
             Intent intent = new Intent(TaskListActivity.this, IncidentDetailActivity.class);
-            intent.putExtra("incident_id", incidentReport.getId());
+            intent.putExtra("incident_id", incident.getId());
             startActivity(intent);
         });
 
-        recyclerView.setLayoutManager(new LinearLayoutManager(this));
+        layoutManager = new LinearLayoutManager(this);
+        recyclerView.setLayoutManager(layoutManager);
         recyclerView.setAdapter(adapter);
+        recyclerView.addOnScrollListener(new RecyclerViewPreloader<>(glide, adapter,
+                new FixedPreloadSizeProvider<>(thumbnailSizePx, thumbnailSizePx), THUMBNAIL_PRELOAD_ROWS));
+        recyclerView.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrollStateChanged(@NonNull RecyclerView rv, int newState) {
+                // Rows fly past too fast to be seen during a fling; load once it settles.
+                if (newState == RecyclerView.SCROLL_STATE_SETTLING) {
+                    glide.pauseRequests();
+                } else {
+                    glide.resumeRequests();
+                }
+            }
+
+            @Override
+            public void onScrolled(@NonNull RecyclerView rv, int dx, int dy) {
+                // dy is 0 when a layout changed the visible rows, e.g. after a page landed.
+                if (dy >= 0) {
+                    loadMoreIfNearEnd();
+                }
+            }
+        });
+        reportTimeToFirstRow(recyclerView);
+
+        pager = new IncidentPager(apiHelper, sessionManager.getToken(), IncidentQuery.assignedTo(sessionManager.getUserId()), PAGE_SIZE,
+                new IncidentPager.Listener() {
+                    @Override
+                    public void onRefreshed(List<IncidentSummary> incidents) {
+                        setLoading(false);
+                        hasServerSnapshot = true;
+                        if (incidentStore.matches(incidents)) {
+                            syncScheduler.onUnchanged();
+                        } else {
+                            syncScheduler.onChanged();
+                        }
+                        if (incidentStore.replaceAll(incidents) > 0 && !refreshShowsLoader) {
+                            playNotificationSound();
+                        }
+                        refreshShowsLoader = false;
+                        localStore.replaceAll(incidents);
+                        memoryCache.putAll(incidents);
+                        showIncidents();
+                        prefetchTopPending(incidents);
+                        recyclerView.post(TaskListActivity.this::loadMoreIfNearEnd);
+                    }
+
+                    @Override
+                    public void onPageAppended(List<IncidentSummary> incidents) {
+                        incidentStore.merge(incidents);
+                        localStore.upsert(incidents);
+                        memoryCache.putAll(incidents);
+                        showIncidents();
+                        recyclerView.post(TaskListActivity.this::loadMoreIfNearEnd);
+                    }
+
+                    @Override
+                    public void onError(String message, boolean refreshing) {
+                        if (refreshing && refreshShowsLoader) {
+                            setLoading(false);
+                            if (incidentStore.size() > 0) {
+                                Toast.makeText(TaskListActivity.this, "Offline: showing saved incidents.", Toast.LENGTH_SHORT).show();
+                            } else {
+                                Toast.makeText(TaskListActivity.this, "Failed to load tasks: " + message, Toast.LENGTH_LONG).show();
+                            }
+                        }
+                        if (refreshing) {
+                            refreshShowsLoader = false;
+                            lastFingerprint = null;
+                            syncScheduler.onFailed();
+                        }
+                    }
+                });
+
+        // Render the last known list straight away; the server refresh in onResume reconciles it.
+        localStore.loadAll(cached -> {
+            if (hasServerSnapshot || cached.isEmpty()) {
+                return;
+            }
+            incidentStore.replaceAll(cached);
+            memoryCache.putAll(cached);
+            setLoading(false);
+            showIncidents();
+        });
     }
 
-    private final Runnable refreshRunnable = new Runnable() {
-        @Override
-        public void run() {
-            fetchAssignedTasks(false);
-            autoRefreshHandler.postDelayed(this, REFRESH_INTERVAL);
+    private void bindFilters() {
+        ChipGroup chipsStatus = findViewById(R.id.chipsTaskStatus);
+        chipsStatus.setOnCheckedStateChangeListener((group, checkedIds) -> {
+            statusFilter.clear();
+            if (checkedIds.contains(R.id.chipTaskPending)) statusFilter.add("pending");
+            if (checkedIds.contains(R.id.chipTaskOngoing)) statusFilter.add("ongoing");
+            if (checkedIds.contains(R.id.chipTaskResolved)) statusFilter.add("resolved");
+            boolean nearby = checkedIds.contains(R.id.chipTaskNearby);
+            if (nearby != nearbyOnly) {
+                nearbyOnly = nearby;
+                if (nearby) {
+                    startLocationUpdates();
+                } else {
+                    stopLocationUpdates();
+                }
+            }
+            showIncidents();
+        });
+        EditText edtFilter = findViewById(R.id.edtFilter);
+        edtFilter.addTextChangedListener(new TextWatcher() {
+            @Override
+            public void beforeTextChanged(CharSequence s, int start, int count, int after) {
+            }
+
+            @Override
+            public void onTextChanged(CharSequence s, int start, int before, int count) {
+            }
+
+            @Override
+            public void afterTextChanged(Editable s) {
+                textFilter = s.toString();
+                showIncidents();
+            }
+        });
+    }
+
+    /**
+     * Loads the next page once the rows below the viewport run low. Also checked after
+     * every page lands: a list shorter than the screen cannot be scrolled, so no scroll
+     * would ever ask for the rest.
+     */
+    private void loadMoreIfNearEnd() {
+        if (layoutManager.findLastVisibleItemPosition() >= adapter.getItemCount() - PREFETCH_DISTANCE) {
+            pager.loadNextPage();
         }
-    };
+    }
+
+    private void reportTimeToFirstRow(RecyclerView recyclerView) {
+        ViewTreeObserver.OnPreDrawListener firstRowListener = new ViewTreeObserver.OnPreDrawListener() {
+            @Override
+            public boolean onPreDraw() {
+                if (recyclerView.getChildCount() > 0) {
+                    recyclerView.getViewTreeObserver().removeOnPreDrawListener(this);
+                    Log.i(TAG, "Time to first visible row: " + (SystemClock.elapsedRealtime() - createdAtMs) + " ms");
+                }
+                return true;
+            }
+        };
+        recyclerView.getViewTreeObserver().addOnPreDrawListener(firstRowListener);
+    }
 
     @Override
     protected void onResume() {
         super.onResume();
+        visible = true;
+        tokenManager.addListener(sessionListener);
+        tokenManager.addTokenListener(tokenListener);
+        tokenManager.ensureFresh();
+        statusQueue.addListener(queueListener);
+        statusQueue.flush();
+        adapter.startTimeRefresh();
         fetchAssignedTasks(true);
+        // Poll until the realtime stream is up; it takes over from there.
         startAutoRefresh();
+        startRealtime();
+        if (nearbyOnly) {
+            startLocationUpdates();
+        }
     }
 
     @Override
     protected void onPause() {
         super.onPause();
+        visible = false;
+        tokenManager.removeListener(sessionListener);
+        tokenManager.removeTokenListener(tokenListener);
+        statusQueue.removeListener(queueListener);
+        adapter.stopTimeRefresh();
+        stopRealtime();
         stopAutoRefresh();
+        stopLocationUpdates();
         // Optionally stop sound if user leaves the activity
         // stopNotificationSound(); 
     }
@@ -90,40 +363,298 @@ public class TaskListActivity extends AppCompatActivity {
     protected void onDestroy() {
         super.onDestroy();
         stopNotificationSound(); // Ensure cleanup
+        apiHelper.cancelPendingRequests();
+    }
+
+    static boolean isVisible() {
+        return visible;
+    }
+
+    private void requestNotificationPermission() {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.TIRAMISU
+                && ContextCompat.checkSelfPermission(this, Manifest.permission.POST_NOTIFICATIONS)
+                != PackageManager.PERMISSION_GRANTED) {
+            ActivityCompat.requestPermissions(this,
+                    new String[]{Manifest.permission.POST_NOTIFICATIONS}, REQUEST_NOTIFICATIONS);
+        }
+    }
+
+    @Override
+    public void onRequestPermissionsResult(int requestCode, @NonNull String[] permissions, @NonNull int[] grantResults) {
+        super.onRequestPermissionsResult(requestCode, permissions, grantResults);
+        if (requestCode != REQUEST_LOCATION) {
+            return;
+        }
+        if (hasLocationPermission()) {
+            startLocationUpdates();
+        } else {
+            Toast.makeText(this, "Location permission is needed to show nearby incidents.", Toast.LENGTH_LONG).show();
+            ChipGroup chipsStatus = findViewById(R.id.chipsTaskStatus);
+            chipsStatus.uncheck(R.id.chipTaskNearby);
+        }
+    }
+
+    private boolean hasLocationPermission() {
+        return ContextCompat.checkSelfPermission(this, Manifest.permission.ACCESS_FINE_LOCATION) == PackageManager.PERMISSION_GRANTED
+                || ContextCompat.checkSelfPermission(this, Manifest.permission.ACCESS_COARSE_LOCATION) == PackageManager.PERMISSION_GRANTED;
+    }
+
+    /**
+     * Follows the responder's position while the nearby filter is on. Updates come at
+     * most every ten seconds or 25 metres; each one re-ranks the in-memory index.
+     */
+    @SuppressLint("MissingPermission")
+    private void startLocationUpdates() {
+        if (!hasLocationPermission()) {
+            ActivityCompat.requestPermissions(this, new String[]{
+                    Manifest.permission.ACCESS_FINE_LOCATION, Manifest.permission.ACCESS_COARSE_LOCATION}, REQUEST_LOCATION);
+            return;
+        }
+        for (String provider : new String[]{LocationManager.NETWORK_PROVIDER, LocationManager.GPS_PROVIDER}) {
+            if (!locationManager.isProviderEnabled(provider)) {
+                continue;
+            }
+            Location lastKnown = locationManager.getLastKnownLocation(provider);
+            if (lastKnown != null && !incidentStore.hasRanking()) {
+                onLocation(lastKnown);
+            }
+            locationManager.requestLocationUpdates(provider, LOCATION_INTERVAL_MS, LOCATION_MIN_DISTANCE_M,
+                    locationListener, Looper.getMainLooper());
+        }
+    }
+
+    private void stopLocationUpdates() {
+        locationManager.removeUpdates(locationListener);
+    }
+
+    private void onLocation(Location location) {
+        incidentStore.rankFrom(location.getLatitude(), location.getLongitude());
+        if (nearbyOnly) {
+            // The radius filter can change even when the order does not.
+            showIncidents();
+        }
     }
 
     private void startAutoRefresh() {
-        autoRefreshHandler.postDelayed(refreshRunnable, REFRESH_INTERVAL);
+        syncScheduler.start();
     }
 
     private void stopAutoRefresh() {
-        autoRefreshHandler.removeCallbacks(refreshRunnable);
+        syncScheduler.stop();
+    }
+
+    /**
+     * One background poll: probe first and only fetch when the probe shows a change.
+     * A shrinking match count means something was deleted or unassigned, which a delta
+     * query cannot see, so that case does a full refresh.
+     */
+    private void syncAssignedTasks() {
+        if (!incidentStore.hasHighWaterMark() || pollsSinceFullSync >= FULL_SYNC_EVERY) {
+            fetchAssignedTasks(false);
+            return;
+        }
+        pollsSinceFullSync++;
+        apiHelper.probeAssignedIncidents(sessionManager.getToken(), sessionManager.getUserId(),
+                new PocketBaseApiHelper.FingerprintCallback() {
+                    @Override
+                    public void onSuccess(IncidentListFingerprint fingerprint) {
+                        IncidentListFingerprint previous = lastFingerprint;
+                        lastFingerprint = fingerprint;
+                        if (fingerprint.equals(previous)) {
+                            syncScheduler.onUnchanged();
+                            return;
+                        }
+                        if (previous != null && fingerprint.getTotalItems() < previous.getTotalItems()) {
+                            fetchAssignedTasks(false);
+                        } else {
+                            fetchChangedTasks();
+                        }
+                    }
+
+                    @Override
+                    public void onError(String message) {
+                        // Quiet like the full background poll; the scheduler backs off and retries.
+                        syncScheduler.onFailed();
+                    }
+                });
+    }
+
+    private void fetchChangedTasks() {
+        apiHelper.fetchAssignedIncidentsSince(sessionManager.getToken(), sessionManager.getUserId(),
+                incidentStore.getHighWaterMark(), new PocketBaseApiHelper.IncidentListCallback() {
+                    @Override
+                    public void onSuccess(List<IncidentSummary> changes) {
+                        List<IncidentSummary> visibleChanges = changesWithinLoadedPages(changes);
+                        if (visibleChanges.isEmpty()) {
+                            syncScheduler.onUnchanged();
+                            return;
+                        }
+                        if (incidentStore.merge(visibleChanges) > 0) {
+                            playNotificationSound();
+                        }
+                        localStore.upsert(visibleChanges);
+                        memoryCache.putAll(visibleChanges);
+                        syncScheduler.onChanged();
+                        showIncidents();
+                    }
+
+                    @Override
+                    public void onError(String message) {
+                        // Forget the fingerprint so the next probe does not skip this change.
+                        lastFingerprint = null;
+                        syncScheduler.onFailed();
+                    }
+                });
+    }
+
+    /**
+     * Drops delta records that belong to pages the user has not scrolled to yet; they
+     * arrive with those pages instead of popping into the list out of order.
+     */
+    private List<IncidentSummary> changesWithinLoadedPages(List<IncidentSummary> changes) {
+        if (!pager.hasMore()) {
+            return changes;
+        }
+        long oldestLoaded = incidentStore.getOldestCreatedMs();
+        List<IncidentSummary> visible = new ArrayList<>();
+        for (IncidentSummary change : changes) {
+            if (incidentStore.contains(change.getId()) || change.getCreatedAtMs() >= oldestLoaded) {
+                visible.add(change);
+            }
+        }
+        return visible;
     }
 
     private void fetchAssignedTasks(boolean showLoader) {
         if (showLoader) setLoading(true);
-        apiHelper.fetchAssignedIncidents(sessionManager.getToken(), sessionManager.getUserId(), new PocketBaseApiHelper.IncidentListCallback() {
-            @Override
-            public void onSuccess(List<IncidentReport> incidents) {
-                if (showLoader) setLoading(false);
+        // A silent refresh that supersedes a visible one keeps the loader semantics.
+        refreshShowsLoader = showLoader || (refreshShowsLoader && pager.isLoading());
+        pollsSinceFullSync = 0;
+        pager.refresh();
+    }
 
-                if (incidents.size() > lastKnownIncidentCount && !showLoader) {
-                    playNotificationSound();
-                }
-                lastKnownIncidentCount = incidents.size();
+    private void startRealtime() {
+        stopRealtime();
+        realtimeClient = apiHelper.subscribeToAssignedIncidents(sessionManager.getToken(), sessionManager.getUserId(),
+                new PocketBaseApiHelper.RealtimeCallback() {
+                    @Override
+                    public void onConnected() {
+                        stopAutoRefresh();
+                        // Catch up on anything that changed while the stream was down.
+                        fetchAssignedTasks(false);
+                    }
+
+                    @Override
+                    public void onIncidentChanged(IncidentSummary incident, boolean created) {
+                        if (changesWithinLoadedPages(Collections.singletonList(incident)).isEmpty()) {
+                            return;
+                        }
+                        if (incidentStore.put(incident)) {
+                            playNotificationSound();
+                        }
+                        localStore.upsert(Collections.singletonList(incident));
+                        memoryCache.put(incident);
+                        showIncidents();
+                    }
 
-                adapter.submitList(incidents);
-                txtEmpty.setVisibility(incidents.isEmpty() ? View.VISIBLE : View.GONE);
+                    @Override
+                    public void onIncidentRemoved(String incidentId) {
+                        localStore.delete(incidentId);
+                        memoryCache.remove(incidentId);
+                        if (incidentStore.remove(incidentId)) {
+                            showIncidents();
+                        }
+                    }
+
+                    @Override
+                    public void onDisconnected() {
+                        startAutoRefresh();
+                    }
+                });
+    }
+
+    private void stopRealtime() {
+        if (realtimeClient != null) {
+            realtimeClient.stop();
+            realtimeClient = null;
+        }
+    }
+
+    /**
+     * Fetches the detail record and image of the first few pending incidents so opening
+     * one renders from memory. Records already cached at their current revision are skipped.
+     */
+    private void prefetchTopPending(List<IncidentSummary> incidents) {
+        int prefetched = 0;
+        for (IncidentSummary incident : incidents) {
+            if (prefetched >= PREFETCH_DETAILS) {
+                break;
+            }
+            if (incident.getIncidentStatus() != IncidentStatus.PENDING) {
+                continue;
+            }
+            prefetched++;
+            if (memoryCache.getReport(incident) != null) {
+                continue;
             }
+            apiHelper.fetchIncidentById(sessionManager.getToken(), incident.getId(), new PocketBaseApiHelper.IncidentCallback() {
+                @Override
+                public void onSuccess(IncidentReport incidentReport) {
+                    memoryCache.put(incidentReport);
+                    localStore.upsert(incidentReport);
+                    if (incidentReport.hasImage()) {
+                        // Lands in Glide's disk cache, so the detail screen decodes it without a download.
+                        IncidentImages.preloadDetail(getApplicationContext(), apiHelper, incidentReport);
+                    }
+                }
 
-            @Override
-            public void onError(String message) {
-                if (showLoader) setLoading(false);
-                if (showLoader) {
-                    Toast.makeText(TaskListActivity.this, "Failed to load tasks: " + message, Toast.LENGTH_LONG).show();
+                @Override
+                public void onError(String message) {
+                    Log.d(TAG, "Detail prefetch failed for " + incident.getId() + ": " + message);
+                }
+            });
+        }
+    }
+
+    private void showIncidents() {
+        // Queued status changes are not in the index yet; filter on status after applying them.
+        boolean filterStatusAfterQueue = !statusFilter.isEmpty() && statusQueue.hasPending();
+        List<IncidentSummary> matches = incidentStore.query(
+                filterStatusAfterQueue ? Collections.<String>emptySet() : statusFilter, Collections.emptySet(), textFilter);
+        if (nearbyOnly && incidentStore.hasRanking()) {
+            // Until the first fix arrives the list stays newest first.
+            matches = incidentStore.nearest(matches, NEARBY_RADIUS_KM);
+        }
+        // Show queued status changes until the server has them.
+        List<IncidentSummary> incidents = statusQueue.applyPending(matches);
+        if (filterStatusAfterQueue) {
+            List<IncidentSummary> filtered = new ArrayList<>();
+            for (IncidentSummary incident : incidents) {
+                if (statusFilter.contains(incident.getIncidentStatus().getValue())) {
+                    filtered.add(incident);
                 }
             }
-        });
+            incidents = filtered;
+        }
+        adapter.submitList(incidents);
+        txtEmpty.setVisibility(incidents.isEmpty() ? View.VISIBLE : View.GONE);
+
+        syncScheduler.setHasActiveIncident(hasActiveIncident());
+    }
+
+    private boolean hasActiveIncident() {
+        if (!statusQueue.hasPending()) {
+            return !incidentStore.query(ACTIVE_STATUSES, Collections.emptySet(), null).isEmpty();
+        }
+        // A queued change can resolve the last active incident or reopen one before the server knows.
+        List<IncidentSummary> all = statusQueue.applyPending(
+                incidentStore.query(Collections.<String>emptySet(), Collections.emptySet(), null));
+        for (IncidentSummary incident : all) {
+            if (ACTIVE_STATUSES.contains(incident.getIncidentStatus().getValue())) {
+                return true;
+            }
+        }
+        return false;
     }
 
     private void playNotificationSound() {
@@ -154,8 +685,15 @@ public class TaskListActivity extends AppCompatActivity {
     }
 
     private void logoutAndGoToLogin() {
+        stopRealtime();
         stopAutoRefresh();
         stopNotificationSound();
+        IncidentSyncWorker.cancel(this);
+        statusQueue.clear();
+        localStore.clear();
+        memoryCache.clear();
+        IncidentQueryCache.getInstance().clear();
+        tokenManager.clear();
         sessionManager.clearSession();
         Intent intent = new Intent(this, LoginActivity.class);
         intent.setFlags(Intent.FLAG_ACTIVITY_NEW_TASK | Intent.FLAG_ACTIVITY_CLEAR_TASK);
@@ -0,0 +1,98 @@
+package com.example.incidentreports;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks distance ranking and radius lookups of {@link IncidentGeoIndex} as points are
+ * added, moved and removed.
+ */
+public class IncidentGeoIndexTest {
+    // Manila city hall and points roughly 1, 3 and 12 km north of it.
+    private static final double LAT = 14.5895;
+    private static final double LNG = 120.9817;
+
+    private IncidentGeoIndex index;
+
+    @Before
+    public void setUp() {
+        index = new IncidentGeoIndex();
+        index.put("far", LAT + 0.108, LNG);
+        index.put("near", LAT + 0.009, LNG);
+        index.put("mid", LAT + 0.027, LNG);
+    }
+
+    @Test
+    public void ranksByDistance() {
+        assertTrue(index.rankFrom(LAT, LNG));
+        assertEquals(Arrays.asList("near", "mid", "far"), ranked());
+        assertEquals(1.0, index.getRankedDistanceKm(0), 0.05);
+
+        assertFalse("Same position keeps the order", index.rankFrom(LAT, LNG));
+        index.rankFrom(LAT + 0.108, LNG);
+        assertEquals(Arrays.asList("far", "mid", "near"), ranked());
+    }
+
+    @Test
+    public void pointsAddedOrMovedAfterRankingAreSlottedIn() {
+        index.rankFrom(LAT, LNG);
+        index.put("closest", LAT + 0.001, LNG);
+        index.put("far", LAT + 0.018, LNG);
+
+        assertEquals(Arrays.asList("closest", "near", "far", "mid"), ranked());
+    }
+
+    @Test
+    public void removedPointsLeaveTheRanking() {
+        index.rankFrom(LAT, LNG);
+        assertTrue(index.remove("near"));
+        assertFalse(index.remove("near"));
+
+        assertEquals(Arrays.asList("mid", "far"), ranked());
+        assertEquals(Collections.singletonList("mid"), within(LAT, LNG, 5));
+    }
+
+    @Test
+    public void findsPointsWithinRadiusAcrossCells() {
+        assertEquals(Collections.singletonList("near"), within(LAT, LNG, 2));
+        List<String> found = within(LAT, LNG, 4);
+        Collections.sort(found);
+        assertEquals(Arrays.asList("mid", "near"), found);
+        assertEquals(3, within(LAT, LNG, 15).size());
+    }
+
+    @Test
+    public void findsNearestWithinRadiusOfRankingOrigin() {
+        List<String> found = new ArrayList<>();
+        index.findNearest(5, found);
+        assertTrue("Nothing is near before a ranking origin", found.isEmpty());
+
+        index.rankFrom(LAT + 0.108, LNG);
+        index.put("beside far", LAT + 0.1, LNG);
+        index.findNearest(15, found);
+        assertEquals(Arrays.asList("far", "beside far", "mid", "near"), found);
+    }
+
+    private List<String> ranked() {
+        List<String> ids = new ArrayList<>();
+        for (int rank = 0; rank < index.size(); rank++) {
+            ids.add(index.getRankedId(rank));
+        }
+        return ids;
+    }
+
+    private List<String> within(double latitude, double longitude, double radiusKm) {
+        List<String> found = new ArrayList<>();
+        index.findWithin(latitude, longitude, radiusKm, found);
+        return found;
+    }
+}
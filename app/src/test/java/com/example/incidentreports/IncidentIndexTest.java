@@ -0,0 +1,102 @@
+package com.example.incidentreports;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks that {@link IncidentIndex} answers filters from its indexes and stays correct
+ * as records change, move between buckets and disappear.
+ */
+public class IncidentIndexTest {
+    private IncidentIndex index;
+
+    @Before
+    public void setUp() {
+        index = new IncidentIndex();
+        index.put(incident("a", "Fire", "Kitchen fire on second floor", "pending", "2024-01-01 10:00:00.000Z"));
+        index.put(incident("b", "Flood", "Basement flooding after storm", "ongoing", "2024-01-02 10:00:00.000Z"));
+        index.put(incident("c", "Fire", "Grass fire near highway", "resolved", "2024-01-03 10:00:00.000Z"));
+    }
+
+    @Test
+    public void allIsNewestFirst() {
+        assertEquals(Arrays.asList("c", "b", "a"), ids(index.all()));
+    }
+
+    @Test
+    public void filtersByStatusAndType() {
+        assertEquals(Arrays.asList("c", "a"), ids(index.query(none(), Collections.singleton("fire"), null)));
+        assertEquals(Arrays.asList("b", "a"),
+                ids(index.query(Arrays.asList("pending", "ongoing"), none(), null)));
+        assertEquals(Collections.singletonList("a"),
+                ids(index.query(Collections.singleton("pending"), Collections.singleton("Fire"), "")));
+    }
+
+    @Test
+    public void searchMatchesWordPrefixesOfEveryTerm() {
+        assertEquals(Arrays.asList("c", "a"), ids(index.query(none(), none(), "fir")));
+        assertEquals(Collections.singletonList("c"), ids(index.query(none(), none(), "fire HIGH")));
+        assertTrue(index.query(none(), none(), "fire basement").isEmpty());
+    }
+
+    @Test
+    public void searchMatchesAddressOfListRecords() {
+        index.put(incident("d", "Rescue", "Cat stuck in a tree", "pending", "2024-01-04 10:00:00.000Z",
+                "12 Rizal Avenue, Tondo"));
+
+        assertEquals(Collections.singletonList("d"), ids(index.query(none(), none(), "rizal")));
+        assertEquals(Collections.singletonList("d"), ids(index.query(none(), none(), "tree tondo")));
+    }
+
+    @Test
+    public void replacingARecordMovesItBetweenBuckets() {
+        assertFalse(index.put(incident("a", "Fire", "Kitchen fire contained", "resolved", "2024-01-01 10:00:00.000Z")));
+
+        assertTrue(index.query(Collections.singleton("pending"), none(), null).isEmpty());
+        assertEquals(Arrays.asList("c", "a"), ids(index.query(Collections.singleton("resolved"), none(), null)));
+        assertTrue(index.query(none(), none(), "floor").isEmpty());
+        assertEquals(Collections.singletonList("a"), ids(index.query(none(), none(), "contained")));
+    }
+
+    @Test
+    public void removedRecordsLeaveEveryIndex() {
+        assertTrue(index.remove("c"));
+        assertEquals(1, index.retainAll(new HashSet<>(Collections.singletonList("b"))));
+
+        assertEquals(Collections.singletonList("b"), ids(index.all()));
+        assertTrue(index.query(none(), Collections.singleton("fire"), null).isEmpty());
+        assertTrue(index.query(none(), none(), "kitchen").isEmpty());
+        assertEquals("b", index.oldest().getId());
+    }
+
+    private static List<String> none() {
+        return Collections.emptyList();
+    }
+
+    private static IncidentSummary incident(String id, String type, String description, String status, String created) {
+        return incident(id, type, description, status, created, "");
+    }
+
+    private static IncidentSummary incident(String id, String type, String description, String status, String created,
+                                            String address) {
+        return new IncidentSummary(id, "incidents", type, description, status, created, created,
+                Double.NaN, Double.NaN, address, "");
+    }
+
+    private static List<String> ids(List<IncidentSummary> incidents) {
+        String[] ids = new String[incidents.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = incidents.get(i).getId();
+        }
+        return Arrays.asList(ids);
+    }
+}
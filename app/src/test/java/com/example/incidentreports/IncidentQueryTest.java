@@ -0,0 +1,50 @@
+package com.example.incidentreports;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Date;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks that equal filter combinations share one cache key and that a relative creation
+ * window is sent as a date but keyed by its length.
+ */
+public class IncidentQueryTest {
+    private static final long DAY_MS = 24 * 60 * 60 * 1000L;
+
+    @Test
+    public void statusOrderDoesNotChangeKey() {
+        IncidentQuery a = new IncidentQuery.Builder().statuses(Arrays.asList("ongoing", "pending")).build();
+        IncidentQuery b = new IncidentQuery.Builder().statuses(Arrays.asList("pending", "ongoing")).build();
+
+        assertEquals(a.getCacheKey(), b.getCacheKey());
+        assertEquals(a, b);
+    }
+
+    @Test
+    public void relativeWindowKeepsItsKeyAndSendsADate() {
+        IncidentQuery lastDay = new IncidentQuery.Builder().createdWithinLast(DAY_MS).build();
+        IncidentQuery sameChipLater = new IncidentQuery.Builder().createdWithinLast(DAY_MS).build();
+        IncidentQuery lastWeek = new IncidentQuery.Builder().createdWithinLast(7 * DAY_MS).build();
+
+        assertEquals(lastDay.getCacheKey(), sameChipLater.getCacheKey());
+        assertNotEquals(lastDay.getCacheKey(), lastWeek.getCacheKey());
+        String filter = lastDay.toFilter();
+        assertTrue(filter, filter.startsWith("created >= \"") && filter.endsWith("Z\""));
+    }
+
+    @Test
+    public void absoluteWindowReplacesRelativeOne() {
+        Date from = new Date(1709251199000L);
+        IncidentQuery query = new IncidentQuery.Builder()
+                .createdWithinLast(DAY_MS)
+                .createdBetween(from, null)
+                .build();
+
+        assertEquals("created >= \"2024-02-29 23:59:59.000Z\"", query.toFilter());
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.incidentreports;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks that decoding a record into {@link IncidentSummary} keeps values it cannot
+ * decode, so writing the record back does not change them.
+ */
+public class IncidentSummaryTest {
+    @Test
+    public void keepsStatusesTheEnumDoesNotKnow() {
+        IncidentSummary incident = incident("escalated", "2024-01-01 10:00:00.000Z");
+
+        assertEquals(IncidentStatus.UNKNOWN, incident.getIncidentStatus());
+        assertEquals("escalated", incident.getStatus());
+        assertEquals("ESCALATED", incident.getStatusLabel());
+        assertEquals("escalated", incident.withStatus("ongoing").withStatus("escalated").getStatus());
+        assertNotEquals(incident, incident("on hold", "2024-01-01 10:00:00.000Z"));
+    }
+
+    @Test
+    public void keepsTheServersSpellingOfKnownStatuses() {
+        IncidentSummary incident = incident("Pending", "2024-01-01 10:00:00.000Z");
+
+        assertEquals(IncidentStatus.PENDING, incident.getIncidentStatus());
+        assertEquals("Pending", incident.getStatus());
+        assertEquals("PENDING", incident.getStatusLabel());
+        assertEquals("pending", incident("pending", "2024-01-01 10:00:00.000Z").getStatus());
+        assertNotEquals(incident, incident("pending", "2024-01-01 10:00:00.000Z"));
+    }
+
+    @Test
+    public void keepsTimestampsThatDoNotParse() {
+        IncidentSummary incident = incident("pending", "yesterday");
+
+        assertEquals(0, incident.getCreatedAtMs());
+        assertEquals("yesterday", incident.getCreated());
+        assertEquals("yesterday", incident.withStatus("ongoing").getUpdated());
+        assertEquals("", incident("pending", "").getCreated());
+        assertEquals("2024-01-01 10:00:00.000Z", incident("pending", "2024-01-01 10:00:00.000Z").getCreated());
+    }
+
+    @Test
+    public void statusChangeFromServerIsOnlyAStatusChange() {
+        IncidentSummary before = incident("pending", "2024-01-01 10:00:00.000Z");
+        // The server bumps "updated" with every write, status changes included.
+        IncidentSummary after = new IncidentSummary("a", "incidents", "Fire", "Kitchen fire", "ongoing",
+                "2024-01-01 10:00:00.000Z", "2024-01-01 10:07:00.000Z", Double.NaN, Double.NaN, "", "");
+
+        assertTrue(before.differsOnlyInStatus(after));
+        assertTrue(before.differsOnlyInStatus(before.withStatus("resolved")));
+        assertFalse("Same status", before.differsOnlyInStatus(incident("pending", "2024-01-01 10:00:00.000Z")));
+        assertFalse("Description changed too", before.differsOnlyInStatus(new IncidentSummary("a", "incidents",
+                "Fire", "Kitchen fire, spreading", "ongoing", "2024-01-01 10:00:00.000Z", "2024-01-01 10:07:00.000Z",
+                Double.NaN, Double.NaN, "", "")));
+    }
+
+    private static IncidentSummary incident(String status, String timestamp) {
+        return new IncidentSummary("a", "incidents", "Fire", "Kitchen fire", status, timestamp, timestamp,
+                Double.NaN, Double.NaN, "", "");
+    }
+}
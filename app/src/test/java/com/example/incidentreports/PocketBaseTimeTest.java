@@ -0,0 +1,44 @@
+package com.example.incidentreports;
+
+import org.junit.Test;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.Random;
+import java.util.TimeZone;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Checks the hand-rolled PocketBase datetime codec against SimpleDateFormat.
+ */
+public class PocketBaseTimeTest {
+    @Test
+    public void roundTripsAgainstSimpleDateFormat() {
+        SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS'Z'", Locale.US);
+        format.setTimeZone(TimeZone.getTimeZone("UTC"));
+        Random random = new Random(42);
+        for (int i = 0; i < 10000; i++) {
+            // Anywhere between 1970 and 2100.
+            long epochMs = 1 + (long) (random.nextDouble() * 4102444800000L);
+            String text = format.format(new Date(epochMs));
+            assertEquals(text, epochMs, PocketBaseTime.parse(text));
+            assertEquals(text, PocketBaseTime.format(epochMs));
+        }
+    }
+
+    @Test
+    public void acceptsIsoSeparatorAndMissingMillis() {
+        assertEquals(1709251199000L, PocketBaseTime.parse("2024-02-29T23:59:59Z"));
+        assertEquals(1709251199000L, PocketBaseTime.parse("2024-02-29 23:59:59.000Z"));
+    }
+
+    @Test
+    public void emptyOrMalformedIsZero() {
+        assertEquals(0, PocketBaseTime.parse(""));
+        assertEquals(0, PocketBaseTime.parse(null));
+        assertEquals(0, PocketBaseTime.parse("not a timestamp at all"));
+        assertEquals("", PocketBaseTime.format(0));
+    }
+}
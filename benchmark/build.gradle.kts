@@ -0,0 +1,103 @@
+plugins {
+    alias(libs.plugins.android.test)
+}
+
+android {
+    namespace = "com.example.incidentreports.benchmark"
+    compileSdk {
+        version = release(36) {
+            minorApiLevel = 1
+        }
+    }
+
+    defaultConfig {
+        minSdk = 23
+        targetSdk = 36
+
+        testInstrumentationRunner = "androidx.benchmark.junit4.AndroidBenchmarkRunner"
+    }
+
+    buildTypes {
+        // Benchmarks run against the non-debuggable build of the app; numbers from a
+        // debuggable build are dominated by JIT and debugger overhead.
+        create("benchmark") {
+            isDebuggable = false
+            signingConfig = signingConfigs.getByName("debug")
+            matchingFallbacks += listOf("release")
+        }
+    }
+
+    compileOptions {
+        sourceCompatibility = JavaVersion.VERSION_11
+        targetCompatibility = JavaVersion.VERSION_11
+    }
+
+    targetProjectPath = ":app"
+}
+
+dependencies {
+    implementation(libs.benchmark.junit4)
+    implementation(libs.ext.junit)
+    implementation("androidx.recyclerview:recyclerview:1.4.0")
+    implementation("com.github.bumptech.glide:glide:4.16.0")
+}
+
+// The runner copies each connected run's results off the device into this directory.
+val benchmarkResults = fileTree(layout.buildDirectory.dir("outputs/connected_android_test_additional_output")) {
+    include("**/*benchmarkData.json")
+}
+// Checked in, so every later run is compared against the same numbers.
+val benchmarkBaseline = layout.projectDirectory.file("baseline/benchmarkData.json").asFile
+// A median this much above the baseline counts as a regression.
+val regressionTolerance = 0.10
+
+tasks.register("updateBenchmarkBaseline") {
+    group = "verification"
+    description = "Stores the results of the last benchmark run as the baseline."
+    doLast {
+        val latest = benchmarkResults.files.maxByOrNull { it.lastModified() }
+            ?: throw GradleException("No benchmark results; run connectedBenchmarkAndroidTest first.")
+        latest.copyTo(benchmarkBaseline, overwrite = true)
+        logger.lifecycle("Baseline updated from ${latest.name}")
+    }
+}
+
+tasks.register("compareBenchmarks") {
+    group = "verification"
+    description = "Fails if a benchmark median regressed against the stored baseline."
+    doLast {
+        // "Class#method metric" to median, e.g. "...IncidentAdapterBenchmark#diffPollResult timeNs".
+        val medians = { file: File ->
+            @Suppress("UNCHECKED_CAST")
+            val benchmarks = (groovy.json.JsonSlurper().parse(file) as Map<String, Any?>)["benchmarks"]
+                    as List<Map<String, Any?>>
+            val result = mutableMapOf<String, Double>()
+            for (benchmark in benchmarks) {
+                @Suppress("UNCHECKED_CAST")
+                val metrics = benchmark["metrics"] as Map<String, Map<String, Any?>>
+                for ((metric, values) in metrics) {
+                    val median = values["median"] as? Number ?: continue
+                    result["${benchmark["className"]}#${benchmark["name"]} $metric"] = median.toDouble()
+                }
+            }
+            result
+        }
+        if (!benchmarkBaseline.exists()) {
+            logger.warn("No baseline at $benchmarkBaseline; run updateBenchmarkBaseline to store one.")
+            return@doLast
+        }
+        val baseline = medians(benchmarkBaseline)
+        val regressions = mutableListOf<String>()
+        for (results in benchmarkResults.files) {
+            for ((key, median) in medians(results)) {
+                val expected = baseline[key] ?: continue
+                if (median > expected * (1 + regressionTolerance)) {
+                    regressions += "$key: $median vs baseline $expected"
+                }
+            }
+        }
+        if (regressions.isNotEmpty()) {
+            throw GradleException("Benchmark regressions:\n" + regressions.joinToString("\n"))
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.incidentreports;
+
+import android.content.Context;
+import android.view.ContextThemeWrapper;
+import android.widget.FrameLayout;
+
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.test.annotation.UiThreadTest;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.bumptech.glide.Glide;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The list half of each refresh: diffing a poll result against what is shown, then
+ * binding a screenful of rows, in full or for a status change only.
+ */
+@RunWith(AndroidJUnit4.class)
+public class IncidentAdapterBenchmark {
+    private static final int LIST_SIZE = 1000;
+    private static final int VISIBLE_ROWS = 10;
+
+    @Rule
+    public BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+    private List<IncidentSummary> shown;
+    private List<IncidentSummary> polled;
+    private FrameLayout parent;
+    private IncidentAdapter adapter;
+
+    @Before
+    public void setUp() throws Exception {
+        shown = IncidentPayloads.summaries(LIST_SIZE);
+        // A typical poll: one incident moved from pending to ongoing.
+        polled = new ArrayList<>(shown);
+        polled.set(0, polled.get(0).withStatus("ongoing"));
+
+        Context context = new ContextThemeWrapper(
+                InstrumentationRegistry.getInstrumentation().getTargetContext(), R.style.Theme_IncidentReports);
+        parent = new FrameLayout(context);
+        int thumbnailSizePx = context.getResources().getDimensionPixelSize(R.dimen.dp_80);
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> {
+            adapter = new IncidentAdapter(context, Glide.with(context), new PocketBaseApiHelper(context), thumbnailSizePx,
+                    incident -> { });
+            // The first submit into an empty differ is applied synchronously.
+            adapter.submitList(shown);
+        });
+    }
+
+    @Test
+    public void diffPollResult() {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            DiffUtil.calculateDiff(new DiffUtil.Callback() {
+                @Override
+                public int getOldListSize() {
+                    return shown.size();
+                }
+
+                @Override
+                public int getNewListSize() {
+                    return polled.size();
+                }
+
+                @Override
+                public boolean areItemsTheSame(int oldPosition, int newPosition) {
+                    return IncidentAdapter.DIFF_CALLBACK.areItemsTheSame(shown.get(oldPosition), polled.get(newPosition));
+                }
+
+                @Override
+                public boolean areContentsTheSame(int oldPosition, int newPosition) {
+                    return IncidentAdapter.DIFF_CALLBACK.areContentsTheSame(shown.get(oldPosition), polled.get(newPosition));
+                }
+            });
+        }
+    }
+
+    @Test
+    @UiThreadTest
+    public void submitUnchangedList() {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            adapter.submitList(new ArrayList<>(shown));
+        }
+    }
+
+    @Test
+    @UiThreadTest
+    public void bindVisibleRows() {
+        List<IncidentAdapter.IncidentViewHolder> holders = new ArrayList<>(VISIBLE_ROWS);
+        for (int i = 0; i < VISIBLE_ROWS; i++) {
+            holders.add(adapter.onCreateViewHolder(parent, 0));
+        }
+        BenchmarkState state = benchmarkRule.getState();
+        int offset = 0;
+        while (state.keepRunning()) {
+            for (int i = 0; i < VISIBLE_ROWS; i++) {
+                adapter.onBindViewHolder(holders.get(i), (offset + i) % LIST_SIZE);
+            }
+            offset += VISIBLE_ROWS;
+        }
+    }
+
+    @Test
+    @UiThreadTest
+    public void bindStatusChange() {
+        List<IncidentAdapter.IncidentViewHolder> holders = new ArrayList<>(VISIBLE_ROWS);
+        for (int i = 0; i < VISIBLE_ROWS; i++) {
+            IncidentAdapter.IncidentViewHolder holder = adapter.onCreateViewHolder(parent, 0);
+            adapter.onBindViewHolder(holder, i);
+            holders.add(holder);
+        }
+        List<Object> payloads = Collections.singletonList(IncidentAdapter.PAYLOAD_STATUS);
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            for (int i = 0; i < VISIBLE_ROWS; i++) {
+                adapter.onBindViewHolder(holders.get(i), i, payloads);
+            }
+        }
+    }
+}
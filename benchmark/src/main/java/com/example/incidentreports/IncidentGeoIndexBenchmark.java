@@ -0,0 +1,64 @@
+package com.example.incidentreports;
+
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * The work behind "Within 5 km" on each location update: re-ranking every incident
+ * after the responder moves a few dozen metres, and the radius lookup around them.
+ */
+@RunWith(AndroidJUnit4.class)
+public class IncidentGeoIndexBenchmark {
+    private static final int POINTS = 4300;
+    private static final double LAT = 14.5995;
+    private static final double LNG = 120.9842;
+    // About 30 m, one location update at walking or slow driving speed.
+    private static final double STEP_DEGREES = 0.0003;
+
+    @Rule
+    public BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+    private IncidentGeoIndex index;
+
+    @Before
+    public void setUp() {
+        index = new IncidentGeoIndex();
+        // Spread over roughly 40 x 40 km of Metro Manila; seeded so every run is the same.
+        Random random = new Random(42);
+        for (int i = 0; i < POINTS; i++) {
+            index.put(String.format("rec%012d", i),
+                    LAT + (random.nextDouble() - 0.5) * 0.36, LNG + (random.nextDouble() - 0.5) * 0.36);
+        }
+        index.rankFrom(LAT, LNG);
+    }
+
+    @Test
+    public void rankAfterSmallMove() {
+        BenchmarkState state = benchmarkRule.getState();
+        int step = 0;
+        while (state.keepRunning()) {
+            // Back and forth, so each update moves the same distance.
+            index.rankFrom(LAT + (step++ % 2) * STEP_DEGREES, LNG);
+        }
+    }
+
+    @Test
+    public void findNearestWithin5Km() {
+        List<String> found = new ArrayList<>();
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            found.clear();
+            index.findNearest(5, found);
+        }
+    }
+}
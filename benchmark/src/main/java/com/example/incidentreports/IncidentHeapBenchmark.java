@@ -0,0 +1,88 @@
+package com.example.incidentreports;
+
+import android.os.Bundle;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Java heap retained by a decoded list of 10k incidents, as the list screen would hold
+ * it, for the decoded model and for the all-String model it replaced. Both decode the
+ * same response bytes, so every record owns its strings as it would off the network.
+ * Reported in the instrumentation status as bytes per 10k records.
+ */
+@RunWith(AndroidJUnit4.class)
+public class IncidentHeapBenchmark {
+    private static final String TAG = "IncidentHeapBenchmark";
+    private static final int RECORDS = 10000;
+
+    @Test
+    public void heapPer10kSummaries() throws Exception {
+        byte[] response = IncidentPayloads.listResponseBytes(RECORDS);
+
+        long before = usedHeap();
+        List<IncidentSummary> incidents = decodeSummaries(response);
+        long bytes = usedHeap() - before;
+        assertEquals(RECORDS, incidents.size());
+        report("heap_bytes_per_10k_summaries", bytes);
+    }
+
+    @Test
+    public void heapPer10kStringSummaries() throws Exception {
+        byte[] response = IncidentPayloads.listResponseBytes(RECORDS);
+
+        long before = usedHeap();
+        List<StringIncidentSummary> incidents = decodeStringSummaries(response);
+        long bytes = usedHeap() - before;
+        assertEquals(RECORDS, incidents.size());
+        report("heap_bytes_per_10k_string_summaries", bytes);
+    }
+
+    // The parsed JSON tree is garbage once these return, so only the records are measured.
+    private static List<IncidentSummary> decodeSummaries(byte[] response) throws Exception {
+        JSONArray items = new JSONObject(new String(response, StandardCharsets.UTF_8)).getJSONArray("items");
+        List<IncidentSummary> incidents = new ArrayList<>(items.length());
+        for (int i = 0; i < items.length(); i++) {
+            incidents.add(PocketBaseApiHelper.parseSummary(items.getJSONObject(i)));
+        }
+        return incidents;
+    }
+
+    private static List<StringIncidentSummary> decodeStringSummaries(byte[] response) throws Exception {
+        JSONArray items = new JSONObject(new String(response, StandardCharsets.UTF_8)).getJSONArray("items");
+        List<StringIncidentSummary> incidents = new ArrayList<>(items.length());
+        for (int i = 0; i < items.length(); i++) {
+            incidents.add(new StringIncidentSummary(items.getJSONObject(i)));
+        }
+        return incidents;
+    }
+
+    private static void report(String key, long bytes) {
+        Log.i(TAG, key + ": " + bytes / 1024 + " KiB, " + bytes / RECORDS + " B per record");
+        Bundle status = new Bundle();
+        status.putLong(key, bytes);
+        InstrumentationRegistry.getInstrumentation().sendStatus(0, status);
+    }
+
+    private static long usedHeap() throws InterruptedException {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            runtime.gc();
+            runtime.runFinalization();
+            Thread.sleep(100);
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.incidentreports;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Synthetic incident_reports records shaped like real dispatch data, shared by the
+ * benchmarks so every run parses and binds the same input.
+ */
+final class IncidentPayloads {
+    private static final String[] TYPES = {"Fire", "Rescue", "Medical", "Flood"};
+    private static final String[] STATUSES = {"pending", "ongoing", "resolved"};
+
+    private IncidentPayloads() {
+    }
+
+    static JSONObject record(int i) throws JSONException {
+        return new JSONObject()
+                .put("id", String.format("rec%012d", i))
+                .put("collectionId", "pbc_incident_reports")
+                .put("type", TYPES[i % TYPES.length])
+                .put("description", "Smoke reported on floor " + (i % 20)
+                        + " near the east stairwell, residents evacuating. Caller reports two people trapped.")
+                .put("status", STATUSES[i % STATUSES.length])
+                .put("created", "2025-01-01 10:00:00.000Z")
+                .put("updated", "2025-01-01 10:05:00.000Z")
+                .put("latitude", "14.5995")
+                .put("longitude", "120.9842")
+                .put("address", i + " Rizal Avenue, Manila")
+                .put("incident_image", i % 2 == 0 ? "photo_" + i + ".jpg" : "")
+                .put("responders", new JSONArray().put("resp000000001"));
+    }
+
+    /**
+     * A list response envelope ({"page":..,"items":[..]}) holding count records.
+     */
+    static JSONObject listResponse(int count) throws JSONException {
+        JSONArray items = new JSONArray();
+        for (int i = 0; i < count; i++) {
+            items.put(record(i));
+        }
+        return new JSONObject()
+                .put("page", 1)
+                .put("perPage", count)
+                .put("totalItems", -1)
+                .put("totalPages", -1)
+                .put("items", items);
+    }
+
+    static byte[] listResponseBytes(int count) throws JSONException {
+        return listResponse(count).toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    static List<IncidentSummary> summaries(int count) throws JSONException {
+        List<IncidentSummary> incidents = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            incidents.add(PocketBaseApiHelper.parseSummary(record(i)));
+        }
+        return incidents;
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.incidentreports;
+
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Response parsing at the page sizes the app sees, from a single row up to a full
+ * unpaged history. Each iteration parses the whole payload from bytes.
+ */
+@RunWith(Parameterized.class)
+public class ParsingBenchmark {
+    @Rule
+    public BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+    @Parameterized.Parameters(name = "records={0}")
+    public static Collection<Object[]> sizes() {
+        return Arrays.asList(new Object[][]{{10}, {100}, {1000}, {10000}});
+    }
+
+    private final int records;
+    private byte[] payload;
+
+    public ParsingBenchmark(int records) {
+        this.records = records;
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        payload = IncidentPayloads.listResponseBytes(records);
+        // Both list parsers must agree before their timings are worth comparing.
+        assertEquals(parseSummariesWithDom(payload),
+                IncidentJsonParser.readSummaryPage(new ByteArrayInputStream(payload)));
+    }
+
+    @Test
+    public void parseIncident() throws Exception {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            JSONArray items = new JSONObject(new String(payload, StandardCharsets.UTF_8)).getJSONArray("items");
+            for (int i = 0; i < items.length(); i++) {
+                PocketBaseApiHelper.parseIncident(items.getJSONObject(i));
+            }
+        }
+    }
+
+    @Test
+    public void parseSummaryWithJsonObject() throws Exception {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            parseSummariesWithDom(payload);
+        }
+    }
+
+    @Test
+    public void parseSummaryWithJsonReader() throws Exception {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            IncidentJsonParser.readSummaryPage(new ByteArrayInputStream(payload));
+        }
+    }
+
+    private static List<IncidentSummary> parseSummariesWithDom(byte[] payload) throws Exception {
+        JSONArray items = new JSONObject(new String(payload, StandardCharsets.UTF_8)).getJSONArray("items");
+        List<IncidentSummary> incidents = new ArrayList<>(items.length());
+        for (int i = 0; i < items.length(); i++) {
+            incidents.add(PocketBaseApiHelper.parseSummary(items.getJSONObject(i)));
+        }
+        return incidents;
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.incidentreports;
+
+import android.content.Context;
+
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * SharedPreferences reads made on every poll: the session token and user id, and the
+ * configured base URL.
+ */
+@RunWith(AndroidJUnit4.class)
+public class PreferencesBenchmark {
+    @Rule
+    public BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+    private Context context;
+
+    @Before
+    public void setUp() {
+        context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+    }
+
+    @Test
+    public void sessionManagerReads() {
+        SessionManager sessionManager = new SessionManager(context);
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            sessionManager.isLoggedIn();
+            sessionManager.getToken();
+        }
+    }
+
+    @Test
+    public void sessionManagerCreateAndRead() {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            new SessionManager(context).getToken();
+        }
+    }
+
+    @Test
+    public void apiConfigManagerReads() {
+        ApiConfigManager apiConfigManager = new ApiConfigManager(context);
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            apiConfigManager.getBaseUrl();
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.incidentreports;
+
+import org.json.JSONObject;
+
+/**
+ * The list record as it was before decoding into {@link IncidentSummary}: every field the
+ * server sends as text is kept as its own String. Only used to measure the heap saving.
+ */
+final class StringIncidentSummary {
+    final String id;
+    final String collectionId;
+    final String type;
+    final String description;
+    final String status;
+    final String created;
+    final String updated;
+    final double latitude;
+    final double longitude;
+    final String imageFileName;
+
+    StringIncidentSummary(JSONObject obj) {
+        id = obj.optString("id", "");
+        collectionId = obj.optString("collectionId", "");
+        type = obj.optString("type", "Unknown");
+        description = obj.optString("description", "No description");
+        status = obj.optString("status", "pending");
+        created = obj.optString("created", "");
+        updated = obj.optString("updated", "");
+        latitude = IncidentSummary.parseCoordinate(obj.optString("latitude", ""));
+        longitude = IncidentSummary.parseCoordinate(obj.optString("longitude", ""));
+        imageFileName = obj.optString("incident_image", "");
+    }
+}
@@ -24,3 +24,4 @@ dependencyResolutionManagement {
 
 rootProject.name = "incident reports"
 include(":app")
+include(":benchmark")